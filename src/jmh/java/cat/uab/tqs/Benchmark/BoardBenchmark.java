@@ -0,0 +1,114 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import cat.uab.tqs.GameStructure.ShapeMask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las operaciones del tablero sobre tableros con distintos niveles de llenado.
+ * <p>
+ * El tablero tiene {@code fill}% de sus filas ocupadas desde abajo, todas con un hueco en la
+ * columna 0, como un pozo para la pieza I.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    // Índice de la pieza T en la fábrica
+    private static final int TYPE_T = 5;
+
+    @Param({"0", "25", "50", "75"})
+    public int fill;
+
+    private Board board;
+    // Primera fila libre por encima de la pila
+    private int stackTop;
+    // Forma y máscara de la T apuntando hacia arriba
+    private Point[] shapeT;
+    private ShapeMask maskT;
+    // Posición válida justo encima de la pila
+    private Point abovePosition;
+    // Fila de nueve celdas con el hueco en la columna 0 y bloque que la completa
+    private Point[] gapRow;
+    private Point[] block;
+    private Point newRowPosition;
+    private Point bottomGap;
+    // Columna que se comprueba en cada llamada, para que el JIT no pueda precalcular el resultado
+    private int column;
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+        int stackRows = Board.BOARD_HEIGHT * fill / 100;
+        stackTop = Board.BOARD_HEIGHT - stackRows - 1;
+
+        gapRow = new Point[Board.BOARD_WIDTH - 1];
+        for (int x = 1; x < Board.BOARD_WIDTH; x++) {
+            gapRow[x - 1] = new Point(x, 0);
+        }
+        block = new Point[]{ new Point(0, 0) };
+        for (int y = Board.BOARD_HEIGHT - stackRows; y < Board.BOARD_HEIGHT; y++) {
+            board.placePiece(gapRow, new Point(0, y), Color.GRAY);
+        }
+        board.clearLines();
+
+        shapeT = PieceFactory.getRotationTable(TYPE_T).getShape(0);
+        maskT = PieceFactory.getRotationTable(TYPE_T).getMask(0);
+        abovePosition = new Point(4, stackTop - 1);
+        newRowPosition = new Point(0, stackTop);
+        bottomGap = new Point(0, Board.BOARD_HEIGHT - 1);
+    }
+
+    @Benchmark
+    public boolean isValidPositionPoints() {
+        column = (column + 1) & 7;
+        abovePosition.x = column;
+        return board.isValidPosition(shapeT, abovePosition);
+    }
+
+    @Benchmark
+    public boolean isValidPositionMask() {
+        column = (column + 1) & 7;
+        return board.isValidPosition(maskT, column, stackTop - 1);
+    }
+
+    /**
+     * Coloca la T siempre en la misma posición; las celdas se sobrescriben, así que el
+     * estado del tablero no cambia entre llamadas.
+     */
+    @Benchmark
+    public Board placePiece() {
+        board.placePiece(shapeT, abovePosition, Color.MAGENTA);
+        return board;
+    }
+
+    /**
+     * Añade una fila con hueco encima de la pila, completa la fila inferior y la elimina.
+     * El nivel de llenado es el mismo al terminar cada llamada.
+     */
+    @Benchmark
+    public int clearLines() {
+        board.placePiece(gapRow, newRowPosition, Color.GRAY);
+        board.placePiece(block, bottomGap, Color.CYAN);
+        return board.clearLines();
+    }
+}
@@ -0,0 +1,49 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.GameControl.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del ciclo completo de una pieza: bajar con {@link Game#moveDown()} hasta fijarla,
+ * limpiar líneas y generar la siguiente. Cuando la partida termina se empieza otra
+ * con la siguiente semilla, coste que queda repartido entre todas las piezas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private long seed;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = new Game(seed++);
+    }
+
+    @Benchmark
+    public Game moveDownLockAndSpawn() {
+        if (game.isGameOver()) {
+            game = new Game(seed++);
+        }
+        int placed = game.getPiecesPlaced();
+        while (game.getPiecesPlaced() == placed && !game.isGameOver()) {
+            game.moveDown();
+        }
+        return game;
+    }
+}
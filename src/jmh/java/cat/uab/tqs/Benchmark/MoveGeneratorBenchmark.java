@@ -0,0 +1,57 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.Bot.MoveGenerator;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la generación de posiciones finales de las siete piezas
+ * sobre un tablero con columnas de alturas irregulares.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+        int[] heights = { 4, 6, 5, 3, 0, 2, 3, 5, 7, 6 };
+        Point[] block = { new Point(0, 0) };
+        for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+            for (int h = 0; h < heights[x]; h++) {
+                board.placePiece(block, new Point(x, Board.BOARD_HEIGHT - 1 - h), Color.GRAY);
+            }
+        }
+    }
+
+    @Benchmark
+    public int allSevenPieces() {
+        int placements = 0;
+        for (int type = 0; type < PieceFactory.PIECE_TYPES; type++) {
+            placements += generator.generate(board, PieceFactory.getRotationTable(type),
+                    Board.BOARD_WIDTH / 2 - 1, 0, 0).size();
+        }
+        return placements;
+    }
+}
@@ -0,0 +1,59 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.GameStructure.BagRandomizer;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la rotación de piezas y de la generación de piezas nuevas, creando una
+ * pieza cada vez o reutilizando la misma como hace {@link cat.uab.tqs.GameControl.Game}. Las piezas se
+ * sortean con la bolsa de 7 de la partida durante toda la medición, sin repetir la secuencia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+
+    private PieceFactory factory;
+    private Piece piece;
+
+    @Setup
+    public void setUp() {
+        Board board = new Board();
+        factory = new PieceFactory(board, new BagRandomizer(42L));
+        // Una T en la posición inicial de un tablero vacío puede girar siempre
+        piece = new Piece(PieceFactory.getRotationTable(5).getShape(0), PieceFactory.getColor(5), board);
+    }
+
+    @Benchmark
+    public Piece rotate() {
+        piece.rotate();
+        return piece;
+    }
+
+    @Benchmark
+    public Piece getNewPiece() {
+        return factory.getNewPiece();
+    }
+
+    @Benchmark
+    public Piece getNewPieceReused() {
+        return factory.getNewPiece(piece);
+    }
+}
@@ -0,0 +1,98 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GraficInterface.CellSprites;
+import cat.uab.tqs.GraficInterface.GamePanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de dibujo, en fotogramas por segundo: el tablero entero lleno de celdas dibujado
+ * rellenando y trazando cada celda (como antes) frente a copiar su imagen de {@link CellSprites},
+ * y un fotograma completo de {@link GamePanel} con la capa de celdas fijas en caché.
+ * Se dibuja sobre una imagen en memoria, así que funciona también sin pantalla.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    private static final int CELL = GamePanel.DEFAULT_CELL_SIZE;
+    private static final Color[] COLORS = {
+            Color.CYAN, Color.YELLOW, Color.MAGENTA, Color.GREEN, Color.RED, Color.BLUE, Color.ORANGE
+    };
+
+    private BufferedImage target;
+    private Graphics2D graphics;
+    private CellSprites sprites;
+    private GamePanel panel;
+
+    @Setup
+    public void setUp() {
+        int width = Board.BOARD_WIDTH * CELL + 1;
+        int height = Board.BOARD_HEIGHT * CELL + 1;
+        target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        graphics = target.createGraphics();
+        sprites = new CellSprites(CELL);
+
+        Game game = new Game(1L);
+        for (int i = 0; i < 12 && !game.isGameOver(); i++) {
+            game.moveLeft();
+            game.hardDrop();
+        }
+        game.publishFrame();
+        panel = new GamePanel(game, action -> { });
+        panel.setSize(panel.getPreferredSize());
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage fillAndStroke() {
+        for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+            for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+                graphics.setColor(COLORS[(x + y) % COLORS.length]);
+                graphics.fillRect(x * CELL, y * CELL, CELL, CELL);
+                graphics.setColor(Color.DARK_GRAY);
+                graphics.drawRect(x * CELL, y * CELL, CELL, CELL);
+            }
+        }
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage spriteBlit() {
+        for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+            for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+                sprites.draw(graphics, COLORS[(x + y) % COLORS.length], x * CELL, y * CELL);
+            }
+        }
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage panelFrame() {
+        panel.paint(graphics);
+        return target;
+    }
+}
@@ -0,0 +1,64 @@
+package cat.uab.tqs.Benchmark;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de probar una jugada y deshacerla, como haría un jugador que mira hacia delante:
+ * con instantáneas reutilizadas frente a copiar el tablero entero.
+ * La partida se prepara con 20 piezas fijadas para que el tablero no esté vacío.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private Game game;
+    private final Game.Snapshot snapshot = new Game.Snapshot();
+    private final Board.Snapshot boardSnapshot = new Board.Snapshot();
+
+    @Setup
+    public void setUp() {
+        game = new Game(1L);
+        for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+            game.moveLeft();
+            game.hardDrop();
+        }
+    }
+
+    @Benchmark
+    public Game gameSnapshotDropRestore() {
+        game.snapshot(snapshot);
+        game.hardDrop();
+        game.restore(snapshot);
+        return game;
+    }
+
+    @Benchmark
+    public Board boardSnapshotRestore() {
+        Board board = game.getBoard();
+        board.snapshot(boardSnapshot);
+        board.restore(boardSnapshot);
+        return board;
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return new Board(game.getBoard());
+    }
+}
@@ -0,0 +1,388 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import cat.uab.tqs.GameStructure.RotationTable;
+import cat.uab.tqs.GameStructure.Zobrist;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Jugador automático que elige cada posición con una búsqueda en haz.
+ * <p>
+ * En cada nivel se generan las posiciones finales de la pieza para cada tablero del haz,
+ * se evalúan los tableros resultantes en paralelo sobre un {@link ForkJoinPool} y se conservan
+ * los {@code beamWidth} mejores. El primer nivel usa la pieza actual y los siguientes las piezas
+ * conocidas de antemano; la decisión es la primera posición de la mejor rama.
+ * <p>
+ * La evaluación de cada tablero se guarda en una {@link TranspositionTable} por su hash de
+ * Zobrist, y los tableros repetidos dentro de un mismo nivel se conservan una sola vez en el haz.
+ * Las expansiones completas de una pieza sobre un tablero (posiciones, líneas y puntuaciones) se
+ * guardan en una {@link EvaluationCache} acotada, de modo que las ramas hermanas y la búsqueda de la
+ * pieza siguiente no repiten la generación de movimientos ni las evaluaciones. Los tableros hijos
+ * se evalúan sobre un tablero auxiliar por hilo y solo se copian los que entran en el haz.
+ */
+public class BeamSearchBot {
+
+    // Candidatos que evalúa una tarea antes de dejar de dividirse
+    private static final int LEAF_CANDIDATES = 8;
+    // Columna y fila en las que aparecen las piezas nuevas
+    private static final int SPAWN_X = Board.BOARD_WIDTH / 2 - 1;
+    private static final int SPAWN_Y = 0;
+    // Color con el que se colocan las piezas en los tableros de la búsqueda
+    private static final Color SEARCH_COLOR = Color.GRAY;
+    // Entradas de la tabla de transposición por defecto
+    private static final int DEFAULT_TABLE_CAPACITY = 1 << 16;
+    // Presupuesto por defecto de la caché de expansiones
+    private static final long DEFAULT_CACHE_BYTES = 32L << 20;
+    // Desplazamiento para que las coordenadas de la clave de expansión sean positivas
+    private static final long POSITION_OFFSET = 8;
+
+    private final int beamWidth;
+    // Piezas siguientes de la partida que se tienen en cuenta al elegir
+    private int lookahead = 0;
+    private final BoardEvaluator evaluator;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final EvaluationCache<Expansion> cache;
+    private final MoveGenerator generator = new MoveGenerator();
+    // Tablero auxiliar de cada hilo para evaluar posiciones sin crear tableros
+    private final ThreadLocal<Board> scratch = ThreadLocal.withInitial(Board::new);
+
+    // Métricas
+    private final LongAdder nodes = new LongAdder();
+    private long pieces = 0;
+    private long searchNanos = 0;
+
+    public BeamSearchBot(int beamWidth) {
+        this(beamWidth, new BoardEvaluator(), ForkJoinPool.commonPool());
+    }
+
+    public BeamSearchBot(int beamWidth, BoardEvaluator evaluator, ForkJoinPool pool) {
+        this(beamWidth, evaluator, pool, new TranspositionTable(DEFAULT_TABLE_CAPACITY), DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Crea un bot.
+     * @param beamWidth  Número de tableros que se conservan en cada nivel.
+     * @param evaluator  La función de evaluación.
+     * @param pool       El pool donde se evalúan los candidatos.
+     * @param table      La tabla de transposición de evaluaciones de tableros.
+     * @param cacheBytes Presupuesto en bytes de la caché de expansiones.
+     */
+    public BeamSearchBot(int beamWidth, BoardEvaluator evaluator, ForkJoinPool pool, TranspositionTable table,
+                         long cacheBytes) {
+        this.beamWidth = beamWidth;
+        this.evaluator = evaluator;
+        this.pool = pool;
+        this.table = table;
+        this.cache = new EvaluationCache<>(cacheBytes, Expansion::weight);
+    }
+
+    /**
+     * Elige y juega la posición de la pieza actual.
+     * @param game La partida.
+     * @return true si se ha fijado una pieza, false si no había ninguna posición posible.
+     */
+    public boolean playPiece(Game game) {
+        Placement placement = choose(game);
+        return placement != null
+                && game.placeCurrentPiece(placement.getX(), placement.getY(), placement.getRotation());
+    }
+
+    /**
+     * Indica cuántas piezas siguientes de la partida se miran al elegir con {@link #choose(Game)}.
+     * Cada pieza añade un nivel a la búsqueda.
+     * @param pieces Piezas siguientes, entre 0 y {@link Game#PREVIEW_SIZE}.
+     */
+    public void setLookahead(int pieces) {
+        if (pieces < 0 || pieces > Game.PREVIEW_SIZE) {
+            throw new IllegalArgumentException("Piezas siguientes fuera de rango: " + pieces);
+        }
+        this.lookahead = pieces;
+    }
+
+    /**
+     * Elige la posición de la pieza actual de una partida, mirando las piezas siguientes
+     * indicadas con {@link #setLookahead(int)}.
+     * @param game La partida.
+     * @return La mejor posición, o null si no hay ninguna.
+     */
+    public Placement choose(Game game) {
+        Piece piece = game.getCurrentPiece();
+        return choose(game.getBoard(), piece.getRotationTable(), piece.getPosition().x, piece.getPosition().y,
+                piece.getRotation(), game.getPreview(new int[lookahead]));
+    }
+
+    /**
+     * Elige la posición de una pieza mirando las piezas siguientes.
+     * @param board     El tablero.
+     * @param table     La tabla de rotaciones de la pieza actual.
+     * @param x         Columna de la pieza actual.
+     * @param y         Fila de la pieza actual.
+     * @param rotation  Rotación de la pieza actual.
+     * @param lookahead Tipos de las piezas siguientes, en orden.
+     * @return La mejor posición, o null si no hay ninguna.
+     */
+    public Placement choose(Board board, RotationTable table, int x, int y, int rotation, int[] lookahead) {
+        long start = System.nanoTime();
+        // Copia propia: los hilos de la búsqueda leen el tablero raíz a la vez
+        Board root = new Board(board);
+        List<Node> beam = List.of(new Node(root, 0, null, 0, root.getHash()));
+
+        beam = expand(beam, table, x, y, rotation);
+        for (int i = 0; i < lookahead.length && !beam.isEmpty(); i++) {
+            List<Node> next = expand(beam, PieceFactory.getRotationTable(lookahead[i]), SPAWN_X, SPAWN_Y, 0);
+            if (next.isEmpty()) {
+                break; // Ninguna rama sobrevive a la siguiente pieza: se decide con lo que hay
+            }
+            beam = next;
+        }
+
+        pieces++;
+        searchNanos += System.nanoTime() - start;
+        return beam.isEmpty() ? null : beam.get(0).first;
+    }
+
+    /**
+     * Obtiene la expansión de cada tablero del haz, de la caché o evaluándola en paralelo,
+     * y devuelve los mejores hijos ordenados de mayor a menor puntuación, sin tableros repetidos.
+     */
+    private List<Node> expand(List<Node> beam, RotationTable table, int x, int y, int rotation) {
+        int type = typeOf(table);
+        Expansion[] expansions = new Expansion[beam.size()];
+        long[] keys = new long[beam.size()];
+        List<Integer> pending = new ArrayList<>();
+        int pendingPlacements = 0;
+        for (int i = 0; i < expansions.length; i++) {
+            Node node = beam.get(i);
+            if (type >= 0) {
+                keys[i] = expansionKey(node.hash, type, x, y, rotation);
+                expansions[i] = cache.get(keys[i]);
+            }
+            if (expansions[i] == null) {
+                expansions[i] = new Expansion(generator.generate(node.board, table, x, y, rotation));
+                pending.add(i);
+                pendingPlacements += expansions[i].size();
+            }
+        }
+
+        if (pendingPlacements > 0) {
+            int[] owners = new int[pendingPlacements];
+            int[] indices = new int[pendingPlacements];
+            int n = 0;
+            for (int i : pending) {
+                for (int j = 0; j < expansions[i].size(); j++) {
+                    owners[n] = i;
+                    indices[n] = j;
+                    n++;
+                }
+            }
+            pool.invoke(new EvaluateTask(beam, expansions, owners, indices, 0, n));
+            nodes.add(n);
+            if (type >= 0) {
+                for (int i : pending) {
+                    cache.put(keys[i], expansions[i]);
+                }
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < expansions.length; i++) {
+            Node parent = beam.get(i);
+            Expansion expansion = expansions[i];
+            for (int j = 0; j < expansion.size(); j++) {
+                int lines = parent.lines + expansion.lines[j];
+                double score = expansion.boardScores[j] + evaluator.evaluateLines(lines);
+                candidates.add(new Candidate(parent, expansion, j, lines, score));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+
+        // Solo se construyen los tableros de los hijos que entran en el haz
+        List<Node> best = new ArrayList<>(beamWidth);
+        for (int i = 0; i < candidates.size() && best.size() < beamWidth; i++) {
+            Candidate candidate = candidates.get(i);
+            if (!containsBoard(best, candidate.expansion.hashes[candidate.index], candidate.lines)) {
+                best.add(candidate.toNode());
+            }
+        }
+        return best;
+    }
+
+    private static boolean containsBoard(List<Node> nodes, long hash, int lines) {
+        for (Node other : nodes) {
+            if (other.hash == hash && other.lines == lines) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tarea que coloca y evalúa un rango de posiciones de las expansiones pendientes.
+     */
+    private final class EvaluateTask extends RecursiveAction {
+        private final List<Node> beam;
+        private final Expansion[] expansions;
+        private final int[] owners;
+        private final int[] indices;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(List<Node> beam, Expansion[] expansions, int[] owners, int[] indices, int from, int to) {
+            this.beam = beam;
+            this.expansions = expansions;
+            this.owners = owners;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_CANDIDATES) {
+                Board board = scratch.get();
+                for (int i = from; i < to; i++) {
+                    evaluate(board, beam.get(owners[i]).board, expansions[owners[i]], indices[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(beam, expansions, owners, indices, from, middle),
+                    new EvaluateTask(beam, expansions, owners, indices, middle, to));
+        }
+    }
+
+    /**
+     * Coloca una posición sobre una copia del tablero padre y guarda el resultado en la expansión.
+     */
+    private void evaluate(Board board, Board parent, Expansion expansion, int index) {
+        board.copyFrom(parent);
+        Placement placement = expansion.placements[index];
+        place(board, placement);
+        expansion.lines[index] = board.clearLines();
+        long hash = board.getHash();
+        double boardScore = table.get(hash);
+        if (Double.isNaN(boardScore)) {
+            boardScore = evaluator.evaluateBoard(board);
+            table.put(hash, boardScore);
+        }
+        expansion.hashes[index] = hash;
+        expansion.boardScores[index] = boardScore;
+    }
+
+    private static void place(Board board, Placement placement) {
+        board.placePiece(placement.getTable(), placement.getRotation(), placement.getX(), placement.getY(),
+                SEARCH_COLOR);
+    }
+
+    /**
+     * Clave de la expansión de una pieza sobre un tablero: el hash del tablero, la pieza
+     * y su posición inicial, que determina a qué posiciones finales puede llegar.
+     */
+    private static long expansionKey(long boardHash, int type, int x, int y, int rotation) {
+        return boardHash ^ Zobrist.piece(type, rotation)
+                ^ (x + POSITION_OFFSET) * 0x9E3779B97F4A7C15L
+                ^ (y + POSITION_OFFSET) * 0xC2B2AE3D27D4EB4FL;
+    }
+
+    /**
+     * Devuelve el tipo de las piezas de la fábrica que usan una tabla, o -1 si no es de la fábrica.
+     */
+    private static int typeOf(RotationTable table) {
+        for (int type = 0; type < PieceFactory.PIECE_TYPES; type++) {
+            if (PieceFactory.getRotationTable(type) == table) {
+                return type;
+            }
+        }
+        return -1;
+    }
+
+    public long getPieces() {
+        return pieces;
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public EvaluationCache<?> getEvaluationCache() {
+        return cache;
+    }
+
+    /**
+     * Piezas decididas por segundo de búsqueda.
+     * @return El rendimiento, o 0 si todavía no se ha decidido ninguna.
+     */
+    public double getPiecesPerSecond() {
+        return searchNanos == 0 ? 0 : pieces * 1e9 / searchNanos;
+    }
+
+    /**
+     * Tableros evaluados por segundo de búsqueda.
+     * @return El rendimiento, o 0 si todavía no se ha decidido ninguna pieza.
+     */
+    public double getNodesPerSecond() {
+        return searchNanos == 0 ? 0 : getNodes() * 1e9 / searchNanos;
+    }
+
+    /**
+     * Posición candidata de una expansión, todavía sin tablero.
+     */
+    private static final class Candidate {
+        private final Node parent;
+        private final Expansion expansion;
+        private final int index;
+        private final int lines;
+        private final double score;
+
+        Candidate(Node parent, Expansion expansion, int index, int lines, double score) {
+            this.parent = parent;
+            this.expansion = expansion;
+            this.index = index;
+            this.lines = lines;
+            this.score = score;
+        }
+
+        Node toNode() {
+            Board board = new Board(parent.board);
+            Placement placement = expansion.placements[index];
+            place(board, placement);
+            board.clearLines();
+            return new Node(board, lines, parent.first != null ? parent.first : placement, score,
+                    expansion.hashes[index]);
+        }
+    }
+
+    /**
+     * Tablero de la búsqueda con las líneas acumuladas y la primera posición de su rama.
+     */
+    private static final class Node {
+        private final Board board;
+        private final int lines;
+        private final Placement first;
+        private final double score;
+        private final long hash;
+
+        Node(Board board, int lines, Placement first, double score, long hash) {
+            this.board = board;
+            this.lines = lines;
+            this.first = first;
+            this.score = score;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameStructure.Board;
+
+/**
+ * Función heurística que puntúa un tablero tras fijar una pieza.
+ * Combina la altura agregada, los huecos, la irregularidad y las líneas eliminadas,
+ * que el tablero mantiene al colocar piezas y limpiar líneas.
+ */
+public class BoardEvaluator {
+
+    // Pesos por defecto, ajustados con un algoritmo genético para esta combinación de rasgos
+    public static final double DEFAULT_HEIGHT_WEIGHT = -0.510066;
+    public static final double DEFAULT_LINES_WEIGHT = 0.760666;
+    public static final double DEFAULT_HOLES_WEIGHT = -0.35663;
+    public static final double DEFAULT_BUMPINESS_WEIGHT = -0.184483;
+
+    private final double heightWeight;
+    private final double linesWeight;
+    private final double holesWeight;
+    private final double bumpinessWeight;
+
+    public BoardEvaluator() {
+        this(DEFAULT_HEIGHT_WEIGHT, DEFAULT_LINES_WEIGHT, DEFAULT_HOLES_WEIGHT, DEFAULT_BUMPINESS_WEIGHT);
+    }
+
+    public BoardEvaluator(double heightWeight, double linesWeight, double holesWeight, double bumpinessWeight) {
+        this.heightWeight = heightWeight;
+        this.linesWeight = linesWeight;
+        this.holesWeight = holesWeight;
+        this.bumpinessWeight = bumpinessWeight;
+    }
+
+    /**
+     * Puntúa un tablero. Cuanto mayor, mejor.
+     * @param board        El tablero tras fijar la pieza y limpiar las líneas.
+     * @param linesCleared Las líneas eliminadas para llegar a este tablero.
+     * @return La puntuación.
+     */
+    public double evaluate(Board board, int linesCleared) {
+        return evaluateBoard(board) + evaluateLines(linesCleared);
+    }
+
+    /**
+     * Puntúa solo el contenido del tablero, sin las líneas eliminadas.
+     * Solo depende de las celdas ocupadas, así que puede guardarse por hash del tablero.
+     * @param board El tablero.
+     * @return La parte de la puntuación que depende del tablero.
+     */
+    public double evaluateBoard(Board board) {
+        return heightWeight * board.getAggregateHeight()
+                + holesWeight * board.getHoles()
+                + bumpinessWeight * board.getBumpiness();
+    }
+
+    /**
+     * Puntúa las líneas eliminadas.
+     * @param linesCleared Las líneas eliminadas.
+     * @return La parte de la puntuación que depende de las líneas.
+     */
+    public double evaluateLines(int linesCleared) {
+        return linesWeight * linesCleared;
+    }
+}
@@ -0,0 +1,290 @@
+package cat.uab.tqs.Bot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caché concurrente de resultados de evaluación, acotada por un presupuesto de memoria en bytes.
+ * <p>
+ * Las claves son de 64 bits (por ejemplo, el hash del tablero combinado con la pieza) y se
+ * reparten entre segmentos con su propio cerrojo, de modo que los hilos de la búsqueda solo
+ * compiten cuando acceden al mismo segmento. Cada segmento dispone de una parte del presupuesto
+ * y, al superarla, desaloja entradas con el algoritmo CLOCK: una manecilla recorre las entradas,
+ * da una segunda oportunidad a las usadas desde la última pasada y desaloja la primera que no lo esté.
+ * <p>
+ * El tamaño de cada valor lo estima la función {@code weigher}; a ese tamaño se suma un coste fijo
+ * por entrada que aproxima el de las estructuras de la caché.
+ *
+ * @param <V> El tipo de los valores.
+ */
+public class EvaluationCache<V> {
+
+    // Bytes aproximados que ocupa cada entrada además de su valor (nodo del mapa, Long y Entry)
+    static final int ENTRY_OVERHEAD = 96;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+    private final ToIntFunction<V> weigher;
+    private final long byteBudget;
+
+    // Métricas
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché con cuatro segmentos por núcleo, redondeados a la siguiente potencia de 2.
+     * @param byteBudget Presupuesto de memoria en bytes.
+     * @param weigher    Estimación del tamaño en bytes de cada valor.
+     */
+    public EvaluationCache(long byteBudget, ToIntFunction<V> weigher) {
+        this(byteBudget, weigher, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea una caché.
+     * @param byteBudget Presupuesto de memoria en bytes.
+     * @param weigher    Estimación del tamaño en bytes de cada valor.
+     * @param stripes    Número de segmentos; se redondea a la siguiente potencia de 2.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EvaluationCache(long byteBudget, ToIntFunction<V> weigher, int stripes) {
+        if (byteBudget <= 0) {
+            throw new IllegalArgumentException("El presupuesto debe ser positivo: " + byteBudget);
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("El número de segmentos debe ser positivo: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment<>(byteBudget / size);
+        }
+        this.segmentMask = size - 1;
+        this.weigher = weigher;
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Busca un valor y, si está, lo marca como usado.
+     * @param key La clave.
+     * @return El valor, o null si no está en la caché.
+     */
+    public V get(long key) {
+        V value = segmentFor(key).get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Guarda un valor, desalojando las entradas necesarias para respetar el presupuesto.
+     * Un valor que no cabe en el presupuesto de su segmento no se guarda, y el que hubiera
+     * con la misma clave se descarta para no devolver un valor antiguo.
+     * @param key   La clave.
+     * @param value El valor.
+     */
+    public void put(long key, V value) {
+        int weight = ENTRY_OVERHEAD + weigher.applyAsInt(value);
+        evictions.add(segmentFor(key).put(key, value, weight));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Proporción de búsquedas que han encontrado su valor.
+     * @return La tasa de aciertos, o 0 si no se ha hecho ninguna búsqueda.
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Bytes estimados que ocupan las entradas actuales.
+     * @return La suma de los pesos de todas las entradas.
+     */
+    public long getWeightedBytes() {
+        long total = 0;
+        for (Segment<V> segment : segments) {
+            total += segment.weightedBytes();
+        }
+        return total;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segment<V> segment : segments) {
+            total += segment.size();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché: %d entradas, %d/%d bytes, aciertos %.1f%%, desalojos %d",
+                size(), getWeightedBytes(), byteBudget, getHitRate() * 100, getEvictions());
+    }
+
+    private Segment<V> segmentFor(long key) {
+        // Los bits altos eligen el segmento para no correlacionar con los índices de las tablas hash
+        return segments[(int) (key >>> 40) & segmentMask];
+    }
+
+    /**
+     * Parte de la caché protegida por su propio cerrojo.
+     */
+    private static final class Segment<V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Entry<V>> map = new HashMap<>();
+        // Entradas en el orden que recorre la manecilla del CLOCK
+        private final List<Entry<V>> clock = new ArrayList<>();
+        private final long budget;
+        private long weighted = 0;
+        private int hand = 0;
+
+        Segment(long budget) {
+            this.budget = budget;
+        }
+
+        V get(long key) {
+            lock.lock();
+            try {
+                Entry<V> entry = map.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                entry.referenced = true;
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Guarda un valor y devuelve el número de entradas desalojadas.
+         */
+        int put(long key, V value, int weight) {
+            lock.lock();
+            try {
+                Entry<V> previous = map.get(key);
+                if (weight > budget) {
+                    // El valor nuevo no cabe: quitar el antiguo en lugar de conservarlo
+                    if (previous != null) {
+                        remove(clock.indexOf(previous));
+                    }
+                    return 0;
+                }
+                if (previous != null) {
+                    weighted += weight - previous.weight;
+                    previous.value = value;
+                    previous.weight = weight;
+                    previous.referenced = true;
+                } else {
+                    Entry<V> entry = new Entry<>(key, value, weight);
+                    map.put(key, entry);
+                    clock.add(entry);
+                    weighted += weight;
+                }
+                int evicted = 0;
+                while (weighted > budget) {
+                    evictOne();
+                    evicted++;
+                }
+                return evicted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Avanza la manecilla hasta una entrada no usada desde la última pasada y la desaloja.
+         */
+        private void evictOne() {
+            while (true) {
+                if (hand >= clock.size()) {
+                    hand = 0;
+                }
+                Entry<V> entry = clock.get(hand);
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    hand++;
+                    continue;
+                }
+                remove(hand);
+                return;
+            }
+        }
+
+        /**
+         * Quita la entrada de una posición del CLOCK.
+         */
+        private void remove(int index) {
+            Entry<V> entry = clock.get(index);
+            // Quitar sin desplazar: la última entrada ocupa el hueco de la quitada
+            Entry<V> last = clock.remove(clock.size() - 1);
+            if (last != entry) {
+                clock.set(index, last);
+            }
+            map.remove(entry.key);
+            weighted -= entry.weight;
+        }
+
+        long weightedBytes() {
+            lock.lock();
+            try {
+                return weighted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final long key;
+        private V value;
+        private int weight;
+        private boolean referenced;
+
+        Entry(long key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
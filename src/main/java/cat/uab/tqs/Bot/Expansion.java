@@ -0,0 +1,39 @@
+package cat.uab.tqs.Bot;
+
+import java.util.List;
+
+/**
+ * Resultado de evaluar todas las posiciones finales de una pieza sobre un tablero:
+ * para cada posición, las líneas que elimina, el hash del tablero resultante y su puntuación
+ * sin contar las líneas. No guarda los tableros, que se reconstruyen solo para las ramas elegidas.
+ */
+final class Expansion {
+
+    // Bytes aproximados de cada Placement y de la cabecera de los arrays
+    private static final int PLACEMENT_BYTES = 32;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    final Placement[] placements;
+    final int[] lines;
+    final long[] hashes;
+    final double[] boardScores;
+
+    Expansion(List<Placement> placements) {
+        this.placements = placements.toArray(new Placement[0]);
+        this.lines = new int[this.placements.length];
+        this.hashes = new long[this.placements.length];
+        this.boardScores = new double[this.placements.length];
+    }
+
+    int size() {
+        return placements.length;
+    }
+
+    /**
+     * Estimación de los bytes que ocupa, para el presupuesto de la caché.
+     */
+    int weight() {
+        // Referencia + Placement, int, long y double por posición
+        return 4 * ARRAY_HEADER_BYTES + placements.length * (4 + PLACEMENT_BYTES + 4 + 8 + 8);
+    }
+}
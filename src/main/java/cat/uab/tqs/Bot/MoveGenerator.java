@@ -0,0 +1,149 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.GameStructure.RotationTable;
+import cat.uab.tqs.GameStructure.ShapeMask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Genera todas las posiciones finales alcanzables por una pieza.
+ * <p>
+ * Hace una búsqueda en anchura sobre los estados (x, y, rotación) con los movimientos
+ * del juego (izquierda, derecha, abajo y girar) y marca los estados visitados en un
+ * conjunto de bits. Los estados desde los que la pieza no puede bajar son posiciones finales;
+ * las que ocupan las mismas celdas con otra rotación (la O, o la I, S y Z) se devuelven una sola vez.
+ * <p>
+ * Reutiliza sus arrays entre llamadas, por lo que cada hilo debe tener su propio generador.
+ */
+public class MoveGenerator {
+
+    // Margen para que las coordenadas de la posición de la pieza sean índices positivos
+    private static final int MARGIN = 4;
+    private static final int X_SPAN = Board.BOARD_WIDTH + 2 * MARGIN;
+    private static final int Y_SPAN = Board.BOARD_HEIGHT + 2 * MARGIN;
+    private static final int STATES = X_SPAN * Y_SPAN * RotationTable.ROTATIONS;
+
+    // Estados visitados, un bit por estado
+    private final long[] visited = new long[(STATES + 63) / 64];
+    // Cola de la búsqueda en anchura, con los estados codificados como enteros
+    private final int[] queue = new int[STATES];
+    // Celdas de las posiciones finales encontradas, para descartar duplicados
+    private final long[] landingKeys = new long[STATES];
+
+    /**
+     * Genera las posiciones finales de la pieza actual de una partida.
+     * @param game La partida.
+     * @return Las posiciones finales, sin duplicados.
+     */
+    public List<Placement> generate(Game game) {
+        Piece piece = game.getCurrentPiece();
+        return generate(game.getBoard(), piece.getRotationTable(),
+                piece.getPosition().x, piece.getPosition().y, piece.getRotation());
+    }
+
+    /**
+     * Genera las posiciones finales de una pieza desde un estado inicial.
+     * @param board    El tablero.
+     * @param table    La tabla de rotaciones de la pieza.
+     * @param x        Columna inicial.
+     * @param y        Fila inicial.
+     * @param rotation Rotación inicial.
+     * @return Las posiciones finales, sin duplicados. Vacía si el estado inicial no es válido.
+     */
+    public List<Placement> generate(Board board, RotationTable table, int x, int y, int rotation) {
+        List<Placement> placements = new ArrayList<>();
+        if (!inRange(x, y) || !board.isValidPosition(table.getMask(rotation), x, y)) {
+            return placements;
+        }
+        Arrays.fill(visited, 0L);
+        int landings = 0;
+        int head = 0;
+        int tail = 0;
+
+        int start = encode(x, y, rotation);
+        mark(start);
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int state = queue[head++];
+            int r = state % RotationTable.ROTATIONS;
+            int cell = state / RotationTable.ROTATIONS;
+            int sx = cell % X_SPAN - MARGIN;
+            int sy = cell / X_SPAN - MARGIN;
+            ShapeMask mask = table.getMask(r);
+
+            if (board.isValidPosition(mask, sx, sy + 1)) {
+                tail = visit(board, mask, sx, sy + 1, r, tail);
+            } else {
+                long key = landingKey(mask, sx, sy);
+                if (!contains(landingKeys, landings, key)) {
+                    landingKeys[landings++] = key;
+                    placements.add(new Placement(table, sx, sy, r));
+                }
+            }
+            tail = visit(board, mask, sx - 1, sy, r, tail);
+            tail = visit(board, mask, sx + 1, sy, r, tail);
+            int next = (r + 1) % RotationTable.ROTATIONS;
+            tail = visit(board, table.getMask(next), sx, sy, next, tail);
+        }
+        return placements;
+    }
+
+    /**
+     * Encola un estado si está dentro del rango, no se ha visitado y es válido.
+     */
+    private int visit(Board board, ShapeMask mask, int x, int y, int rotation, int tail) {
+        if (!inRange(x, y)) {
+            return tail;
+        }
+        int state = encode(x, y, rotation);
+        if (isMarked(state) || !board.isValidPosition(mask, x, y)) {
+            return tail;
+        }
+        mark(state);
+        queue[tail] = state;
+        return tail + 1;
+    }
+
+    private static boolean inRange(int x, int y) {
+        return x >= -MARGIN && x < X_SPAN - MARGIN && y >= -MARGIN && y < Y_SPAN - MARGIN;
+    }
+
+    private static int encode(int x, int y, int rotation) {
+        return ((y + MARGIN) * X_SPAN + (x + MARGIN)) * RotationTable.ROTATIONS + rotation;
+    }
+
+    private boolean isMarked(int state) {
+        return (visited[state >>> 6] & (1L << state)) != 0;
+    }
+
+    private void mark(int state) {
+        visited[state >>> 6] |= 1L << state;
+    }
+
+    /**
+     * Identifica las celdas que ocupa una pieza: fila y columna de su caja y las máscaras
+     * de sus filas (hasta cuatro filas de cuatro bits).
+     */
+    private static long landingKey(ShapeMask mask, int x, int y) {
+        long key = ((long) (y + mask.getOffsetY() + MARGIN) << 24) | ((long) (x + mask.getOffsetX() + MARGIN) << 16);
+        for (int i = 0; i < mask.getHeight(); i++) {
+            key |= (long) mask.getRow(i) << (4 * i);
+        }
+        return key;
+    }
+
+    private static boolean contains(long[] keys, int size, long key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameStructure.RotationTable;
+import cat.uab.tqs.GameStructure.ShapeMask;
+
+/**
+ * Posición final en la que una pieza puede quedar fijada: columna, fila y rotación.
+ */
+public final class Placement {
+    private final RotationTable table;
+    private final int x;
+    private final int y;
+    private final int rotation;
+
+    public Placement(RotationTable table, int x, int y, int rotation) {
+        this.table = table;
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+    }
+
+    public RotationTable getTable() {
+        return table;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public ShapeMask getMask() {
+        return table.getMask(rotation);
+    }
+
+    @Override
+    public String toString() {
+        return "Placement(x=" + x + ", y=" + y + ", rotation=" + rotation + ")";
+    }
+}
@@ -0,0 +1,119 @@
+package cat.uab.tqs.Bot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabla de transposición de tamaño fijo que guarda la evaluación de cada estado ya visto.
+ * <p>
+ * Cada clave de 64 bits va a una única entrada (índice = bits bajos de la clave) y una
+ * entrada nueva sustituye a la anterior. Las entradas se guardan como {@code clave ^ valor}
+ * junto al valor, de modo que varios hilos pueden leer y escribir sin bloqueos: una entrada
+ * escrita a medias no cumple la comprobación y se trata como un fallo.
+ * <p>
+ * Se cuenta como colisión cada vez que una clave encuentra su entrada ocupada por otra clave,
+ * tanto al consultar como al sustituirla al guardar.
+ */
+public class TranspositionTable {
+
+    private final long[] checks;
+    private final long[] values;
+    private final int mask;
+
+    // Métricas
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Crea una tabla con, como mínimo, el número de entradas indicado.
+     * @param capacity Número de entradas; se redondea a la siguiente potencia de 2.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        checks = new long[size];
+        values = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Busca la evaluación de un estado.
+     * @param key La clave del estado.
+     * @return La evaluación guardada, o {@code Double.NaN} si no está en la tabla.
+     */
+    public double get(long key) {
+        lookups.increment();
+        int index = index(key);
+        long value = values[index];
+        long check = checks[index];
+        if ((check ^ value) == key && check != 0) {
+            hits.increment();
+            return Double.longBitsToDouble(value);
+        }
+        if (check != 0) {
+            collisions.increment();
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Guarda la evaluación de un estado, sustituyendo la que ocupara su entrada.
+     * @param key   La clave del estado.
+     * @param score La evaluación.
+     */
+    public void put(long key, double score) {
+        int index = index(key);
+        long value = Double.doubleToRawLongBits(score);
+        long previous = checks[index];
+        if (previous != 0 && (previous ^ values[index]) != key) {
+            collisions.increment();
+        }
+        values[index] = value;
+        checks[index] = key ^ value;
+    }
+
+    public int getCapacity() {
+        return checks.length;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Proporción de consultas que han encontrado su estado.
+     * @return La tasa de aciertos, o 0 si no se ha hecho ninguna consulta.
+     */
+    public double getHitRate() {
+        long total = getLookups();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    /**
+     * Colisiones por consulta: cuántas veces, en media, una clave ha encontrado su entrada
+     * ocupada por otro estado.
+     * @return La tasa de colisiones, o 0 si no se ha hecho ninguna consulta.
+     */
+    public double getCollisionRate() {
+        long total = getLookups();
+        return total == 0 ? 0 : (double) getCollisions() / total;
+    }
+
+    private int index(long key) {
+        // Mezclar los bits altos por si la clave no es uniforme en los bajos
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,13 @@
+package cat.uab.tqs.GameControl;
+
+/**
+ * Acciones que un jugador (persona o programa) puede realizar sobre la partida.
+ */
+public enum Action {
+    NONE,
+    LEFT,
+    RIGHT,
+    DOWN,
+    ROTATE,
+    HARD_DROP
+}
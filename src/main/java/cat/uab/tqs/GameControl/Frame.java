@@ -0,0 +1,206 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.GameStructure.RotationTable;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Fotograma inmutable del estado de una partida para los que la dibujan.
+ * Lo publica {@link Game#publishFrame()} tras cada paso de la lógica y se lee con
+ * {@link Game#getFrame()} sin bloqueos: como no cambia nunca, quien lo dibuja en otro hilo
+ * no puede ver un estado a medio modificar.
+ * <p>
+ * Las celdas fijas se guardan como un byte por celda con el índice del color en una paleta
+ * (0 si está vacía). Si el tablero no ha cambiado entre dos fotogramas, comparten las celdas y la paleta.
+ */
+public final class Frame {
+
+    // Celdas de la pieza cuando no hay pieza actual, compartidas por todos los fotogramas
+    private static final int[] NO_CELLS = new int[0];
+
+    // Un color por índice de celda; sólo se amplía copiándola, así que nunca cambia
+    private final Color[] palette;
+    private final byte[] cells;
+    private final long boardVersion;
+    // Celdas de la pieza actual, con la columna en los 16 bits altos y la fila en los bajos
+    private final int[] pieceCells;
+    private final Color pieceColor;
+    private final int score;
+    private final int linesCleared;
+    private final int piecesPlaced;
+    private final int level;
+    private final boolean gameOver;
+
+    private Frame(Color[] palette, byte[] cells, long boardVersion, int[] pieceCells, Color pieceColor, Game game) {
+        this.palette = palette;
+        this.cells = cells;
+        this.boardVersion = boardVersion;
+        this.pieceCells = pieceCells;
+        this.pieceColor = pieceColor;
+        this.score = game.getScore();
+        this.linesCleared = game.getLinesCleared();
+        this.piecesPlaced = game.getPiecesPlaced();
+        this.level = game.getLevel();
+        this.gameOver = game.isGameOver();
+    }
+
+    /**
+     * Captura el estado actual de una partida. Si nada ha cambiado desde el fotograma anterior
+     * lo devuelve tal cual, y si sólo ha cambiado la pieza reutiliza sus celdas fijas.
+     * Debe llamarse desde el hilo que modifica la partida.
+     * @param game     La partida.
+     * @param previous El fotograma anterior, o null.
+     * @return El fotograma.
+     */
+    static Frame capture(Game game, Frame previous) {
+        Board board = game.getBoard();
+        long version = board.getVersion();
+        Piece piece = game.getCurrentPiece();
+        Color pieceColor = piece != null ? piece.getColor() : null;
+
+        if (previous != null && previous.boardVersion == version) {
+            if (samePieceCells(previous.pieceCells, piece) && Objects.equals(previous.pieceColor, pieceColor)
+                    && previous.score == game.getScore() && previous.linesCleared == game.getLinesCleared()
+                    && previous.piecesPlaced == game.getPiecesPlaced() && previous.gameOver == game.isGameOver()) {
+                return previous;
+            }
+            return new Frame(previous.palette, previous.cells, version, pieceCells(piece), pieceColor, game);
+        }
+
+        Color[] palette = previous != null ? previous.palette : new Color[] { null };
+        byte[] cells = new byte[Board.BOARD_WIDTH * Board.BOARD_HEIGHT];
+        for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+            for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+                Color color = board.getCell(x, y);
+                if (color == null) {
+                    continue;
+                }
+                int index = indexOf(palette, color);
+                if (index < 0) {
+                    palette = Arrays.copyOf(palette, palette.length + 1);
+                    index = palette.length - 1;
+                    palette[index] = color;
+                }
+                cells[y * Board.BOARD_WIDTH + x] = (byte) index;
+            }
+        }
+        return new Frame(palette, cells, version, pieceCells(piece), pieceColor, game);
+    }
+
+    /**
+     * Empaqueta las celdas que ocupa una pieza en el tablero.
+     */
+    private static int[] pieceCells(Piece piece) {
+        if (piece == null) {
+            return NO_CELLS;
+        }
+        RotationTable table = piece.getRotationTable();
+        int rotation = piece.getRotation();
+        Point position = piece.getPosition();
+        int[] cells = new int[table.getCellCount(rotation)];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = pack(position.x + table.getCellX(rotation, i), position.y + table.getCellY(rotation, i));
+        }
+        return cells;
+    }
+
+    /**
+     * Comprueba, sin crear objetos, si una pieza ocupa las mismas celdas que se empaquetaron antes.
+     */
+    private static boolean samePieceCells(int[] cells, Piece piece) {
+        if (piece == null) {
+            return cells.length == 0;
+        }
+        RotationTable table = piece.getRotationTable();
+        int rotation = piece.getRotation();
+        if (cells.length != table.getCellCount(rotation)) {
+            return false;
+        }
+        Point position = piece.getPosition();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != pack(position.x + table.getCellX(rotation, i), position.y + table.getCellY(rotation, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(Color[] palette, Color color) {
+        for (int i = 1; i < palette.length; i++) {
+            if (palette[i].equals(color)) {
+                return i;
+            }
+        }
+        if (palette.length > 255) {
+            throw new IllegalStateException("Demasiados colores distintos en el tablero");
+        }
+        return -1;
+    }
+
+    private static int pack(int x, int y) {
+        return x << 16 | (y & 0xFFFF);
+    }
+
+    /**
+     * Devuelve el color de una celda fija.
+     * @param x Columna de la celda.
+     * @param y Fila de la celda.
+     * @return El color, o null si está vacía.
+     */
+    public Color getCell(int x, int y) {
+        return palette[cells[y * Board.BOARD_WIDTH + x] & 0xFF];
+    }
+
+    /**
+     * Devuelve la versión del tablero capturado; dos fotogramas con la misma versión tienen las mismas celdas fijas.
+     * @return La versión del tablero.
+     */
+    public long getBoardVersion() {
+        return boardVersion;
+    }
+
+    public int getPieceCellCount() {
+        return pieceCells.length;
+    }
+
+    public int getPieceX(int i) {
+        return pieceCells[i] >> 16;
+    }
+
+    public int getPieceY(int i) {
+        return (short) pieceCells[i];
+    }
+
+    /**
+     * Devuelve el color de la pieza actual.
+     * @return El color, o null si no hay pieza.
+     */
+    public Color getPieceColor() {
+        return pieceColor;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    public int getPiecesPlaced() {
+        return piecesPlaced;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
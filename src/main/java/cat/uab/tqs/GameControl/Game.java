@@ -1,10 +1,12 @@
 package cat.uab.tqs.GameControl;
 
+import cat.uab.tqs.GameStructure.BagRandomizer;
 import cat.uab.tqs.GameStructure.Board;
 import cat.uab.tqs.GameStructure.Piece;
 import cat.uab.tqs.GameStructure.PieceFactory;
+import cat.uab.tqs.GameStructure.Zobrist;
 
-import java.awt.*;
+import java.awt.Point;
 
 /**
  * Clase que controla la lógica principal del juego Tetris.
@@ -14,6 +16,22 @@ public class Game {
     private final PieceFactory pieceFactory;
     private Piece currentPiece;
     private boolean gameOver = false;
+    // Último fotograma publicado para los que dibujan la partida, que lo leen sin bloqueos
+    private volatile Frame frame;
+    // Métricas de la partida, o null si están desactivadas
+    private GameMetrics metrics;
+
+    // Puntos por número de líneas eliminadas a la vez (0, 1, 2, 3 o 4)
+    private static final int[] LINE_SCORES = { 0, 40, 100, 300, 1200 };
+    // Líneas que hay que eliminar para subir de nivel
+    public static final int LINES_PER_LEVEL = 10;
+    // Piezas siguientes que se pueden consultar con getPreview; la fábrica guarda una más en su cola
+    public static final int PREVIEW_SIZE = PieceFactory.MAX_PEEK - 1;
+
+    // Estadísticas de la partida
+    private int score = 0;
+    private int linesCleared = 0;
+    private int piecesPlaced = 0;
 
     public Game() {
         this.board = new Board();
@@ -21,6 +39,17 @@ public class Game {
         spawnNewPiece();
     }
 
+    /**
+     * Crea una partida con una semilla fija, de modo que la secuencia de piezas es reproducible.
+     * Las piezas salen de una bolsa de 7.
+     * @param seed La semilla del generador de piezas.
+     */
+    public Game(long seed) {
+        this.board = new Board();
+        this.pieceFactory = new PieceFactory(board, new BagRandomizer(seed));
+        spawnNewPiece();
+    }
+
     /**
      * Constructor for testing purposes, allowing dependency injection.
      */
@@ -34,12 +63,41 @@ public class Game {
 
     /**
      * Genera una nueva pieza y comprueba si hay espacio para colocarla.
+     * Salvo la primera, la pieza nueva es la misma que se acaba de fijar, reutilizada por la fábrica.
      */
     private void spawnNewPiece() {
-        currentPiece = pieceFactory.getNewPiece();
-        if (!board.isValidPosition(currentPiece.getShape(), currentPiece.getPosition())) {
+        currentPiece = currentPiece == null ? pieceFactory.getNewPiece() : pieceFactory.getNewPiece(currentPiece);
+        if (!board.isValidPosition(currentPiece.getShapeMask(), currentPiece.getPosition().x, currentPiece.getPosition().y)) {
             gameOver = true;
         }
+        if (metrics != null) {
+            metrics.pieceSpawned();
+            if (gameOver) {
+                metrics.gameOver();
+            }
+        }
+        if (GameEvents.isRecording()) {
+            commitSpawnEvents();
+        }
+    }
+
+    private void commitSpawnEvents() {
+        GameEvents.PieceSpawn spawn = new GameEvents.PieceSpawn();
+        if (spawn.shouldCommit()) {
+            spawn.type = currentPiece.getType();
+            spawn.piecesPlaced = piecesPlaced;
+            spawn.blocked = gameOver;
+            spawn.commit();
+        }
+        if (gameOver) {
+            GameEvents.GameOver over = new GameEvents.GameOver();
+            if (over.shouldCommit()) {
+                over.score = score;
+                over.linesCleared = linesCleared;
+                over.piecesPlaced = piecesPlaced;
+                over.commit();
+            }
+        }
     }
 
     public Board getBoard() {
@@ -54,6 +112,182 @@ public class Game {
         return gameOver;
     }
 
+    public int getScore() {
+        return score;
+    }
+
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    public int getPiecesPlaced() {
+        return piecesPlaced;
+    }
+
+    /**
+     * Devuelve el tipo de una de las piezas siguientes.
+     * @param ahead Cuántas piezas hay que saltar: 0 es la que saldrá después de la actual.
+     * @return El tipo de la pieza.
+     * @throws IllegalArgumentException Si {@code ahead} no está entre 0 y {@link #PREVIEW_SIZE}.
+     */
+    public int getNextPieceType(int ahead) {
+        return pieceFactory.peek(ahead);
+    }
+
+    /**
+     * Guarda en un array los tipos de las piezas siguientes, sin crear objetos.
+     * @param into El array; se llenan tantas piezas como su longitud, como mucho {@link #PREVIEW_SIZE} + 1.
+     * @return El mismo array.
+     */
+    public int[] getPreview(int[] into) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] = pieceFactory.peek(i);
+        }
+        return into;
+    }
+
+    /**
+     * Devuelve el nivel de la partida, que sube cada {@link #LINES_PER_LEVEL} líneas eliminadas.
+     * @return El nivel, empezando por 0.
+     */
+    public int getLevel() {
+        return linesCleared / LINES_PER_LEVEL;
+    }
+
+    /**
+     * Publica un fotograma inmutable con el estado actual para los que dibujan la partida.
+     * Si nada ha cambiado desde el último, no crea uno nuevo. Debe llamarse desde el hilo que
+     * modifica la partida, normalmente tras cada paso de la lógica.
+     * @return El fotograma publicado.
+     */
+    public Frame publishFrame() {
+        Frame next = Frame.capture(this, frame);
+        frame = next;
+        return next;
+    }
+
+    /**
+     * Devuelve el último fotograma publicado. Se puede llamar desde cualquier hilo sin bloqueos.
+     * @return El fotograma, o null si aún no se ha publicado ninguno.
+     */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /**
+     * Activa las métricas de la partida. Debe llamarse antes de que otros hilos empiecen a usarla.
+     * @param metrics Las métricas donde registrar, o null para desactivarlas.
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Devuelve las métricas de la partida.
+     * @return Las métricas, o null si están desactivadas.
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Devuelve una clave de 64 bits del estado de la partida: el hash de Zobrist del tablero
+     * combinado con el tipo y la rotación de la pieza actual.
+     * @return La clave del estado.
+     */
+    public long getStateKey() {
+        return board.getHash() ^ Zobrist.piece(currentPiece.getType(), currentPiece.getRotation());
+    }
+
+    /**
+     * Guarda el estado de la partida en una instantánea nueva.
+     * @return La instantánea.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Guarda el estado de la partida en una instantánea existente, sin crear objetos:
+     * el tablero, la pieza actual con su tipo y su posición, las estadísticas y el punto de la secuencia de piezas.
+     * @param into La instantánea donde guardar el estado.
+     */
+    public void snapshot(Snapshot into) {
+        board.snapshot(into.board);
+        into.piece = currentPiece;
+        into.pieceType = currentPiece.getType();
+        into.pieceState = currentPiece.snapshot();
+        pieceFactory.snapshot(into.pieces);
+        into.gameOver = gameOver;
+        into.score = score;
+        into.linesCleared = linesCleared;
+        into.piecesPlaced = piecesPlaced;
+    }
+
+    /**
+     * Devuelve la partida al estado de una instantánea, sin crear objetos.
+     * Las piezas que se generen después serán las mismas que tras guardar la instantánea.
+     * @param from La instantánea.
+     */
+    public void restore(Snapshot from) {
+        board.restore(from.board);
+        currentPiece = from.piece;
+        // La pieza se reutiliza al generar la siguiente, así que puede haber cambiado de tipo.
+        // Las piezas personalizadas no se reutilizan nunca
+        if (from.pieceType >= 0 && currentPiece.getType() != from.pieceType) {
+            PieceFactory.reset(currentPiece, from.pieceType);
+        }
+        currentPiece.restore(from.pieceState);
+        pieceFactory.restore(from.pieces);
+        gameOver = from.gameOver;
+        score = from.score;
+        linesCleared = from.linesCleared;
+        piecesPlaced = from.piecesPlaced;
+    }
+
+    /**
+     * Estado guardado de una partida. Se puede reutilizar para guardar estados sucesivos.
+     */
+    public static final class Snapshot {
+        private final Board.Snapshot board = new Board.Snapshot();
+        private final PieceFactory.Snapshot pieces = new PieceFactory.Snapshot();
+        private Piece piece;
+        private int pieceType;
+        private int pieceState;
+        private boolean gameOver;
+        private int score;
+        private int linesCleared;
+        private int piecesPlaced;
+    }
+
+    /**
+     * Ejecuta una acción del jugador sobre la partida.
+     * @param action La acción a ejecutar.
+     */
+    public void perform(Action action) {
+        switch (action) {
+            case LEFT:
+                moveLeft();
+                break;
+            case RIGHT:
+                moveRight();
+                break;
+            case DOWN:
+                moveDown();
+                break;
+            case ROTATE:
+                rotatePiece();
+                break;
+            case HARD_DROP:
+                hardDrop();
+                break;
+            default:
+                break;
+        }
+    }
+
     /**
      * Mueve la pieza actual hacia la izquierda.
      */
@@ -78,15 +312,67 @@ public class Game {
     public void moveDown() {
         if (gameOver) return;
 
-        if (currentPiece.canMoveDown()) {
-            currentPiece.moveDown();
-        } else {
-            // Colocar pieza en el tablero
-            board.placePiece(currentPiece.getShape(), currentPiece.getPosition(), currentPiece.getColor());
-            // Borrar líneas completas
-            board.clearLines();
-            // Crear nueva pieza
-            spawnNewPiece();
+        // Se intenta bajar directamente para no validar dos veces la misma posición
+        if (!currentPiece.tryMoveDown()) {
+            lockPiece();
+        }
+    }
+
+    /**
+     * Deja caer la pieza actual hasta el fondo y la fija al tablero.
+     */
+    public void hardDrop() {
+        if (gameOver) return;
+
+        currentPiece.hardDrop();
+        lockPiece();
+    }
+
+    /**
+     * Lleva la pieza actual a una posición y rotación concretas, la deja caer y la fija.
+     * Lo usan los jugadores automáticos, que ya han comprobado que la posición es alcanzable.
+     * @param x        Columna de destino.
+     * @param y        Fila de destino.
+     * @param rotation Estado de rotación de destino.
+     * @return true si la posición era válida y la pieza se ha fijado.
+     */
+    public boolean placeCurrentPiece(int x, int y, int rotation) {
+        if (gameOver || !currentPiece.moveTo(x, y, rotation)) {
+            return false;
+        }
+        currentPiece.hardDrop();
+        lockPiece();
+        return true;
+    }
+
+    /**
+     * Fija la pieza actual al tablero, borra las líneas completas y genera la siguiente.
+     */
+    private void lockPiece() {
+        long start = metrics != null ? System.nanoTime() : 0;
+        GameEvents.PieceLock event = GameEvents.isRecording() ? new GameEvents.PieceLock() : null;
+        if (event != null) {
+            event.begin();
+        }
+        // Colocar pieza en el tablero
+        Point position = currentPiece.getPosition();
+        board.placePiece(currentPiece.getRotationTable(), currentPiece.getRotation(), position.x, position.y,
+                currentPiece.getColor());
+        piecesPlaced++;
+        // Borrar líneas completas
+        int lines = board.clearLines();
+        linesCleared += lines;
+        score += LINE_SCORES[Math.min(lines, LINE_SCORES.length - 1)];
+        // Crear nueva pieza
+        spawnNewPiece();
+        if (metrics != null) {
+            metrics.linesCleared(lines);
+            metrics.recordLock(System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.linesCleared = lines;
+            event.piecesPlaced = piecesPlaced;
+            event.commit();
         }
     }
 
@@ -94,8 +380,8 @@ public class Game {
      * Rota la pieza actual.
      */
     public void rotatePiece() {
-        if (!gameOver) {
-            currentPiece.rotate();
+        if (!gameOver && !currentPiece.rotate() && metrics != null) {
+            metrics.rotationRejected();
         }
     }
 
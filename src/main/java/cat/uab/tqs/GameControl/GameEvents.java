@@ -0,0 +1,149 @@
+package cat.uab.tqs.GameControl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos propios de JDK Flight Recorder del ciclo de vida de una partida, para relacionar los
+ * tirones con la recolección de basura y el compilador JIT en la misma grabación.
+ * <p>
+ * Se usan con el patrón habitual de JFR: crear el evento, {@code begin()} antes del trabajo y
+ * {@code commit()} después, sólo si {@code shouldCommit()}. Además, sólo se crean mientras
+ * {@link #isRecording()}: el compilador no siempre elimina el objeto de un evento desactivado en
+ * los caminos calientes de la partida, y sin grabación así sólo cuesta leer un campo.
+ * Ninguno guarda la pila, que es lo más caro de un evento.
+ * El perfil {@code tetris.jfc} los activa junto con los eventos de GC y JIT.
+ */
+public final class GameEvents {
+
+    public static final String CATEGORY = "Tetris";
+    public static final String TICK = "cat.uab.tqs.Tick";
+    public static final String PIECE_SPAWN = "cat.uab.tqs.PieceSpawn";
+    public static final String PIECE_LOCK = "cat.uab.tqs.PieceLock";
+    public static final String GAME_OVER = "cat.uab.tqs.GameOver";
+    public static final String PAINT = "cat.uab.tqs.Paint";
+
+    // Hay alguna grabación en marcha; lo mantiene al día un oyente de Flight Recorder
+    private static volatile boolean recording;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                recording = anyRunning();
+            }
+        });
+        // Si la grabación empezó antes de cargar esta clase, por ejemplo con -XX:StartFlightRecording
+        recording = FlightRecorder.isAvailable() && FlightRecorder.isInitialized() && anyRunning();
+    }
+
+    private GameEvents() {
+    }
+
+    private static boolean anyRunning() {
+        for (Recording running : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (running.getState() == RecordingState.RUNNING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si hay alguna grabación en marcha. Si no la hay, no hace falta crear eventos.
+     * @return true si alguna grabación está en marcha.
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    @Name(TICK)
+    @Label("Game Tick")
+    @Category(CATEGORY)
+    @Description("Un tick del bucle de juego: teclas, gravedad, fijado y publicación del fotograma")
+    @StackTrace(false)
+    public static final class Tick extends Event {
+        @Label("Tick")
+        public long tick;
+
+        @Label("Gravity Steps")
+        public long gravitySteps;
+
+        @Label("Late")
+        @Description("Retraso con el que empezó el tick respecto a su hora prevista")
+        @Timespan(Timespan.NANOSECONDS)
+        public long late;
+    }
+
+    @Name(PIECE_SPAWN)
+    @Label("Piece Spawn")
+    @Category(CATEGORY)
+    @Description("Se genera una pieza nueva")
+    @StackTrace(false)
+    public static final class PieceSpawn extends Event {
+        @Label("Piece Type")
+        public int type;
+
+        @Label("Pieces Placed")
+        public int piecesPlaced;
+
+        @Label("Blocked")
+        @Description("La pieza no cabe y la partida termina")
+        public boolean blocked;
+    }
+
+    @Name(PIECE_LOCK)
+    @Label("Piece Lock")
+    @Category(CATEGORY)
+    @Description("Se fija una pieza, se borran las líneas completas y se genera la siguiente")
+    @StackTrace(false)
+    public static final class PieceLock extends Event {
+        @Label("Lines Cleared")
+        public int linesCleared;
+
+        @Label("Pieces Placed")
+        public int piecesPlaced;
+    }
+
+    @Name(GAME_OVER)
+    @Label("Game Over")
+    @Category(CATEGORY)
+    @Description("Termina la partida")
+    @StackTrace(false)
+    public static final class GameOver extends Event {
+        @Label("Score")
+        public int score;
+
+        @Label("Lines Cleared")
+        public int linesCleared;
+
+        @Label("Pieces Placed")
+        public int piecesPlaced;
+    }
+
+    @Name(PAINT)
+    @Label("Paint")
+    @Category(CATEGORY)
+    @Description("Se dibuja un fotograma en el panel de Swing o en el lienzo activo")
+    @StackTrace(false)
+    public static final class Paint extends Event {
+        @Label("View")
+        public String view;
+
+        @Label("Board Version")
+        public long boardVersion;
+
+        @Label("Layer Rebuilt")
+        @Description("Se ha rehecho la capa de celdas fijas porque cambió el tablero")
+        public boolean layerRebuilt;
+    }
+}
@@ -0,0 +1,487 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.Piece;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bucle de juego con paso de tiempo fijo en un hilo propio, separado del hilo de eventos de Swing.
+ * El tiempo real medido con {@link System#nanoTime()} se acumula y se consume en ticks de
+ * {@link #TICK_NANOS}, de modo que la lógica avanza al mismo ritmo aunque el dibujo se retrase.
+ * La gravedad depende del nivel y la pieza apoyada tarda {@link #LOCK_DELAY_TICKS} en fijarse.
+ * <p>
+ * Las pulsaciones y liberaciones de teclas llegan por una {@link InputQueue} sin bloqueos que el bucle
+ * vacía al principio de cada tick. Mantener izquierda o derecha mueve la pieza otra vez tras el
+ * retardo de desplazamiento automático (DAS) y después cada periodo de repetición (ARR), y mantener
+ * abajo repite la caída suave. Las repeticiones se calculan con los instantes de los eventos, no con
+ * los ticks, así que no dependen de la repetición de teclas del sistema ni del retraso del bucle.
+ * Cada tick se ejecuta sincronizado sobre la partida y termina publicando un {@link Frame} con
+ * {@link Game#publishFrame()}; quien dibuja lee sólo ese fotograma, sin bloqueos.
+ * Cada tick emite un evento {@link GameEvents.Tick} de JFR cuando hay una grabación que lo activa.
+ * <p>
+ * Las caídas por gravedad se cuentan igual que los ticks de {@code HeadlessEngine}, así que las
+ * acciones grabadas con {@link Listener#onAction(long, Action)} se reproducen con {@code Replayer}.
+ */
+public class GameLoop implements Runnable {
+
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    // Ticks que puede estar apoyada una pieza antes de fijarse (medio segundo)
+    public static final int LOCK_DELAY_TICKS = 30;
+    // Veces que mover o girar una pieza apoyada reinicia el retardo de fijado
+    public static final int MAX_LOCK_RESETS = 15;
+    // Retraso máximo que se recupera; si el hilo se para más tiempo, el resto se descarta
+    static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+    // Retardo del desplazamiento automático y periodo de repetición por defecto (10 y 2 fotogramas)
+    public static final long DEFAULT_DAS_NANOS = 167_000_000L;
+    public static final long DEFAULT_ARR_NANOS = 33_000_000L;
+    // Periodo de repetición de la caída suave mientras se mantiene la tecla
+    public static final long SOFT_DROP_NANOS = 33_000_000L;
+    // Eventos de teclado que pueden quedar pendientes entre dos ticks
+    private static final int INPUT_CAPACITY = 256;
+    // Ticks por fila de la gravedad en cada nivel (tabla de la versión de NES, a 60 ticks por segundo)
+    private static final int[] GRAVITY_TICKS = {
+            48, 43, 38, 33, 28, 23, 18, 13, 8, 6,
+            5, 5, 5, 4, 4, 4, 3, 3, 3, 2,
+            2, 2, 2, 2, 2, 2, 2, 2, 2, 1
+    };
+
+    private final Game game;
+    private final Listener listener;
+    // Teclas pendientes, escritas desde el hilo de eventos y leídas por el bucle
+    private final InputQueue inputs = new InputQueue(INPUT_CAPACITY);
+    private final InputQueue.Handler inputHandler = this::onInput;
+    private volatile boolean running;
+    private Thread thread;
+
+    // Estado de la gravedad y del fijado, sólo lo modifica el bucle
+    private int gravityCounter;
+    private int lockTimer;
+    private int lockResets;
+
+    // Estado de las teclas mantenidas, sólo lo modifica el bucle
+    private long dasNanos = DEFAULT_DAS_NANOS;
+    private long arrNanos = DEFAULT_ARR_NANOS;
+    private boolean leftHeld;
+    private boolean rightHeld;
+    private boolean downHeld;
+    // Dirección que se repite (LEFT, RIGHT o NONE) e instantes de la siguiente repetición
+    private Action shift = Action.NONE;
+    private long nextShiftAt;
+    private long nextDropAt;
+    // Retraso con el que empezó el tick en curso, para el evento de JFR
+    private long lateNanos;
+
+    // Contadores que se pueden leer desde otros hilos; sólo los escribe el bucle
+    private volatile long ticks;
+    private volatile long gravitySteps;
+    private volatile long totalJitterNanos;
+    private volatile long maxJitterNanos;
+    private volatile long droppedNanos;
+
+    /**
+     * Crea el bucle de una partida sin avisar de nada.
+     * @param game La partida.
+     */
+    public GameLoop(Game game) {
+        this(game, new Listener() { });
+    }
+
+    /**
+     * Crea el bucle de una partida.
+     * @param game     La partida.
+     * @param listener Recibe las acciones, los avisos de dibujo y el final de la partida.
+     */
+    public GameLoop(Game game, Listener listener) {
+        this.game = game;
+        this.listener = listener;
+        game.publishFrame();
+    }
+
+    /**
+     * Arranca el bucle en un hilo propio.
+     * @return El hilo del bucle.
+     * @throws IllegalStateException si ya se había arrancado.
+     */
+    public synchronized Thread start() {
+        if (thread != null) {
+            throw new IllegalStateException("El bucle ya se ha arrancado");
+        }
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Para el bucle y espera a que termine su hilo.
+     */
+    public void stop() {
+        running = false;
+        Thread current;
+        synchronized (this) {
+            current = thread;
+        }
+        if (current == null || current == Thread.currentThread()) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cambia el retardo del desplazamiento automático y el periodo de repetición.
+     * Debe llamarse antes de arrancar el bucle.
+     * @param dasNanos Tiempo que hay que mantener la tecla hasta que empieza a repetirse.
+     * @param arrNanos Tiempo entre repeticiones; 0 lleva la pieza hasta la pared de una vez.
+     */
+    public void setAutoShift(long dasNanos, long arrNanos) {
+        if (dasNanos < 0 || arrNanos < 0) {
+            throw new IllegalArgumentException("Los tiempos no pueden ser negativos");
+        }
+        this.dasNanos = dasNanos;
+        this.arrNanos = arrNanos;
+    }
+
+    /**
+     * Devuelve la cola por la que llegan las teclas. Sólo debe escribir en ella un hilo,
+     * normalmente el de eventos de AWT a través de {@link Inputs}.
+     * @return La cola de teclas.
+     */
+    public InputQueue getInputQueue() {
+        return inputs;
+    }
+
+    /**
+     * Encola una pulsación suelta (pulsar y soltar a la vez) para el siguiente tick.
+     * Escribe en la cola de teclas, así que se debe llamar desde el mismo hilo que la alimenta.
+     * @param action La acción.
+     * @return false si la cola estaba llena y la acción se ha descartado.
+     */
+    public boolean submit(Action action) {
+        if (action == Action.NONE) {
+            return true;
+        }
+        long now = System.nanoTime();
+        return inputs.offer(action, true, now) && inputs.offer(action, false, now);
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+            if (accumulator > MAX_CATCH_UP_NANOS) {
+                droppedNanos += accumulator - MAX_CATCH_UP_NANOS;
+                accumulator = MAX_CATCH_UP_NANOS;
+            }
+
+            boolean updated = false;
+            while (accumulator >= TICK_NANOS && running) {
+                // Lo que sobra del acumulado es el retraso con el que se ejecuta este tick
+                recordJitter(accumulator - TICK_NANOS);
+                accumulator -= TICK_NANOS;
+                updated = true;
+                if (!tick(now)) {
+                    running = false;
+                    listener.onUpdate();
+                    listener.onGameOver();
+                    return;
+                }
+            }
+            if (updated) {
+                listener.onUpdate();
+            }
+            LockSupport.parkNanos(TICK_NANOS - accumulator);
+        }
+    }
+
+    boolean tick() {
+        return tick(System.nanoTime());
+    }
+
+    /**
+     * Avanza un tick: procesa las teclas pendientes y sus repeticiones hasta el instante indicado,
+     * aplica la gravedad y el retardo de fijado y publica el fotograma resultante.
+     * @param now El instante del tick, de {@link System#nanoTime()}.
+     * @return true si la partida sigue en curso.
+     */
+    boolean tick(long now) {
+        synchronized (game) {
+            GameMetrics metrics = game.getMetrics();
+            long start = metrics != null ? System.nanoTime() : 0;
+            GameEvents.Tick event = GameEvents.isRecording() ? new GameEvents.Tick() : null;
+            if (event != null) {
+                event.begin();
+            }
+            try {
+                return step(now);
+            } finally {
+                game.publishFrame();
+                if (metrics != null) {
+                    metrics.recordTick(System.nanoTime() - start);
+                }
+                if (event != null && event.shouldCommit()) {
+                    event.tick = ticks;
+                    event.gravitySteps = gravitySteps;
+                    event.late = lateNanos;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private boolean step(long now) {
+        ticks++;
+        inputs.drain(inputHandler);
+        if (!game.isGameOver()) {
+            autoRepeat(now);
+        }
+        if (game.isGameOver()) {
+            return false;
+        }
+
+        Piece piece = game.getCurrentPiece();
+        if (piece.canMoveDown()) {
+            lockTimer = 0;
+            if (++gravityCounter >= getGravityTicks(game.getLevel())) {
+                gravityCounter = 0;
+                fall();
+            }
+        } else if (++lockTimer >= LOCK_DELAY_TICKS) {
+            fall();
+        }
+        return !game.isGameOver();
+    }
+
+    /**
+     * Procesa un evento de teclado: primero las repeticiones que tocaban antes de él y después la
+     * propia tecla. Izquierda, derecha y abajo actúan al pulsar y se repiten mientras se mantienen;
+     * girar y la caída instantánea sólo actúan al pulsar.
+     */
+    private void onInput(Action action, boolean pressed, long nanos) {
+        if (game.isGameOver()) {
+            return;
+        }
+        autoRepeat(nanos);
+        switch (action) {
+            case LEFT:
+            case RIGHT:
+                boolean left = action == Action.LEFT;
+                if (left) {
+                    leftHeld = pressed;
+                } else {
+                    rightHeld = pressed;
+                }
+                if (pressed) {
+                    startShift(action, nanos);
+                    apply(action);
+                } else if (shift == action) {
+                    // Si la otra dirección sigue pulsada, vuelve a esperar el retardo antes de repetir
+                    boolean otherHeld = left ? rightHeld : leftHeld;
+                    shift = Action.NONE;
+                    if (otherHeld) {
+                        startShift(left ? Action.RIGHT : Action.LEFT, nanos);
+                    }
+                }
+                break;
+            case DOWN:
+                downHeld = pressed;
+                if (pressed) {
+                    nextDropAt = nanos + SOFT_DROP_NANOS;
+                    apply(Action.DOWN);
+                }
+                break;
+            default:
+                if (pressed) {
+                    apply(action);
+                }
+                break;
+        }
+    }
+
+    private void startShift(Action direction, long nanos) {
+        shift = direction;
+        nextShiftAt = nanos + dasNanos;
+    }
+
+    /**
+     * Ejecuta en orden las repeticiones de las teclas mantenidas que tocan hasta un instante.
+     * @param until El instante hasta el que se repite.
+     */
+    private void autoRepeat(long until) {
+        while (!game.isGameOver()) {
+            boolean shiftDue = shift != Action.NONE && nextShiftAt - until <= 0;
+            boolean dropDue = downHeld && nextDropAt - until <= 0;
+            if (shiftDue && (!dropDue || nextShiftAt - nextDropAt <= 0)) {
+                if (arrNanos > 0) {
+                    shiftOnce();
+                    nextShiftAt += arrNanos;
+                } else {
+                    // Sin periodo de repetición la pieza llega hasta la pared de una vez
+                    while (shiftOnce()) {
+                        // Sigue moviendo
+                    }
+                    if (!dropDue) {
+                        return;
+                    }
+                    softDropOnce();
+                }
+            } else if (dropDue) {
+                softDropOnce();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Repite el desplazamiento si la pieza puede moverse; si no, no ejecuta ni graba nada.
+     * @return true si la pieza se ha movido.
+     */
+    private boolean shiftOnce() {
+        Piece piece = game.getCurrentPiece();
+        int dx = shift == Action.LEFT ? -1 : 1;
+        if (game.isGameOver() || !game.getBoard().canMove(piece.getShapeMask(), piece.getPosition(), dx, 0)) {
+            return false;
+        }
+        apply(shift);
+        return true;
+    }
+
+    private void softDropOnce() {
+        nextDropAt += SOFT_DROP_NANOS;
+        apply(Action.DOWN);
+    }
+
+    /**
+     * Ejecuta una acción del jugador. Mover o girar una pieza apoyada reinicia el retardo de fijado,
+     * como mucho {@link #MAX_LOCK_RESETS} veces por pieza.
+     */
+    private void apply(Action action) {
+        listener.onAction(gravitySteps, action);
+        Piece piece = game.getCurrentPiece();
+        int placed = game.getPiecesPlaced();
+        boolean grounded = !piece.canMoveDown();
+        int before = piece.snapshot();
+
+        game.perform(action);
+
+        if (game.getPiecesPlaced() != placed) {
+            resetPiece();
+        } else if (grounded && piece.snapshot() != before && lockResets < MAX_LOCK_RESETS) {
+            lockTimer = 0;
+            lockResets++;
+        }
+    }
+
+    /**
+     * Baja la pieza una fila por gravedad, o la fija si no puede bajar.
+     */
+    private void fall() {
+        int placed = game.getPiecesPlaced();
+        game.moveDown();
+        gravitySteps++;
+        if (game.getPiecesPlaced() != placed) {
+            resetPiece();
+        }
+    }
+
+    private void resetPiece() {
+        gravityCounter = 0;
+        lockTimer = 0;
+        lockResets = 0;
+    }
+
+    private void recordJitter(long jitter) {
+        lateNanos = jitter;
+        totalJitterNanos += jitter;
+        if (jitter > maxJitterNanos) {
+            maxJitterNanos = jitter;
+        }
+    }
+
+    /**
+     * Devuelve los ticks que tarda la pieza en bajar una fila en un nivel.
+     * @param level El nivel de la partida.
+     * @return Los ticks por fila, al menos 1.
+     */
+    public static int getGravityTicks(int level) {
+        return GRAVITY_TICKS[Math.max(0, Math.min(level, GRAVITY_TICKS.length - 1))];
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Devuelve las caídas por gravedad, equivalentes a los ticks de {@code HeadlessEngine}.
+     * @return El número de caídas.
+     */
+    public long getGravitySteps() {
+        return gravitySteps;
+    }
+
+    /**
+     * Devuelve el retraso medio con el que se han ejecutado los ticks respecto a su hora prevista.
+     * @return El retraso medio en nanosegundos.
+     */
+    public long getMeanJitterNanos() {
+        long count = ticks;
+        return count == 0 ? 0 : totalJitterNanos / count;
+    }
+
+    public long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+
+    /**
+     * Devuelve el tiempo descartado cuando el hilo se ha retrasado más de lo que se recupera.
+     * @return El tiempo descartado en nanosegundos.
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Bucle: %d ticks, %d caídas, retraso medio %.2f ms, máximo %.2f ms, descartado %.1f ms",
+                getTicks(), getGravitySteps(), getMeanJitterNanos() / 1e6, getMaxJitterNanos() / 1e6,
+                getDroppedNanos() / 1e6);
+    }
+
+    /**
+     * Recibe los avisos del bucle. Todos los métodos se llaman desde el hilo del bucle.
+     */
+    public interface Listener {
+
+        /**
+         * Se llama antes de ejecutar cada acción del jugador, con la partida bloqueada.
+         * @param gravityStep Las caídas por gravedad hasta ahora, el tick de la grabación.
+         * @param action      La acción.
+         */
+        default void onAction(long gravityStep, Action action) { }
+
+        /**
+         * Se llama tras uno o varios ticks para que la interfaz vuelva a dibujar. No debe bloquear.
+         */
+        default void onUpdate() { }
+
+        /**
+         * Se llama una vez cuando termina la partida, justo antes de parar el bucle.
+         */
+        default void onGameOver() { }
+    }
+}
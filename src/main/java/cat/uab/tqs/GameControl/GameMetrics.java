@@ -0,0 +1,170 @@
+package cat.uab.tqs.GameControl;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Métricas de una partida en curso: histogramas de latencia de los ticks, de los fijados de pieza
+ * y de los fotogramas dibujados, y contadores de piezas generadas, líneas borradas por tamaño,
+ * giros rechazados y partidas terminadas. Registrar una muestra no crea objetos.
+ * <p>
+ * Están desactivadas mientras no se asignan con {@link Game#setMetrics(GameMetrics)}: sin métricas,
+ * la partida sólo comprueba una referencia nula. Con {@link #register()} se publican por JMX
+ * con el nombre {@link #OBJECT_NAME}, para leerlas desde JConsole o cualquier cliente JMX.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+
+    public static final String OBJECT_NAME = "cat.uab.tqs:type=GameMetrics";
+
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private final LatencyHistogram lockLatency = new LatencyHistogram();
+    private final LatencyHistogram paintLatency = new LatencyHistogram();
+
+    private final AtomicLong piecesSpawned = new AtomicLong();
+    // Veces que se han borrado 1, 2, 3 o 4 líneas a la vez; la posición 0 no se usa
+    private final AtomicLongArray linesBySize = new AtomicLongArray(5);
+    private final AtomicLong rotationsRejected = new AtomicLong();
+    private final AtomicLong gameOvers = new AtomicLong();
+
+    public void recordTick(long nanos) {
+        tickLatency.record(nanos);
+    }
+
+    public void recordLock(long nanos) {
+        lockLatency.record(nanos);
+    }
+
+    public void recordPaint(long nanos) {
+        paintLatency.record(nanos);
+    }
+
+    public void pieceSpawned() {
+        piecesSpawned.incrementAndGet();
+    }
+
+    /**
+     * Cuenta un borrado de líneas.
+     * @param lines Las líneas borradas a la vez; 0 no cuenta.
+     */
+    public void linesCleared(int lines) {
+        if (lines > 0) {
+            linesBySize.incrementAndGet(Math.min(lines, 4));
+        }
+    }
+
+    public void rotationRejected() {
+        rotationsRejected.incrementAndGet();
+    }
+
+    public void gameOver() {
+        gameOvers.incrementAndGet();
+    }
+
+    /**
+     * Registra las métricas en el servidor JMX de la plataforma, sustituyendo las que hubiera con el mismo nombre.
+     * @return El nombre con el que se han registrado.
+     * @throws IllegalStateException si JMX rechaza el registro.
+     */
+    public ObjectName register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("No se han podido registrar las métricas en JMX", e);
+        }
+    }
+
+    public LatencyHistogram getTickHistogram() {
+        return tickLatency;
+    }
+
+    public LatencyHistogram getLockHistogram() {
+        return lockLatency;
+    }
+
+    public LatencyHistogram getPaintHistogram() {
+        return paintLatency;
+    }
+
+    @Override
+    public Latency getTickLatency() {
+        return new Latency(tickLatency);
+    }
+
+    @Override
+    public Latency getLockLatency() {
+        return new Latency(lockLatency);
+    }
+
+    @Override
+    public Latency getPaintLatency() {
+        return new Latency(paintLatency);
+    }
+
+    @Override
+    public long getPiecesSpawned() {
+        return piecesSpawned.get();
+    }
+
+    @Override
+    public long getSingles() {
+        return linesBySize.get(1);
+    }
+
+    @Override
+    public long getDoubles() {
+        return linesBySize.get(2);
+    }
+
+    @Override
+    public long getTriples() {
+        return linesBySize.get(3);
+    }
+
+    @Override
+    public long getTetrises() {
+        return linesBySize.get(4);
+    }
+
+    @Override
+    public long getRotationsRejected() {
+        return rotationsRejected.get();
+    }
+
+    @Override
+    public long getGameOvers() {
+        return gameOvers.get();
+    }
+
+    @Override
+    public void reset() {
+        tickLatency.reset();
+        lockLatency.reset();
+        paintLatency.reset();
+        piecesSpawned.set(0);
+        for (int i = 0; i < linesBySize.length(); i++) {
+            linesBySize.set(i, 0);
+        }
+        rotationsRejected.set(0);
+        gameOvers.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "tick   " + tickLatency + "\n"
+                + "fijado " + lockLatency + "\n"
+                + "dibujo " + paintLatency + "\n"
+                + String.format("piezas %d  líneas 1/2/3/4: %d/%d/%d/%d  giros rechazados %d  partidas terminadas %d",
+                getPiecesSpawned(), getSingles(), getDoubles(), getTriples(), getTetrises(),
+                getRotationsRejected(), getGameOvers());
+    }
+}
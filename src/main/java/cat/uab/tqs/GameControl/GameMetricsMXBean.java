@@ -0,0 +1,90 @@
+package cat.uab.tqs.GameControl;
+
+/**
+ * Interfaz JMX de {@link GameMetrics}. Las latencias se publican como datos compuestos
+ * con el número de muestras, la media, los percentiles y el máximo en microsegundos.
+ */
+public interface GameMetricsMXBean {
+
+    /**
+     * Latencia de cada tick del bucle de juego: teclas, gravedad, fijado y publicación del fotograma.
+     * @return El resumen de latencias.
+     */
+    Latency getTickLatency();
+
+    /**
+     * Latencia de fijar una pieza, borrar las líneas completas y generar la siguiente.
+     * @return El resumen de latencias.
+     */
+    Latency getLockLatency();
+
+    /**
+     * Latencia de dibujar un fotograma en el panel o el lienzo.
+     * @return El resumen de latencias.
+     */
+    Latency getPaintLatency();
+
+    long getPiecesSpawned();
+
+    long getSingles();
+
+    long getDoubles();
+
+    long getTriples();
+
+    long getTetrises();
+
+    long getRotationsRejected();
+
+    long getGameOvers();
+
+    /**
+     * Borra todos los contadores y latencias.
+     */
+    void reset();
+
+    /**
+     * Resumen de un {@link LatencyHistogram} en el momento de leerlo, en microsegundos.
+     */
+    final class Latency {
+        private final long count;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p99Micros;
+        private final double p999Micros;
+        private final double maxMicros;
+
+        Latency(LatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.meanMicros = histogram.getMeanNanos() / 1e3;
+            this.p50Micros = histogram.getValueAtPercentile(50) / 1e3;
+            this.p99Micros = histogram.getValueAtPercentile(99) / 1e3;
+            this.p999Micros = histogram.getValueAtPercentile(99.9) / 1e3;
+            this.maxMicros = histogram.getMaxNanos() / 1e3;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getP999Micros() {
+            return p999Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+    }
+}
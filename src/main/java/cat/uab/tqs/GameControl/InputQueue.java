@@ -0,0 +1,120 @@
+package cat.uab.tqs.GameControl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola sin bloqueos de un solo productor y un solo consumidor para las teclas del jugador.
+ * El productor (el hilo de eventos de AWT) añade pulsaciones y liberaciones con su instante en
+ * nanosegundos, y el consumidor (el {@link GameLoop}) las vacía una vez por tick.
+ * Es un anillo de tamaño fijo: cada lado sólo escribe su propio índice y lo publica con una
+ * escritura ordenada, así que no hay bloqueos ni se crean objetos al añadir o leer.
+ */
+public class InputQueue {
+
+    // Copia única de Action.values(), que crea un array nuevo en cada llamada
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int mask;
+    private final long[] times;
+    private final byte[] events;
+    // Siguiente posición que se leerá; sólo la escribe el consumidor
+    private final AtomicLong head = new AtomicLong();
+    // Siguiente posición que se escribirá; sólo la escribe el productor
+    private final AtomicLong tail = new AtomicLong();
+    // Última cabeza vista por el productor, para no leer la del consumidor en cada llamada
+    private long cachedHead;
+    // Eventos descartados con la cola llena; sólo lo escribe el productor
+    private volatile long dropped;
+
+    /**
+     * Crea una cola vacía.
+     * @param capacity El número máximo de eventos pendientes, potencia de dos.
+     */
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.events = new byte[capacity];
+    }
+
+    /**
+     * Devuelve cuántos eventos caben todavía. Sólo se debe llamar desde el hilo productor, para el que
+     * es una cota segura: el consumidor sólo puede liberar sitio.
+     * @return El número de posiciones libres.
+     */
+    public int remainingCapacity() {
+        return mask + 1 - (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Añade un evento. Sólo se debe llamar desde el hilo productor.
+     * @param action  La acción de la tecla.
+     * @param pressed true si se ha pulsado, false si se ha soltado.
+     * @param nanos   El instante del evento, de {@link System#nanoTime()}.
+     * @return false si la cola estaba llena y el evento se ha descartado.
+     */
+    public boolean offer(Action action, boolean pressed, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+        int index = (int) t & mask;
+        times[index] = nanos;
+        events[index] = (byte) (action.ordinal() << 1 | (pressed ? 1 : 0));
+        // La escritura ordenada publica el evento antes que el nuevo índice
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Entrega en orden todos los eventos pendientes. Sólo se debe llamar desde el hilo consumidor.
+     * @param handler Recibe cada evento.
+     * @return El número de eventos entregados.
+     */
+    public int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int index = (int) i & mask;
+            int event = events[index];
+            handler.onInput(ACTIONS[event >>> 1], (event & 1) != 0, times[index]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /**
+     * Devuelve los eventos pendientes en este momento; sólo orientativo si el otro hilo está activo.
+     * @return El número de eventos pendientes.
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Recibe los eventos de la cola.
+     */
+    public interface Handler {
+
+        /**
+         * @param action  La acción de la tecla.
+         * @param pressed true si se ha pulsado, false si se ha soltado.
+         * @param nanos   El instante del evento.
+         */
+        void onInput(Action action, boolean pressed, long nanos);
+    }
+}
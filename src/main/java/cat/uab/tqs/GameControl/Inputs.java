@@ -2,34 +2,103 @@ package cat.uab.tqs.GameControl;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.function.Consumer;
 
 /**
  * Clase que maneja las entradas de teclado del jugador.
+ * Puede ejecutar cada tecla directamente sobre una partida o, con una {@link InputQueue}, encolar
+ * pulsaciones y liberaciones para que el {@link GameLoop} las procese en su hilo con sus propias
+ * repeticiones; en ese caso se ignoran las repeticiones automáticas de teclas del sistema.
  */
 public class Inputs implements KeyListener {
 
+    // Partida sobre la que se ejecutan las teclas, o null si sólo se avisa al listener
     private final Game game;
+    // Recibe cada acción ejecutada, por ejemplo para grabar la partida
+    private final Consumer<Action> listener;
+    // Cola del bucle de juego, o null si las teclas no se encolan
+    private final InputQueue queue;
+    // Teclas pulsadas, para encolar sólo la primera pulsación y no las repeticiones del sistema
+    private final boolean[] held = new boolean[Action.values().length];
+    // Número de teclas pulsadas cuya liberación aún no se ha encolado
+    private int heldKeys = 0;
 
     public Inputs(Game game) {
+        this(game, action -> { });
+    }
+
+    /**
+     * Crea el manejador de teclado avisando de cada acción ejecutada.
+     * @param game     La partida.
+     * @param listener Recibe la acción de cada tecla, antes de ejecutarla.
+     */
+    public Inputs(Game game, Consumer<Action> listener) {
+        this(game, listener, null);
+    }
+
+    /**
+     * Crea un manejador de teclado que sólo entrega las acciones, sin tocar ninguna partida.
+     * @param actions Recibe la acción de cada pulsación.
+     */
+    public Inputs(Consumer<Action> actions) {
+        this(null, actions, null);
+    }
+
+    /**
+     * Crea un manejador de teclado que encola pulsaciones y liberaciones con su instante.
+     * Debe usarse desde un solo hilo, el de eventos de AWT, que es el único productor de la cola.
+     * @param queue La cola de teclas del bucle de juego.
+     */
+    public Inputs(InputQueue queue) {
+        this(null, action -> { }, queue);
+    }
+
+    private Inputs(Game game, Consumer<Action> listener, InputQueue queue) {
         this.game = game;
+        this.listener = listener;
+        this.queue = queue;
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
-            case KeyEvent.VK_LEFT:
+        Action action = actionFor(e.getKeyCode());
+        if (action == Action.NONE) {
+            return;
+        }
+        if (queue != null) {
+            // Una pulsación sólo entra si deja sitio para su liberación y la de las demás teclas pulsadas,
+            // que no se puede repetir. Si no cabe, la tecla no cuenta como pulsada y la siguiente
+            // repetición del sistema vuelve a intentar encolarla
+            if (!held[action.ordinal()] && queue.remainingCapacity() >= heldKeys + 2
+                    && queue.offer(action, true, System.nanoTime())) {
+                held[action.ordinal()] = true;
+                heldKeys++;
+            }
+            return;
+        }
+        listener.accept(action);
+        if (game == null) {
+            return;
+        }
+        switch (action) {
+            case LEFT:
                 game.moveLeft();
                 break;
 
-            case KeyEvent.VK_RIGHT:
+            case RIGHT:
                 game.moveRight();
                 break;
 
-            case KeyEvent.VK_DOWN:
+            case DOWN:
                 game.moveDown();
                 break;
 
-            case KeyEvent.VK_SPACE:
+            case HARD_DROP:
+                // Caída instantánea hasta el fondo
+                game.hardDrop();
+                break;
+
+            case ROTATE:
                 // 🔁 Cada vez que se pulsa la barra espaciadora, gira la pieza
                 game.rotatePiece();
                 break;
@@ -39,9 +108,37 @@ public class Inputs implements KeyListener {
         }
     }
 
+    /**
+     * Traduce una tecla a la acción del jugador que le corresponde.
+     * @param keyCode El código de la tecla.
+     * @return La acción, o {@link Action#NONE} si la tecla no se usa.
+     */
+    static Action actionFor(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_LEFT:
+                return Action.LEFT;
+            case KeyEvent.VK_RIGHT:
+                return Action.RIGHT;
+            case KeyEvent.VK_DOWN:
+                return Action.DOWN;
+            case KeyEvent.VK_UP:
+                return Action.HARD_DROP;
+            case KeyEvent.VK_SPACE:
+                return Action.ROTATE;
+            default:
+                return Action.NONE;
+        }
+    }
+
     @Override
     public void keyReleased(KeyEvent e) {
-        // No hace falta implementar nada aquí
+        // Sólo hace falta al encolar, para que el bucle deje de repetir la tecla
+        Action action = actionFor(e.getKeyCode());
+        if (queue != null && action != Action.NONE && held[action.ordinal()]
+                && queue.offer(action, false, System.nanoTime())) {
+            held[action.ordinal()] = false;
+            heldKeys--;
+        }
     }
 
     @Override
@@ -0,0 +1,128 @@
+package cat.uab.tqs.GameControl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos con cubos log-lineales, al estilo de HdrHistogram:
+ * los valores menores que 64 se cuentan exactos y, a partir de ahí, cada potencia de dos se
+ * divide en 32 cubos, así que el error relativo de cualquier percentil es menor del 3,2 %.
+ * Registrar un valor sólo incrementa contadores de un array fijo, sin crear objetos.
+ * <p>
+ * Es seguro entre hilos: se puede registrar desde varios y leer desde otro (por ejemplo, JMX).
+ * Una lectura mientras se registran valores puede mezclar muestras de antes y de después,
+ * lo que basta para monitorizar.
+ */
+public class LatencyHistogram {
+
+    // Bits de precisión dentro de cada potencia de dos: 2^5 = 32 cubos
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Por debajo de este valor cada nanosegundo tiene su propio cubo
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    // Valor más alto que se distingue (unos 18 minutos); los mayores se cuentan en el último cubo
+    public static final long MAX_VALUE = (1L << 40) - 1;
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra una latencia. Los valores negativos cuentan como 0.
+     * @param nanos La latencia en nanosegundos.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_VALUE)));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Calcula el cubo de un valor.
+     */
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Devuelve el valor más alto que cae en un cubo.
+     */
+    static long highestValueIn(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return (sub << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * Devuelve la latencia por debajo de la cual queda un porcentaje de las muestras.
+     * @param percentile El porcentaje, entre 0 y 100.
+     * @return La latencia en nanosegundos (el valor más alto de su cubo, sin pasar del máximo visto),
+     *         o 0 si no hay muestras.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            samples += counts.get(i);
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Devuelve la latencia media.
+     * @return La media en nanosegundos, o 0 si no hay muestras.
+     */
+    public double getMeanNanos() {
+        long samples = count.get();
+        return samples == 0 ? 0 : (double) total.get() / samples;
+    }
+
+    /**
+     * Borra todas las muestras.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d  media %.1f µs  p50 %.1f µs  p99 %.1f µs  p99.9 %.1f µs  máx %.1f µs",
+                getCount(), getMeanNanos() / 1e3, getValueAtPercentile(50) / 1e3,
+                getValueAtPercentile(99) / 1e3, getValueAtPercentile(99.9) / 1e3, getMaxNanos() / 1e3);
+    }
+}
@@ -0,0 +1,278 @@
+package cat.uab.tqs.GameControl;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Analizador de grabaciones de JFR hechas con el perfil {@code tetris.jfc}: resume la duración de los
+ * {@link GameEvents.Tick} y, para cada tick que tarda o empieza tarde más de un umbral, busca lo que
+ * ocurría a la vez en la JVM: pausas del recolector, safepoints, compilaciones y desoptimizaciones
+ * del JIT y fijados de pieza. Se usa desde la línea de comandos con {@code --jfr-report}.
+ */
+public class RecordingAnalyzer {
+
+    // Umbral por defecto: un tick normal tarda microsegundos, y el presupuesto es de 16,7 ms
+    public static final long DEFAULT_THRESHOLD_NANOS = 2_000_000L;
+    // Ticks anómalos que se listan con detalle, los más lentos primero
+    private static final int LISTED_OUTLIERS = 10;
+
+    private static final String GC_PAUSE = "jdk.GCPhasePause";
+    private static final String VM_OPERATION = "jdk.ExecuteVMOperation";
+    private static final String COMPILATION = "jdk.Compilation";
+    private static final String DEOPTIMIZATION = "jdk.Deoptimization";
+
+    /**
+     * Analiza una grabación.
+     * @param recording      El fichero {@code .jfr}.
+     * @param thresholdNanos Duración o retraso a partir del cual un tick se considera anómalo.
+     * @return El informe.
+     * @throws IOException si no se puede leer la grabación.
+     */
+    public Report analyze(Path recording, long thresholdNanos) throws IOException {
+        List<Interval> ticks = new ArrayList<>();
+        List<Interval> context = new ArrayList<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                long start = nanos(event.getStartTime());
+                long end = nanos(event.getEndTime());
+                switch (name) {
+                    case GameEvents.TICK:
+                        Interval tick = new Interval(start, end, null, Kind.TICK);
+                        tick.late = event.getLong("late");
+                        tick.number = event.getLong("tick");
+                        ticks.add(tick);
+                        break;
+                    case GC_PAUSE:
+                        context.add(new Interval(start, end, "pausa GC " + event.getString("name"), Kind.GC));
+                        break;
+                    case VM_OPERATION:
+                        if (event.getBoolean("safepoint")) {
+                            context.add(new Interval(start, end, "safepoint " + event.getString("operation"), Kind.SAFEPOINT));
+                        }
+                        break;
+                    case COMPILATION:
+                        context.add(new Interval(start, end, "JIT " + method(event), Kind.JIT));
+                        break;
+                    case DEOPTIMIZATION:
+                        context.add(new Interval(start, end, "desoptimización " + method(event), Kind.JIT));
+                        break;
+                    case GameEvents.PIECE_LOCK:
+                        context.add(new Interval(start, end,
+                                "fijado con " + event.getInt("linesCleared") + " líneas", Kind.GAME));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return new Report(ticks, context, thresholdNanos);
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String method(RecordedEvent event) {
+        RecordedMethod method = event.getValue("method");
+        return method == null ? "?" : method.getType().getName() + "." + method.getName();
+    }
+
+    private enum Kind { TICK, GC, SAFEPOINT, JIT, GAME }
+
+    /**
+     * Intervalo de tiempo de un evento de la grabación, en nanosegundos desde la época.
+     */
+    private static final class Interval {
+        private final long start;
+        private final long end;
+        private final String description;
+        private final Kind kind;
+        private long late;
+        private long number;
+
+        Interval(long start, long end, String description, Kind kind) {
+            this.start = start;
+            this.end = end;
+            this.description = description;
+            this.kind = kind;
+        }
+
+        boolean overlaps(long from, long to) {
+            return start <= to && end >= from;
+        }
+    }
+
+    /**
+     * Tick anómalo con lo que ocurría en la JVM mientras se esperaba o se ejecutaba.
+     */
+    public static final class Outlier {
+        private final long tick;
+        private final long durationNanos;
+        private final long lateNanos;
+        private final List<String> causes;
+
+        Outlier(long tick, long durationNanos, long lateNanos, List<String> causes) {
+            this.tick = tick;
+            this.durationNanos = durationNanos;
+            this.lateNanos = lateNanos;
+            this.causes = causes;
+        }
+
+        public long getTick() {
+            return tick;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public long getLateNanos() {
+            return lateNanos;
+        }
+
+        public List<String> getCauses() {
+            return causes;
+        }
+    }
+
+    /**
+     * Resumen de los ticks de una grabación y de sus ticks anómalos.
+     */
+    public static final class Report {
+        private final long thresholdNanos;
+        private final int ticks;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final List<Outlier> outliers = new ArrayList<>();
+        private int withGc;
+        private int withSafepoint;
+        private int withJit;
+        private int unexplained;
+
+        private Report(List<Interval> tickList, List<Interval> context, long thresholdNanos) {
+            this.thresholdNanos = thresholdNanos;
+            this.ticks = tickList.size();
+            long[] durations = new long[ticks];
+            long total = 0;
+            for (int i = 0; i < ticks; i++) {
+                durations[i] = tickList.get(i).end - tickList.get(i).start;
+                total += durations[i];
+            }
+            Arrays.sort(durations);
+            this.meanNanos = ticks == 0 ? 0 : (double) total / ticks;
+            this.p50Nanos = percentile(durations, 0.50);
+            this.p99Nanos = percentile(durations, 0.99);
+            this.maxNanos = ticks == 0 ? 0 : durations[ticks - 1];
+
+            for (Interval tick : tickList) {
+                long duration = tick.end - tick.start;
+                if (duration < thresholdNanos && tick.late < thresholdNanos) {
+                    continue;
+                }
+                // Lo que coincide con el tick o con el retraso con el que empezó
+                long from = tick.start - tick.late;
+                List<String> causes = new ArrayList<>();
+                boolean gc = false, safepoint = false, jit = false;
+                for (Interval other : context) {
+                    if (other.overlaps(from, tick.end)) {
+                        causes.add(String.format("%s (%.2f ms)", other.description, (other.end - other.start) / 1e6));
+                        gc |= other.kind == Kind.GC;
+                        safepoint |= other.kind == Kind.SAFEPOINT;
+                        jit |= other.kind == Kind.JIT;
+                    }
+                }
+                withGc += gc ? 1 : 0;
+                withSafepoint += safepoint ? 1 : 0;
+                withJit += jit ? 1 : 0;
+                unexplained += gc || safepoint || jit ? 0 : 1;
+                outliers.add(new Outlier(tick.number, duration, tick.late, Collections.unmodifiableList(causes)));
+            }
+            outliers.sort(Comparator.comparingLong((Outlier o) -> Math.max(o.durationNanos, o.lateNanos)).reversed());
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Devuelve los ticks anómalos, del más lento al más rápido.
+         * @return Los ticks anómalos.
+         */
+        public List<Outlier> getOutliers() {
+            return Collections.unmodifiableList(outliers);
+        }
+
+        public int getWithGc() {
+            return withGc;
+        }
+
+        public int getWithSafepoint() {
+            return withSafepoint;
+        }
+
+        public int getWithJit() {
+            return withJit;
+        }
+
+        public int getUnexplained() {
+            return unexplained;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Ticks: %d, media %.1f µs, p50 %.1f µs, p99 %.1f µs, máx %.2f ms%n",
+                    ticks, meanNanos / 1e3, p50Nanos / 1e3, p99Nanos / 1e3, maxNanos / 1e6));
+            out.append(String.format("Ticks anómalos (duración o retraso >= %.2f ms): %d; con pausa GC %d, "
+                            + "con safepoint %d, con JIT %d, sin explicar %d%n",
+                    thresholdNanos / 1e6, outliers.size(), withGc, withSafepoint, withJit, unexplained));
+            for (int i = 0; i < Math.min(LISTED_OUTLIERS, outliers.size()); i++) {
+                Outlier outlier = outliers.get(i);
+                out.append(String.format("  tick %d: duración %.2f ms, retraso %.2f ms%n",
+                        outlier.tick, outlier.durationNanos / 1e6, outlier.lateNanos / 1e6));
+                for (String cause : outlier.causes) {
+                    out.append("    ").append(cause).append(System.lineSeparator());
+                }
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package cat.uab.tqs.GameStructure;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador de bolsa de 7: reparte los siete tipos de pieza en un orden aleatorio y no vuelve
+ * a repetir ninguno hasta agotar la bolsa. Así nunca pasan más de 12 piezas sin una I ni
+ * salen más de dos piezas iguales seguidas.
+ * <p>
+ * Baraja con un SplitMix64 propio, el mismo algoritmo que {@link java.util.SplittableRandom}: no está
+ * sincronizado y cada barajado consume siempre el mismo número de pasos, así que el estado del
+ * generador es sólo el número de piezas sorteadas. No es seguro entre hilos: cada partida tiene el suyo.
+ */
+public class BagRandomizer implements Randomizer {
+
+    // Incremento de la semilla en cada paso de SplitMix64
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+    // Pasos que consume cada barajado
+    private static final int STEPS_PER_SHUFFLE = PieceFactory.PIECE_TYPES - 1;
+
+    private final long seed;
+    private long random;
+    private final int[] bag = new int[PieceFactory.PIECE_TYPES];
+    // Siguiente posición de la bolsa; al llegar al final se vuelve a barajar
+    private int next = bag.length;
+    // Piezas sorteadas desde el principio
+    private long drawn = 0;
+
+    /**
+     * Crea un generador con una semilla aleatoria.
+     */
+    public BagRandomizer() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Crea un generador con una semilla fija, de modo que la secuencia es reproducible.
+     * @param seed La semilla.
+     */
+    public BagRandomizer(long seed) {
+        this.seed = seed;
+        this.random = seed;
+    }
+
+    @Override
+    public int next() {
+        if (next == bag.length) {
+            shuffle();
+            next = 0;
+        }
+        drawn++;
+        return bag[next++];
+    }
+
+    /**
+     * Devuelve el número de piezas sorteadas, que basta para reconstruir la bolsa.
+     */
+    @Override
+    public long getState() {
+        return drawn;
+    }
+
+    /**
+     * Vuelve a la bolsa que había tras sortear un número de piezas, barajándola otra vez si está empezada.
+     */
+    @Override
+    public void setState(long state) {
+        if (state < 0) {
+            throw new IllegalArgumentException("Estado negativo: " + state);
+        }
+        long shuffles = state / bag.length;
+        random = seed + shuffles * STEPS_PER_SHUFFLE * GAMMA;
+        drawn = state;
+        next = bag.length;
+        int inBag = (int) (state % bag.length);
+        if (inBag > 0) {
+            shuffle();
+            next = inBag;
+        }
+    }
+
+    /**
+     * Baraja la bolsa con el algoritmo de Fisher-Yates. Siempre parte de los tipos en orden,
+     * de modo que la bolsa depende sólo del estado del generador.
+     */
+    private void shuffle() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = i;
+        }
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            int swap = bag[i];
+            bag[i] = bag[j];
+            bag[j] = swap;
+        }
+    }
+
+    /**
+     * Devuelve un entero entre 0 y {@code bound} - 1 avanzando un paso de SplitMix64.
+     * Escala los 32 bits altos en lugar de descartar valores, así que cada llamada consume un único paso.
+     */
+    private int nextInt(int bound) {
+        long z = random += GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+}
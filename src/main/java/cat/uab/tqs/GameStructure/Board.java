@@ -2,15 +2,35 @@ package cat.uab.tqs.GameStructure;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.util.Arrays;
 
 public class Board {
     // Ancho del tablero
     public static final int BOARD_WIDTH = 10;
     // Alto del tablero
     public static final int BOARD_HEIGHT = 20;
+    // Máscara de una fila completa (un bit por columna)
+    public static final int FULL_ROW = (1 << BOARD_WIDTH) - 1;
 
     // Rejilla del tablero, almacena el color de cada celda
     private final Color[][] grid;
+    // Bitboard: una máscara por fila, el bit x indica que la celda (x, fila) está ocupada
+    private final int[] rows;
+    // Fila de la celda ocupada más alta de cada columna, BOARD_HEIGHT si la columna está vacía
+    private final int[] surface;
+    // Número de celdas ocupadas de cada columna
+    private final int[] columnFill;
+    // Hash de Zobrist de las celdas ocupadas
+    private long hash = 0;
+    // Rango de filas modificadas desde la última limpieza, las únicas que pueden haberse llenado
+    private int touchedTop = BOARD_HEIGHT;
+    private int touchedBottom = -1;
+    // Indica si la rejilla se ha entregado al exterior con getGrid() y puede haberse modificado
+    private boolean gridExposed = false;
+    // Colores de la rejilla expuesta en la última reconstrucción, para saber si se ha escrito en ella
+    private Color[] syncedCells;
+    // Versión del contenido, cambia con cada modificación del tablero
+    private long version = 0;
 
     /**
      * Constructor de la clase Board.
@@ -18,6 +38,10 @@ public class Board {
      */
     public Board() {
         grid = new Color[BOARD_HEIGHT][BOARD_WIDTH];
+        rows = new int[BOARD_HEIGHT];
+        surface = new int[BOARD_WIDTH];
+        columnFill = new int[BOARD_WIDTH];
+        Arrays.fill(surface, BOARD_HEIGHT);
         for (int i = 0; i < BOARD_HEIGHT; i++) {
             for (int j = 0; j < BOARD_WIDTH; j++) {
                 grid[i][j] = null; // null representa una celda vacía
@@ -25,15 +49,225 @@ public class Board {
         }
     }
 
+    /**
+     * Crea una copia independiente de otro tablero.
+     *
+     * @param other El tablero a copiar.
+     */
+    public Board(Board other) {
+        this();
+        copyFrom(other);
+    }
+
+    /**
+     * Copia el contenido de otro tablero sobre este, reutilizando sus arrays.
+     *
+     * @param other El tablero a copiar.
+     */
+    public void copyFrom(Board other) {
+        other.syncRows();
+        for (int i = 0; i < BOARD_HEIGHT; i++) {
+            System.arraycopy(other.grid[i], 0, grid[i], 0, BOARD_WIDTH);
+        }
+        System.arraycopy(other.rows, 0, rows, 0, BOARD_HEIGHT);
+        System.arraycopy(other.surface, 0, surface, 0, BOARD_WIDTH);
+        System.arraycopy(other.columnFill, 0, columnFill, 0, BOARD_WIDTH);
+        hash = other.hash;
+        touchedTop = other.touchedTop;
+        touchedBottom = other.touchedBottom;
+        version++;
+    }
+
+    /**
+     * Guarda el estado del tablero en una instantánea nueva.
+     *
+     * @return La instantánea.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Guarda el estado del tablero en una instantánea existente, sin crear objetos.
+     * Solo se copian las filas desde la más alta ocupada, que son las únicas con celdas.
+     *
+     * @param into La instantánea donde guardar el estado.
+     */
+    public void snapshot(Snapshot into) {
+        syncRows();
+        int top = highestRow();
+        for (int y = top; y < BOARD_HEIGHT; y++) {
+            System.arraycopy(grid[y], 0, into.cells, y * BOARD_WIDTH, BOARD_WIDTH);
+        }
+        System.arraycopy(rows, 0, into.rows, 0, BOARD_HEIGHT);
+        System.arraycopy(surface, 0, into.surface, 0, BOARD_WIDTH);
+        System.arraycopy(columnFill, 0, into.columnFill, 0, BOARD_WIDTH);
+        into.top = top;
+        into.hash = hash;
+        into.touchedTop = touchedTop;
+        into.touchedBottom = touchedBottom;
+    }
+
+    /**
+     * Devuelve el tablero al estado de una instantánea, sin crear objetos.
+     * Solo se escriben las filas ocupadas ahora o en la instantánea.
+     *
+     * @param from La instantánea.
+     */
+    public void restore(Snapshot from) {
+        syncRows();
+        for (int y = Math.min(highestRow(), from.top); y < from.top; y++) {
+            Arrays.fill(grid[y], null);
+        }
+        for (int y = from.top; y < BOARD_HEIGHT; y++) {
+            System.arraycopy(from.cells, y * BOARD_WIDTH, grid[y], 0, BOARD_WIDTH);
+        }
+        System.arraycopy(from.rows, 0, rows, 0, BOARD_HEIGHT);
+        System.arraycopy(from.surface, 0, surface, 0, BOARD_WIDTH);
+        System.arraycopy(from.columnFill, 0, columnFill, 0, BOARD_WIDTH);
+        hash = from.hash;
+        touchedTop = from.touchedTop;
+        touchedBottom = from.touchedBottom;
+        version++;
+    }
+
     /**
      * Devuelve la rejilla del tablero.
+     * Como quien la recibe puede escribir en ella, a partir de esta llamada las máscaras
+     * se reconstruyen desde la rejilla antes de cada operación. Para leer celdas
+     * sin este coste se debe usar {@link #getCell(int, int)}. Cada llamada cambia la versión del tablero.
      *
      * @return La rejilla del tablero.
      */
     public Color[][] getGrid() {
+        // Quien recibe la rejilla puede escribir en ella sin que el tablero lo vea
+        version++;
+        if (!gridExposed) {
+            gridExposed = true;
+            syncedCells = new Color[BOARD_HEIGHT * BOARD_WIDTH];
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                System.arraycopy(grid[y], 0, syncedCells, y * BOARD_WIDTH, BOARD_WIDTH);
+            }
+        }
         return grid;
     }
 
+    /**
+     * Devuelve el color de una celda.
+     *
+     * @param x Columna de la celda.
+     * @param y Fila de la celda.
+     * @return El color de la celda, o null si está vacía.
+     */
+    public Color getCell(int x, int y) {
+        return grid[y][x];
+    }
+
+    /**
+     * Devuelve la máscara de ocupación de una fila.
+     *
+     * @param y Fila del tablero.
+     * @return La máscara de la fila, el bit x indica que la columna x está ocupada.
+     */
+    public int getRowMask(int y) {
+        syncRows();
+        return rows[y];
+    }
+
+    /**
+     * Devuelve el número de celdas ocupadas de una fila.
+     * El contador se obtiene de la máscara de la fila, que ya se mantiene en cada colocación.
+     *
+     * @param y Fila del tablero.
+     * @return El número de celdas ocupadas.
+     */
+    public int getRowFill(int y) {
+        return Integer.bitCount(getRowMask(y));
+    }
+
+    /**
+     * Devuelve la altura de una columna: el número de filas desde el suelo hasta
+     * la celda ocupada más alta, incluidos los huecos que haya por debajo.
+     *
+     * @param x Columna del tablero.
+     * @return La altura de la columna, 0 si está vacía.
+     */
+    public int getColumnHeight(int x) {
+        syncRows();
+        return BOARD_HEIGHT - surface[x];
+    }
+
+    /**
+     * Devuelve la versión del contenido del tablero, que cambia al colocar piezas, limpiar líneas,
+     * copiar o restaurar. Sirve para saber si hay que volver a dibujar las celdas fijas.
+     * También cambia al entregar la rejilla con {@link #getGrid()}, y cuando la siguiente operación
+     * del tablero encuentra celdas escritas en ella. Leerla no cambia nada.
+     *
+     * @return La versión del tablero.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve el hash de Zobrist de las celdas ocupadas del tablero.
+     * Se actualiza al colocar piezas y al limpiar líneas, y dos tableros con las mismas
+     * celdas ocupadas tienen el mismo hash aunque los colores sean distintos.
+     *
+     * @return El hash de 64 bits.
+     */
+    public long getHash() {
+        syncRows();
+        return hash;
+    }
+
+    /**
+     * Devuelve la suma de las alturas de todas las columnas.
+     * Se calcula con las alturas que se mantienen en cada colocación, en O(ancho).
+     *
+     * @return La altura agregada.
+     */
+    public int getAggregateHeight() {
+        syncRows();
+        int total = 0;
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            total += BOARD_HEIGHT - surface[x];
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve el número de huecos: celdas vacías por debajo de la celda más alta de su columna.
+     * Se calcula con las alturas y el número de celdas de cada columna, en O(ancho).
+     *
+     * @return El número de huecos.
+     */
+    public int getHoles() {
+        syncRows();
+        int total = 0;
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            total += BOARD_HEIGHT - surface[x] - columnFill[x];
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve la irregularidad de la superficie: la suma de las diferencias de altura
+     * entre columnas vecinas.
+     *
+     * @return La irregularidad.
+     */
+    public int getBumpiness() {
+        syncRows();
+        int total = 0;
+        for (int x = 1; x < BOARD_WIDTH; x++) {
+            total += Math.abs(surface[x] - surface[x - 1]);
+        }
+        return total;
+    }
+
     /**
      * Comprueba si una posición es válida para una pieza.
      *
@@ -42,6 +276,7 @@ public class Board {
      * @return true si la posición es válida, false en caso contrario.
      */
     public boolean isValidPosition(Point[] pieceShape, Point position) {
+        syncRows();
         for (Point p : pieceShape) {
             int x = position.x + p.x;
             int y = position.y + p.y;
@@ -58,15 +293,95 @@ public class Board {
 
             // Si la coordenada y es negativa, está por encima del tablero, lo cual es válido
             // Solo comprobamos colisión si la celda está dentro del área visible del tablero
-            if (y >= 0) {
-                if (grid[y][x] != null) {
-                    return false; // Celda ocupada
-                }
+            if (y >= 0 && (rows[y] & (1 << x)) != 0) {
+                return false; // Celda ocupada
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Comprueba si una posición es válida para una pieza representada como máscara.
+     * Cada fila de la pieza se comprueba con un desplazamiento y un AND.
+     *
+     * @param shape La máscara de la pieza.
+     * @param x     Columna de la posición de la pieza.
+     * @param y     Fila de la posición de la pieza.
+     * @return true si la posición es válida, false en caso contrario.
+     */
+    public boolean isValidPosition(ShapeMask shape, int x, int y) {
+        int left = x + shape.getOffsetX();
+        if (left < 0 || left + shape.getWidth() > BOARD_WIDTH) {
+            return false;
+        }
+        int top = y + shape.getOffsetY();
+        int height = shape.getHeight();
+        if (top + height > BOARD_HEIGHT) {
+            return false;
+        }
+        syncRows();
+        for (int i = 0; i < height; i++) {
+            int row = top + i;
+            // Las filas por encima del tablero (row < 0) siempre son válidas
+            if (row >= 0 && (rows[row] & (shape.getRow(i) << left)) != 0) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Comprueba si una pieza puede desplazarse desde su posición actual.
+     * No crea objetos intermedios, por lo que se puede usar en cada tick.
+     *
+     * @param shape    La máscara de la pieza.
+     * @param position La posición actual de la pieza.
+     * @param dx       Desplazamiento horizontal.
+     * @param dy       Desplazamiento vertical.
+     * @return true si la posición desplazada es válida, false en caso contrario.
+     */
+    public boolean canMove(ShapeMask shape, Point position, int dx, int dy) {
+        return isValidPosition(shape, position.x + dx, position.y + dy);
+    }
+
+    /**
+     * Calcula cuántas filas puede caer una pieza desde su posición actual.
+     * Si todas las celdas de la pieza están por encima de la celda más alta de su columna,
+     * la distancia se obtiene del perfil inferior y las alturas en O(ancho de la pieza).
+     * Si la pieza está bajo un saliente se recurre a comprobar fila a fila.
+     *
+     * @param shape         La máscara de la pieza.
+     * @param bottomProfile El perfil inferior de la pieza (fila más baja de cada columna,
+     *                      o {@link RotationTable#EMPTY_COLUMN} en las columnas vacías, que no limitan la caída).
+     * @param position      La posición actual de la pieza, que debe ser válida.
+     * @return El número de filas que puede bajar la pieza.
+     */
+    public int dropDistance(ShapeMask shape, int[] bottomProfile, Point position) {
+        syncRows();
+        int left = position.x + shape.getOffsetX();
+        int distance = BOARD_HEIGHT;
+        for (int i = 0; i < bottomProfile.length; i++) {
+            if (bottomProfile[i] == RotationTable.EMPTY_COLUMN) {
+                continue;
+            }
+            int free = surface[left + i] - 1 - (position.y + bottomProfile[i]);
+            if (free < 0) {
+                // La pieza está por debajo de la superficie de esta columna
+                return dropDistanceByRows(shape, position);
+            }
+            distance = Math.min(distance, free);
+        }
+        return distance;
+    }
+
+    private int dropDistanceByRows(ShapeMask shape, Point position) {
+        int distance = 0;
+        while (isValidPosition(shape, position.x, position.y + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
     /**
      * Coloca una pieza en el tablero.
      *
@@ -75,49 +390,187 @@ public class Board {
      * @param color      El color de la pieza.
      */
     public void placePiece(Point[] pieceShape, Point position, Color color) {
+        syncRows();
+        version++;
         for (Point p : pieceShape) {
-            int x = position.x + p.x;
-            int y = position.y + p.y;
-            if (y >= 0) {
-                grid[y][x] = color;
+            placeCell(position.x + p.x, position.y + p.y, color);
+        }
+    }
+
+    /**
+     * Coloca un estado de rotación de una forma en el tablero, sin crear objetos.
+     *
+     * @param table    La tabla de rotaciones de la pieza.
+     * @param rotation El estado de rotación.
+     * @param x        Columna de la posición de la pieza.
+     * @param y        Fila de la posición de la pieza.
+     * @param color    El color de la pieza.
+     */
+    public void placePiece(RotationTable table, int rotation, int x, int y, Color color) {
+        syncRows();
+        version++;
+        for (int i = 0; i < table.getCellCount(rotation); i++) {
+            placeCell(x + table.getCellX(rotation, i), y + table.getCellY(rotation, i), color);
+        }
+    }
+
+    private void placeCell(int x, int y, Color color) {
+        if (y >= 0) {
+            grid[y][x] = color;
+            if ((rows[y] & (1 << x)) == 0) {
+                columnFill[x]++;
+                hash ^= Zobrist.cell(x, y);
             }
+            rows[y] |= 1 << x;
+            surface[x] = Math.min(surface[x], y);
+            touchedTop = Math.min(touchedTop, y);
+            touchedBottom = Math.max(touchedBottom, y);
         }
     }
 
     /**
      * Elimina las líneas completas del tablero y desplaza las superiores.
-     * Esta versión es más robusta y funcional, evitando la manipulación compleja de índices.
+     * Solo se inspeccionan las filas modificadas desde la última limpieza, ya que
+     * el resto no ha podido llenarse. Las filas se compactan en el sitio,
+     * reutilizando los arrays de la rejilla, sin crear objetos.
      *
      * @return El número de líneas eliminadas.
      */
     public int clearLines() {
+        syncRows();
+        int top = touchedTop;
+        int bottom = touchedBottom;
+        touchedTop = BOARD_HEIGHT;
+        touchedBottom = -1;
+
         int linesCleared = 0;
-        Color[][] newGrid = new Color[BOARD_HEIGHT][BOARD_WIDTH];
-        int newRow = BOARD_HEIGHT - 1;
+        for (int i = top; i <= bottom; i++) {
+            if (rows[i] == FULL_ROW) {
+                linesCleared++;
+            }
+        }
+        if (linesCleared == 0) {
+            return 0;
+        }
+        version++;
 
-        for (int i = BOARD_HEIGHT - 1; i >= 0; i--) {
-            boolean lineIsFull = true;
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (grid[i][j] == null) {
-                    lineIsFull = false;
-                    break;
-                }
+        // Solo cambian de contenido las filas entre la más alta ocupada y la última modificada
+        int highest = highestRow();
+        for (int y = highest; y <= bottom; y++) {
+            hash ^= Zobrist.row(y, rows[y]);
+        }
+
+        // Las filas por debajo de la última modificada no se mueven
+        int write = bottom;
+        for (int read = bottom; read >= 0; read--) {
+            if (read >= top && rows[read] == FULL_ROW) {
+                continue; // La línea llena se descarta
             }
+            if (write != read) {
+                // Intercambiamos los arrays para que la fila descartada se reutilice arriba
+                Color[] row = grid[write];
+                grid[write] = grid[read];
+                grid[read] = row;
+                rows[write] = rows[read];
+            }
+            write--;
+        }
 
-            if (!lineIsFull) {
-                // Si la línea no está llena, la copiamos a la nueva rejilla
+        // Las filas que quedan arriba pasan a estar vacías
+        for (; write >= 0; write--) {
+            Arrays.fill(grid[write], null);
+            rows[write] = 0;
+        }
 
-                System.arraycopy(grid[i], 0, newGrid[newRow], 0, BOARD_WIDTH);
-                newRow--;
+        for (int y = highest; y <= bottom; y++) {
+            hash ^= Zobrist.row(y, rows[y]);
+        }
 
-            } else {
-                linesCleared++;
+        // Cada línea eliminada tenía una celda en todas las columnas
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            columnFill[x] -= linesCleared;
+        }
+        updateSurface();
+        return linesCleared;
+    }
+
+    /**
+     * Reconstruye las máscaras desde la rejilla si esta se ha expuesto con getGrid(),
+     * y cambia la versión si alguna celda es distinta de la última reconstrucción.
+     */
+    private void syncRows() {
+        if (!gridExposed) {
+            return;
+        }
+        Arrays.fill(columnFill, 0);
+        hash = 0;
+        boolean written = false;
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            int mask = 0;
+            for (int x = 0; x < BOARD_WIDTH; x++) {
+                Color color = grid[y][x];
+                if (color != syncedCells[y * BOARD_WIDTH + x]) {
+                    syncedCells[y * BOARD_WIDTH + x] = color;
+                    written = true;
+                }
+                if (color != null) {
+                    mask |= 1 << x;
+                    columnFill[x]++;
+                }
             }
+            rows[y] = mask;
+            hash ^= Zobrist.row(y, mask);
+        }
+        // Cualquier fila puede haberse llenado desde fuera
+        touchedTop = 0;
+        touchedBottom = BOARD_HEIGHT - 1;
+        updateSurface();
+        if (written) {
+            version++;
         }
+    }
 
-        // Reemplazamos la rejilla antigua con la nueva, que ya tiene las líneas vacías arriba
-        System.arraycopy(newGrid, 0, grid, 0, BOARD_HEIGHT);
+    /**
+     * Devuelve la fila de la celda ocupada más alta, o BOARD_HEIGHT si el tablero está vacío.
+     */
+    private int highestRow() {
+        int highest = BOARD_HEIGHT;
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            highest = Math.min(highest, surface[x]);
+        }
+        return highest;
+    }
 
-        return linesCleared;
+    /**
+     * Recalcula la celda más alta de cada columna recorriendo las filas desde arriba
+     * hasta haber encontrado todas las columnas ocupadas.
+     */
+    private void updateSurface() {
+        Arrays.fill(surface, BOARD_HEIGHT);
+        int pending = FULL_ROW;
+        for (int y = 0; y < BOARD_HEIGHT && pending != 0; y++) {
+            int found = rows[y] & pending;
+            pending &= ~found;
+            while (found != 0) {
+                surface[Integer.numberOfTrailingZeros(found)] = y;
+                found &= found - 1;
+            }
+        }
+    }
+
+    /**
+     * Estado guardado de un tablero. Se puede reutilizar para guardar estados sucesivos
+     * sin crear objetos, como hace una búsqueda que prueba una jugada y la deshace.
+     */
+    public static final class Snapshot {
+        private final int[] rows = new int[BOARD_HEIGHT];
+        private final Color[] cells = new Color[BOARD_HEIGHT * BOARD_WIDTH];
+        private final int[] surface = new int[BOARD_WIDTH];
+        private final int[] columnFill = new int[BOARD_WIDTH];
+        // Fila ocupada más alta: las celdas de las filas superiores no se guardan
+        private int top = BOARD_HEIGHT;
+        private long hash;
+        private int touchedTop = BOARD_HEIGHT;
+        private int touchedBottom = -1;
     }
-}
\ No newline at end of file
+}
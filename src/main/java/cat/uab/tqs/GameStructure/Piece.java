@@ -3,16 +3,29 @@ package cat.uab.tqs.GameStructure;
 import java.awt.Color;
 import java.awt.Point;
 
+/**
+ * Pieza que cae por el tablero. La forma es una {@link RotationTable} compartida e inmutable;
+ * la pieza sólo guarda su tipo, su rotación y su posición, y {@link PieceFactory#getNewPiece(Piece)}
+ * la reutiliza para la pieza siguiente en lugar de crear otra.
+ */
 public class Piece {
-    // Forma de la pieza
-    private Point[] shape;
+    // Tipo de la pieza (índice de la fábrica), -1 si la forma es personalizada
+    private int type;
+    // Estados de rotación precalculados de la forma
+    private RotationTable rotations;
+    // Estado de rotación actual
+    private int rotation = 0;
     // Color de la pieza
-    private final Color color;
+    private Color color;
     // Posición de la pieza
-    private Point position;
+    private final Point position;
     // Tablero en el que se encuentra la pieza
     private final Board board;
 
+    // Posición en la que aparecen las piezas nuevas
+    private static final int SPAWN_X = Board.BOARD_WIDTH / 2 - 1;
+    private static final int SPAWN_Y = 0;
+
     /**
      * Constructor de la clase Piece.
      * @param shape La forma de la pieza.
@@ -20,18 +33,83 @@ public class Piece {
      * @param board El tablero en el que se encuentra la pieza.
      */
     public Piece(Point[] shape, Color color, Board board) {
-        this.shape = shape;
+        this(-1, RotationTable.of(shape), color, board);
+    }
+
+    /**
+     * Constructor que recibe la tabla de rotaciones ya calculada.
+     * @param type      El tipo de la pieza.
+     * @param rotations La tabla de rotaciones de la forma.
+     * @param color     El color de la pieza.
+     * @param board     El tablero en el que se encuentra la pieza.
+     */
+    Piece(int type, RotationTable rotations, Color color, Board board) {
+        this.type = type;
+        this.rotations = rotations;
         this.color = color;
         this.board = board;
-        this.position = new Point(Board.BOARD_WIDTH / 2 - 1, 0);
+        this.position = new Point(SPAWN_X, SPAWN_Y);
+    }
+
+    /**
+     * Convierte la pieza en una recién generada de otro tipo, en la posición inicial y sin girar.
+     * @param type      El tipo de la pieza.
+     * @param rotations La tabla de rotaciones de la forma.
+     * @param color     El color de la pieza.
+     */
+    void reset(int type, RotationTable rotations, Color color) {
+        this.type = type;
+        this.rotations = rotations;
+        this.color = color;
+        this.rotation = 0;
+        position.setLocation(SPAWN_X, SPAWN_Y);
+    }
+
+    /**
+     * Devuelve el tablero en el que se encuentra la pieza.
+     */
+    Board getBoard() {
+        return board;
     }
 
     /**
      * Devuelve la forma de la pieza.
-     * @return La forma de la pieza.
+     * @return Una copia de la forma de la pieza; para leerla sin crear objetos, {@link #getRotationTable()}.
      */
     public Point[] getShape() {
-        return shape;
+        return rotations.getShape(rotation);
+    }
+
+    /**
+     * Devuelve la forma de la pieza como máscaras de bits por fila.
+     * @return La máscara de la forma.
+     */
+    public ShapeMask getShapeMask() {
+        return rotations.getMask(rotation);
+    }
+
+    /**
+     * Devuelve el tipo de la pieza.
+     * @return El índice de la forma en la fábrica, o -1 si la forma es personalizada.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Devuelve el estado de rotación actual.
+     * @return El índice del estado, entre 0 y 3.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Devuelve la tabla de rotaciones de la pieza.
+     * @return La tabla de rotaciones.
+     */
+    public RotationTable getRotationTable() {
+        return rotations;
     }
 
     /**
@@ -54,16 +132,74 @@ public class Piece {
      * Mueve la pieza hacia abajo.
      */
     public void moveDown() {
-        if (board.isValidPosition(shape, new Point(position.x, position.y + 1))) {
+        tryMoveDown();
+    }
+
+    /**
+     * Intenta mover la pieza hacia abajo validando la posición una sola vez.
+     * @return true si la pieza ha bajado, false si no podía moverse.
+     */
+    public boolean tryMoveDown() {
+        if (board.canMove(getShapeMask(), position, 0, 1)) {
             position.y++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deja caer la pieza hasta la posición más baja que puede ocupar.
+     * La distancia se calcula con las alturas de las columnas del tablero y el
+     * perfil inferior de la rotación actual, sin comprobar fila a fila.
+     * @return El número de filas que ha bajado la pieza.
+     */
+    public int hardDrop() {
+        int distance = board.dropDistance(getShapeMask(), rotations.getBottomProfile(rotation), position);
+        position.y += distance;
+        return distance;
+    }
+
+    /**
+     * Guarda la posición y la rotación de la pieza en un entero, sin crear objetos.
+     * La columna y la fila ocupan 14 bits con signo cada una y la rotación los 2 bits bajos.
+     * @return El estado de la pieza, para {@link #restore(int)}.
+     */
+    public int snapshot() {
+        return (position.x & 0x3FFF) << 16 | (position.y & 0x3FFF) << 2 | rotation;
+    }
+
+    /**
+     * Devuelve la pieza a un estado guardado con {@link #snapshot()}, sin comprobar el tablero.
+     * @param snapshot El estado guardado.
+     */
+    public void restore(int snapshot) {
+        position.x = snapshot << 2 >> 18;
+        position.y = snapshot << 16 >> 18;
+        rotation = snapshot & 0x3;
+    }
+
+    /**
+     * Coloca la pieza en una posición y rotación concretas si son válidas en el tablero.
+     * @param x        Columna de destino.
+     * @param y        Fila de destino.
+     * @param rotation Estado de rotación de destino.
+     * @return true si la pieza se ha movido, false si la posición no era válida.
+     */
+    public boolean moveTo(int x, int y, int rotation) {
+        if (board.isValidPosition(rotations.getMask(rotation), x, y)) {
+            position.x = x;
+            position.y = y;
+            this.rotation = rotation;
+            return true;
         }
+        return false;
     }
 
     /**
      * Mueve la pieza hacia la izquierda.
      */
     public void moveLeft() {
-        if (board.isValidPosition(shape, new Point(position.x - 1, position.y))) {
+        if (board.canMove(getShapeMask(), position, -1, 0)) {
             position.x--;
         }
     }
@@ -72,37 +208,23 @@ public class Piece {
      * Mueve la pieza hacia la derecha.
      */
     public void moveRight() {
-        if (board.isValidPosition(shape, new Point(position.x + 1, position.y))) {
+        if (board.canMove(getShapeMask(), position, 1, 0)) {
             position.x++;
         }
     }
 
     /**
-     * Rota la pieza.
+     * Rota la pieza 90 grados en sentido horario.
+     * Pasa al siguiente estado de la tabla si su posición es válida en el tablero.
+     * @return true si ha girado, false si la nueva posición no era válida.
      */
-    public void rotate() {
-        Point[] newShape = new Point[shape.length];
-        // Asumimos que el punto de pivote es el segundo punto de la forma (índice 1)
-        // Esto es una simplificación, en un Tetris real se manejaría de forma más robusta
-        Point pivot = shape[1];
-
-        for (int i = 0; i < shape.length; i++) {
-            // Trasladar el punto para que el pivote sea el origen
-            int translatedX = shape[i].x - pivot.x;
-            int translatedY = shape[i].y - pivot.y;
-
-            // Rotar 90 grados en sentido horario (x' = -y, y' = x)
-            newShape[i] = new Point(-translatedY, translatedX);
-
-            // Trasladar el punto de vuelta
-            newShape[i].x += pivot.x;
-            newShape[i].y += pivot.y;
-        }
-
-        // Comprobar si la nueva forma es válida en el tablero
-        if (board.isValidPosition(newShape, position)) {
-            this.shape = newShape;
+    public boolean rotate() {
+        int next = (rotation + 1) % RotationTable.ROTATIONS;
+        if (board.isValidPosition(rotations.getMask(next), position.x, position.y)) {
+            rotation = next;
+            return true;
         }
+        return false;
     }
 
     /**
@@ -110,6 +232,6 @@ public class Piece {
      * @return true si la pieza puede moverse hacia abajo, false en caso contrario.
      */
     public boolean canMoveDown() {
-        return board.isValidPosition(shape, new Point(position.x, position.y + 1));
+        return board.canMove(getShapeMask(), position, 0, 1);
     }
 }
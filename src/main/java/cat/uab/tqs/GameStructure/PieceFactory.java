@@ -4,14 +4,27 @@ import java.awt.Color;
 import java.awt.Point;
 import java.util.Random;
 
+/**
+ * Fábrica de piezas. Sortea los tipos con un {@link Randomizer} y guarda en una cola circular los que
+ * ya se han consultado con {@link #peek(int)} antes de generarlos. Para repetir la secuencia se guarda
+ * el estado del generador y de la cola con {@link #snapshot(Snapshot)}, sin conservar las piezas anteriores.
+ * <p>
+ * Las formas, sus rotaciones y los colores son compartidos por todas las piezas y partidas.
+ * Con {@link #getNewPiece(Piece)} una partida reutiliza siempre la misma pieza, así que generar
+ * la siguiente no crea ningún objeto.
+ */
 public class PieceFactory {
     // Tablero en el que se crearán las piezas
     private final Board board;
-    // Generador de números aleatorios
-    private final Random random;
+    // Generador de los tipos de pieza
+    private final Randomizer randomizer;
+    // Tipos ya sorteados de las piezas siguientes, consultados con peek: una cola circular
+    private final int[] queue = new int[MAX_PEEK];
+    private int head = 0;
+    private int queued = 0;
 
     // Formas de las piezas
-    private final Point[][] pieceShapes = {
+    private static final Point[][] PIECE_SHAPES = {
             // I-shape
             { new Point(0, 1), new Point(1, 1), new Point(2, 1), new Point(3, 1) },
             // J-shape
@@ -28,41 +41,169 @@ public class PieceFactory {
             { new Point(0, 0), new Point(1, 0), new Point(1, 1), new Point(2, 1) }
     };
 
+    // Número de tipos de pieza
+    public static final int PIECE_TYPES = PIECE_SHAPES.length;
+    // Piezas siguientes que se pueden consultar con peek: la vista previa de la partida y una más
+    public static final int MAX_PEEK = 6;
+
+    // Rotaciones precalculadas de cada forma, compartidas por todas las piezas y partidas
+    private static final RotationTable[] PIECE_ROTATIONS = new RotationTable[PIECE_TYPES];
+
+    static {
+        for (int i = 0; i < PIECE_TYPES; i++) {
+            PIECE_ROTATIONS[i] = RotationTable.of(PIECE_SHAPES[i]);
+        }
+    }
+
     // Colores de las piezas
-    private final Color[] pieceColors = {
+    private static final Color[] PIECE_COLORS = {
             Color.CYAN, Color.BLUE, Color.ORANGE, Color.YELLOW, Color.GREEN, Color.MAGENTA, Color.RED
     };
 
     /**
-     * Constructor de la clase PieceFactory.
+     * Constructor de la clase PieceFactory. Sortea las piezas con una bolsa de 7.
      * @param board El tablero en el que se crearán las piezas.
      */
     public PieceFactory(Board board) {
-        this(board, new Random());
+        this(board, new BagRandomizer());
     }
 
     /**
      * Constructor para testing, permite inyectar un generador de números aleatorios.
+     * Cada pieza se sortea de manera uniforme entre todos los tipos, sin bolsa, con un {@link UniformRandomizer}.
      * @param board El tablero.
      * @param random El generador de números aleatorios.
      */
     public PieceFactory(Board board, Random random) {
+        this(board, new UniformRandomizer(random));
+    }
+
+    /**
+     * Crea una fábrica con un generador de tipos concreto.
+     * @param board      El tablero.
+     * @param randomizer El generador de los tipos de pieza.
+     */
+    public PieceFactory(Board board, Randomizer randomizer) {
         this.board = board;
-        this.random = random;
+        this.randomizer = randomizer;
+    }
+
+    /**
+     * Devuelve la tabla de rotaciones de un tipo de pieza.
+     * @param type El tipo de pieza, entre 0 y {@link #PIECE_TYPES} - 1.
+     * @return La tabla de rotaciones compartida.
+     */
+    public static RotationTable getRotationTable(int type) {
+        return PIECE_ROTATIONS[type];
+    }
+
+    /**
+     * Devuelve el color de un tipo de pieza.
+     * @param type El tipo de pieza, entre 0 y {@link #PIECE_TYPES} - 1.
+     * @return El color de la pieza.
+     */
+    public static Color getColor(int type) {
+        return PIECE_COLORS[type];
+    }
+
+    /**
+     * Guarda el punto de la secuencia en el que está la fábrica, sin crear objetos.
+     * @param into La instantánea donde guardarlo.
+     */
+    public void snapshot(Snapshot into) {
+        into.randomizerState = randomizer.getState();
+        for (int i = 0; i < queued; i++) {
+            into.queue[i] = queue[(head + i) % queue.length];
+        }
+        into.queued = queued;
+    }
+
+    /**
+     * Vuelve a un punto anterior de la secuencia: las piezas siguientes serán las mismas
+     * que se generaron tras guardar la instantánea.
+     * @param from La instantánea.
+     */
+    public void restore(Snapshot from) {
+        randomizer.setState(from.randomizerState);
+        System.arraycopy(from.queue, 0, queue, 0, from.queued);
+        head = 0;
+        queued = from.queued;
+    }
+
+    /**
+     * Devuelve el tipo de una de las piezas siguientes sin generarla. Si aún no se había sorteado,
+     * se sortea y se guarda, así que {@link #getNewPiece()} devolverá después ese mismo tipo.
+     * @param ahead Cuántas piezas hay que saltar: 0 es la próxima que se generará.
+     * @return El tipo de la pieza.
+     */
+    public int peek(int ahead) {
+        if (ahead < 0 || ahead >= MAX_PEEK) {
+            throw new IllegalArgumentException("Posición fuera de la vista previa: " + ahead);
+        }
+        while (queued <= ahead) {
+            queue[(head + queued) % queue.length] = randomizer.next();
+            queued++;
+        }
+        return queue[(head + ahead) % queue.length];
+    }
+
+    /**
+     * Saca de la cola el tipo de la próxima pieza, o lo sortea si no se había consultado.
+     */
+    private int nextType() {
+        if (queued == 0) {
+            return randomizer.next();
+        }
+        int type = queue[head];
+        head = (head + 1) % queue.length;
+        queued--;
+        return type;
     }
 
     /**
      * Devuelve una nueva pieza aleatoria.
+     * La pieza usa la tabla de rotaciones compartida de su tipo.
      * @return Una nueva pieza aleatoria.
      */
     public Piece getNewPiece() {
-        int randomIndex = random.nextInt(pieceShapes.length);
-        Point[] shape = new Point[4];
-        for(int i = 0; i < 4; i++){
-            shape[i] = new Point(pieceShapes[randomIndex][i]);
+        return getNewPiece(null);
+    }
+
+    /**
+     * Genera la siguiente pieza reutilizando una existente, sin crear objetos: la pieza pasa a ser
+     * del nuevo tipo, en la posición inicial y sin girar.
+     * @param reuse La pieza que se reutiliza, normalmente la que se acaba de fijar. Si es null,
+     *              es de otro tablero o tiene una forma personalizada, se crea una nueva.
+     * @return La pieza generada: {@code reuse} si se ha podido reutilizar.
+     */
+    public Piece getNewPiece(Piece reuse) {
+        int type = nextType();
+        // Una pieza personalizada no tiene tipo con el que volver a su forma al restaurar, así que no se cambia
+        if (reuse == null || reuse.getBoard() != board || reuse.getType() < 0) {
+            return new Piece(type, PIECE_ROTATIONS[type], PIECE_COLORS[type], board);
         }
-        Color color = pieceColors[randomIndex];
-        return new Piece(shape, color, board);
+        reuse.reset(type, PIECE_ROTATIONS[type], PIECE_COLORS[type]);
+        return reuse;
+    }
+
+    /**
+     * Cambia el tipo de una pieza, que vuelve a la posición inicial y sin girar.
+     * No avanza la secuencia; se usa para volver a un estado guardado.
+     * @param piece La pieza.
+     * @param type  El tipo de pieza, entre 0 y {@link #PIECE_TYPES} - 1.
+     */
+    public static void reset(Piece piece, int type) {
+        piece.reset(type, PIECE_ROTATIONS[type], PIECE_COLORS[type]);
+    }
+
+    /**
+     * Punto guardado de la secuencia de piezas: el estado del generador y los tipos ya consultados.
+     * Se puede reutilizar para guardar puntos sucesivos.
+     */
+    public static final class Snapshot {
+        private long randomizerState;
+        private final int[] queue = new int[MAX_PEEK];
+        private int queued;
     }
 }
 
@@ -0,0 +1,27 @@
+package cat.uab.tqs.GameStructure;
+
+/**
+ * Generador de la secuencia de tipos de pieza que usa {@link PieceFactory}.
+ * Para repetir la secuencia tras {@link PieceFactory#restore(PieceFactory.Snapshot)} todo generador
+ * guarda su estado en un {@code long} y puede volver a él.
+ */
+public interface Randomizer {
+
+    /**
+     * Sortea el siguiente tipo de pieza.
+     * @return Un tipo entre 0 y {@link PieceFactory#PIECE_TYPES} - 1.
+     */
+    int next();
+
+    /**
+     * Devuelve el estado del generador, para volver a él con {@link #setState(long)}.
+     * @return El estado.
+     */
+    long getState();
+
+    /**
+     * Vuelve a un estado anterior: los tipos siguientes serán los que se sortearon desde él.
+     * @param state Un estado devuelto por {@link #getState()}.
+     */
+    void setState(long state);
+}
@@ -0,0 +1,166 @@
+package cat.uab.tqs.GameStructure;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * Tabla inmutable con los cuatro estados de rotación de una forma.
+ * Cada estado se precalcula una sola vez junto con su máscara, su caja
+ * envolvente y su perfil inferior, y la tabla se comparte entre todas las piezas.
+ * Las celdas se guardan como coordenadas enteras: {@link #getShape(int)} devuelve una copia
+ * y {@link #getCellX(int, int)} / {@link #getCellY(int, int)} las leen sin crear objetos.
+ */
+public final class RotationTable {
+    // Número de estados de rotación
+    public static final int ROTATIONS = 4;
+    // Valor del perfil inferior para las columnas de la caja que la forma no ocupa
+    public static final int EMPTY_COLUMN = Integer.MIN_VALUE;
+
+    // Columnas de las celdas de cada estado de rotación
+    private final int[][] cellX;
+    // Filas de las celdas de cada estado de rotación
+    private final int[][] cellY;
+    // Máscaras de cada estado de rotación
+    private final ShapeMask[] masks;
+    // Perfil inferior de cada estado: fila más baja ocupada en cada columna de la máscara
+    private final int[][] bottomProfiles;
+
+    private RotationTable(Point[][] shapes) {
+        this.cellX = new int[ROTATIONS][];
+        this.cellY = new int[ROTATIONS][];
+        this.masks = new ShapeMask[ROTATIONS];
+        this.bottomProfiles = new int[ROTATIONS][];
+        for (int r = 0; r < ROTATIONS; r++) {
+            cellX[r] = new int[shapes[r].length];
+            cellY[r] = new int[shapes[r].length];
+            for (int i = 0; i < shapes[r].length; i++) {
+                cellX[r][i] = shapes[r][i].x;
+                cellY[r][i] = shapes[r][i].y;
+            }
+            masks[r] = ShapeMask.of(shapes[r]);
+            bottomProfiles[r] = bottomProfile(masks[r]);
+        }
+    }
+
+    /**
+     * Calcula los cuatro estados de rotación de una forma.
+     * La forma gira en sentido horario dentro de una caja cuadrada con origen en (0, 0)
+     * (o en la coordenada mínima si es negativa) y lado suficiente para contenerla,
+     * de modo que la I y la O no se desplazan al rotar.
+     *
+     * @param shape La forma en su estado inicial.
+     * @return La tabla de rotaciones.
+     */
+    public static RotationTable of(Point[] shape) {
+        int minX = 0;
+        int minY = 0;
+        int size = 0;
+        for (Point p : shape) {
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+        }
+        for (Point p : shape) {
+            size = Math.max(size, Math.max(p.x - minX, p.y - minY) + 1);
+        }
+
+        Point[][] shapes = new Point[ROTATIONS][];
+        shapes[0] = copy(shape);
+        for (int r = 1; r < ROTATIONS; r++) {
+            Point[] previous = shapes[r - 1];
+            Point[] rotated = new Point[previous.length];
+            for (int i = 0; i < previous.length; i++) {
+                // Rotar 90 grados en sentido horario dentro de la caja (x' = n - 1 - y, y' = x)
+                int x = previous[i].x - minX;
+                int y = previous[i].y - minY;
+                rotated[i] = new Point(minX + size - 1 - y, minY + x);
+            }
+            shapes[r] = rotated;
+        }
+        return new RotationTable(shapes);
+    }
+
+    /**
+     * Devuelve los puntos de un estado de rotación.
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @return Una copia de los puntos del estado.
+     */
+    public Point[] getShape(int rotation) {
+        Point[] shape = new Point[cellX[rotation].length];
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = new Point(cellX[rotation][i], cellY[rotation][i]);
+        }
+        return shape;
+    }
+
+    /**
+     * Devuelve el número de celdas de la forma.
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @return El número de celdas.
+     */
+    public int getCellCount(int rotation) {
+        return cellX[rotation].length;
+    }
+
+    /**
+     * Devuelve la columna de una celda, relativa a la posición de la pieza.
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @param cell     Índice de la celda, entre 0 y {@link #getCellCount(int)} - 1.
+     * @return La columna de la celda.
+     */
+    public int getCellX(int rotation, int cell) {
+        return cellX[rotation][cell];
+    }
+
+    /**
+     * Devuelve la fila de una celda, relativa a la posición de la pieza.
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @param cell     Índice de la celda, entre 0 y {@link #getCellCount(int)} - 1.
+     * @return La fila de la celda.
+     */
+    public int getCellY(int rotation, int cell) {
+        return cellY[rotation][cell];
+    }
+
+    /**
+     * Devuelve la máscara de un estado de rotación.
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @return La máscara del estado.
+     */
+    public ShapeMask getMask(int rotation) {
+        return masks[rotation];
+    }
+
+    /**
+     * Devuelve el perfil inferior de un estado de rotación.
+     * El elemento i es la fila más baja ocupada, relativa a la posición de la pieza,
+     * en la columna {@code getMask(rotation).getOffsetX() + i}, o {@link #EMPTY_COLUMN} si la columna está vacía.
+     *
+     * @param rotation Índice del estado, entre 0 y 3.
+     * @return El perfil inferior (compartido, no debe modificarse).
+     */
+    public int[] getBottomProfile(int rotation) {
+        return bottomProfiles[rotation];
+    }
+
+    private static Point[] copy(Point[] shape) {
+        Point[] copy = new Point[shape.length];
+        for (int i = 0; i < shape.length; i++) {
+            copy[i] = new Point(shape[i]);
+        }
+        return copy;
+    }
+
+    private static int[] bottomProfile(ShapeMask mask) {
+        int[] profile = new int[mask.getWidth()];
+        Arrays.fill(profile, EMPTY_COLUMN);
+        for (int column = 0; column < profile.length; column++) {
+            for (int row = mask.getHeight() - 1; row >= 0; row--) {
+                if ((mask.getRow(row) & (1 << column)) != 0) {
+                    profile[column] = mask.getOffsetY() + row;
+                    break;
+                }
+            }
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,77 @@
+package cat.uab.tqs.GameStructure;
+
+import java.awt.Point;
+
+/**
+ * Representación de una forma como máscaras de bits por fila.
+ * El bit i de la fila j indica que la celda (offsetX + i, offsetY + j) está ocupada,
+ * relativa a la posición de la pieza. Es inmutable y puede compartirse entre piezas.
+ */
+public final class ShapeMask {
+    // Desplazamiento de la columna 0 de la máscara respecto a la posición de la pieza
+    private final int offsetX;
+    // Desplazamiento de la fila 0 de la máscara respecto a la posición de la pieza
+    private final int offsetY;
+    // Número de columnas que ocupa la forma
+    private final int width;
+    // Máscaras de cada fila de la forma
+    private final int[] rows;
+
+    private ShapeMask(int offsetX, int offsetY, int width, int[] rows) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.width = width;
+        this.rows = rows;
+    }
+
+    /**
+     * Calcula la máscara de una forma dada como lista de puntos.
+     * @param shape La forma de la pieza.
+     * @return La máscara equivalente.
+     */
+    public static ShapeMask of(Point[] shape) {
+        if (shape.length == 0) {
+            return new ShapeMask(0, 0, 0, new int[0]);
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Point p : shape) {
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+        }
+        int[] rows = new int[maxY - minY + 1];
+        for (Point p : shape) {
+            rows[p.y - minY] |= 1 << (p.x - minX);
+        }
+        return new ShapeMask(minX, minY, maxX - minX + 1, rows);
+    }
+
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return rows.length;
+    }
+
+    /**
+     * Devuelve la máscara de una fila de la forma.
+     * @param i Índice de la fila, entre 0 y {@link #getHeight()} - 1.
+     * @return La máscara de la fila.
+     */
+    public int getRow(int i) {
+        return rows[i];
+    }
+}
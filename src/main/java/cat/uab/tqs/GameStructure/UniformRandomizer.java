@@ -0,0 +1,63 @@
+package cat.uab.tqs.GameStructure;
+
+import java.util.Random;
+
+/**
+ * Generador uniforme: cada pieza se sortea entre todos los tipos con {@link Random#nextInt(int)}, sin bolsa.
+ * <p>
+ * Antes de cada sorteo vuelve a sembrar el {@link Random} con una mezcla SplitMix64 de su semilla y del
+ * número de piezas sorteadas, así que el estado es sólo ese número y se puede volver a cualquier punto
+ * sin guardar las piezas anteriores. No es seguro entre hilos: cada partida tiene el suyo.
+ */
+public class UniformRandomizer implements Randomizer {
+
+    // Incremento de la semilla en cada paso de SplitMix64
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final Random random;
+    private final long seed;
+    // Piezas sorteadas desde el principio
+    private long drawn = 0;
+
+    /**
+     * Crea un generador que sortea con un {@link Random} concreto y toma de él su semilla.
+     * @param random El generador de números aleatorios.
+     */
+    public UniformRandomizer(Random random) {
+        this.random = random;
+        this.seed = random.nextLong();
+    }
+
+    @Override
+    public int next() {
+        random.setSeed(mix(seed + drawn * GAMMA));
+        drawn++;
+        return random.nextInt(PieceFactory.PIECE_TYPES);
+    }
+
+    /**
+     * Devuelve el número de piezas sorteadas, que basta para repetir las siguientes.
+     */
+    @Override
+    public long getState() {
+        return drawn;
+    }
+
+    @Override
+    public void setState(long state) {
+        if (state < 0) {
+            throw new IllegalArgumentException("Estado negativo: " + state);
+        }
+        drawn = state;
+    }
+
+    /**
+     * Mezcla los bits de un valor con la función de salida de SplitMix64, para que semillas
+     * consecutivas den secuencias de {@link Random} independientes.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
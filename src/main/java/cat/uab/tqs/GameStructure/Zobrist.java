@@ -0,0 +1,72 @@
+package cat.uab.tqs.GameStructure;
+
+import java.util.SplittableRandom;
+
+/**
+ * Claves aleatorias de Zobrist para identificar estados del juego con un hash de 64 bits.
+ * El hash de un tablero es el XOR de las claves de sus celdas ocupadas, de modo que ocupar
+ * o vaciar una celda se refleja con un solo XOR. El color de las celdas no forma parte del hash.
+ * Las claves se generan con una semilla fija para que los hashes sean iguales en todas las ejecuciones.
+ */
+public final class Zobrist {
+    // Semilla fija de las claves
+    private static final long SEED = 0x5DEECE66DL;
+
+    // Clave de cada celda, indexada por [fila][columna]
+    private static final long[][] CELL_KEYS = new long[Board.BOARD_HEIGHT][Board.BOARD_WIDTH];
+    // Clave de cada tipo de pieza y rotación; el índice 0 es para las piezas sin tipo (-1)
+    private static final long[][] PIECE_KEYS = new long[PieceFactory.PIECE_TYPES + 1][RotationTable.ROTATIONS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] row : CELL_KEYS) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = random.nextLong();
+            }
+        }
+        for (long[] type : PIECE_KEYS) {
+            for (int r = 0; r < type.length; r++) {
+                type[r] = random.nextLong();
+            }
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Devuelve la clave de una celda.
+     * @param x Columna de la celda.
+     * @param y Fila de la celda.
+     * @return La clave.
+     */
+    public static long cell(int x, int y) {
+        return CELL_KEYS[y][x];
+    }
+
+    /**
+     * Devuelve el hash de una fila con las celdas indicadas por una máscara.
+     * @param y    Fila.
+     * @param mask Máscara de las celdas ocupadas de la fila.
+     * @return El XOR de las claves de las celdas ocupadas.
+     */
+    public static long row(int y, int mask) {
+        long[] keys = CELL_KEYS[y];
+        long hash = 0;
+        while (mask != 0) {
+            hash ^= keys[Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+
+    /**
+     * Devuelve la clave de una pieza en un estado de rotación.
+     * @param type     Tipo de la pieza, o -1 si no tiene.
+     * @param rotation Estado de rotación.
+     * @return La clave.
+     */
+    public static long piece(int type, int rotation) {
+        return PIECE_KEYS[type + 1][rotation];
+    }
+}
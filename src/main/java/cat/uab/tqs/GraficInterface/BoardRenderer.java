@@ -0,0 +1,142 @@
+package cat.uab.tqs.GraficInterface;
+
+import cat.uab.tqs.GameControl.Frame;
+import cat.uab.tqs.GameStructure.Board;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Dibuja un {@link Frame} de una partida; lo comparten {@link GamePanel} y {@link GameCanvas}.
+ * Sólo lee fotogramas inmutables, así que puede dibujar en otro hilo que el de la lógica sin bloqueos.
+ * Las celdas fijas y la cuadrícula se dibujan en una imagen fuera de pantalla que sólo se rehace
+ * cuando cambia la versión del tablero; en cada fotograma se copia la imagen y se dibuja encima la pieza.
+ * Cada celda se dibuja copiando su imagen de {@link CellSprites}. No es seguro entre hilos.
+ */
+class BoardRenderer {
+
+    private static final Color GRID_COLOR = new Color(50, 50, 50);
+
+    private final int cellSize;
+    private final Color background;
+    private final CellSprites sprites;
+
+    // Capa con la cuadrícula y las celdas fijas, y versión del tablero con la que se dibujó
+    private BufferedImage layer;
+    private long layerVersion = -1;
+
+    /**
+     * Crea el dibujante.
+     * @param cellSize   El lado de cada celda en píxeles.
+     * @param background El color de las celdas vacías.
+     */
+    BoardRenderer(int cellSize, Color background) {
+        this.cellSize = cellSize;
+        this.background = background;
+        this.sprites = new CellSprites(cellSize);
+    }
+
+    /**
+     * Dibuja un fotograma.
+     * @param g      Donde dibujar.
+     * @param config La configuración gráfica del destino, o null si no se conoce.
+     * @param frame  El fotograma.
+     * @return true si se ha rehecho la capa de celdas fijas.
+     */
+    boolean paint(Graphics g, GraphicsConfiguration config, Frame frame) {
+        // Si ha cambiado la pantalla, las imágenes ya no son compatibles y se rehacen
+        if (sprites.validate(config)) {
+            layer = null;
+        }
+        boolean rebuilt = layer == null || layerVersion != frame.getBoardVersion();
+        if (rebuilt) {
+            renderLayer(config, frame);
+            layerVersion = frame.getBoardVersion();
+        }
+        g.drawImage(layer, 0, 0, null);
+        Color color = frame.getPieceColor();
+        for (int i = 0; i < frame.getPieceCellCount(); i++) {
+            drawCell(g, frame.getPieceX(i), frame.getPieceY(i), color);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Calcula la zona en píxeles que ocupa la pieza de un fotograma, incluido el borde de sus celdas.
+     * @param frame El fotograma.
+     * @param into  Donde guardar la zona.
+     */
+    void pieceBounds(Frame frame, Rectangle into) {
+        int count = frame.getPieceCellCount();
+        if (count == 0) {
+            into.setBounds(0, 0, 0, 0);
+            return;
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, frame.getPieceX(i));
+            minY = Math.min(minY, frame.getPieceY(i));
+            maxX = Math.max(maxX, frame.getPieceX(i));
+            maxY = Math.max(maxY, frame.getPieceY(i));
+        }
+        into.setBounds(minX * cellSize, minY * cellSize,
+                (maxX - minX + 1) * cellSize + 1, (maxY - minY + 1) * cellSize + 1);
+    }
+
+    /**
+     * Devuelve el tamaño en píxeles del tablero dibujado, sin el borde exterior.
+     * @return El tamaño.
+     */
+    Dimension getSize() {
+        return new Dimension(Board.BOARD_WIDTH * cellSize, Board.BOARD_HEIGHT * cellSize);
+    }
+
+    int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Dibuja en la capa fuera de pantalla las celdas fijas y la cuadrícula.
+     */
+    private void renderLayer(GraphicsConfiguration config, Frame frame) {
+        int width = Board.BOARD_WIDTH * cellSize + 1;
+        int height = Board.BOARD_HEIGHT * cellSize + 1;
+        if (layer == null) {
+            layer = config != null
+                    ? config.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = layer.createGraphics();
+        try {
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+            for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+                for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+                    Color color = frame.getCell(x, y);
+                    if (color != null) {
+                        drawCell(g, x, y, color);
+                    }
+                }
+            }
+
+            // Líneas de la cuadrícula (opcional)
+            g.setColor(GRID_COLOR);
+            for (int x = 0; x <= Board.BOARD_WIDTH; x++) {
+                g.drawLine(x * cellSize, 0, x * cellSize, Board.BOARD_HEIGHT * cellSize);
+            }
+            for (int y = 0; y <= Board.BOARD_HEIGHT; y++) {
+                g.drawLine(0, y * cellSize, Board.BOARD_WIDTH * cellSize, y * cellSize);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Dibuja una celda individual.
+     */
+    private void drawCell(Graphics g, int x, int y, Color color) {
+        sprites.draw(g, color, x * cellSize, y * cellSize);
+    }
+}
@@ -0,0 +1,97 @@
+package cat.uab.tqs.GraficInterface;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caché de celdas ya dibujadas, una por color, para dibujar cada celda con una sola copia de imagen
+ * en vez de rellenar el cuadrado y trazar su borde.
+ * Las imágenes son compatibles con la configuración gráfica de la pantalla, de modo que Java2D
+ * puede guardarlas en la memoria de vídeo. Si la configuración cambia (por ejemplo, al mover la
+ * ventana a otro monitor), {@link #validate(GraphicsConfiguration)} descarta la caché.
+ */
+public class CellSprites {
+
+    // Color del borde de cada celda
+    static final Color BORDER_COLOR = Color.DARK_GRAY;
+
+    private final int cellSize;
+    private final Map<Color, BufferedImage> sprites = new HashMap<>();
+    private GraphicsConfiguration config;
+
+    /**
+     * Crea una caché vacía.
+     * @param cellSize El lado de cada celda en píxeles, sin contar el borde exterior.
+     */
+    public CellSprites(int cellSize) {
+        if (cellSize < 2) {
+            throw new IllegalArgumentException("Tamaño de celda demasiado pequeño: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Comprueba que la caché corresponde a una configuración gráfica y la vacía si no es así.
+     * @param config La configuración donde se va a dibujar, o null si no se conoce.
+     * @return true si la caché se ha vaciado.
+     */
+    public boolean validate(GraphicsConfiguration config) {
+        if (config == this.config) {
+            return false;
+        }
+        this.config = config;
+        sprites.clear();
+        return true;
+    }
+
+    /**
+     * Dibuja una celda con su borde.
+     * @param g     Donde dibujar.
+     * @param color El color de la celda.
+     * @param px    Coordenada x en píxeles de la esquina superior izquierda.
+     * @param py    Coordenada y en píxeles de la esquina superior izquierda.
+     */
+    public void draw(Graphics g, Color color, int px, int py) {
+        BufferedImage sprite = sprites.get(color);
+        if (sprite == null) {
+            sprite = render(color);
+            sprites.put(color, sprite);
+        }
+        g.drawImage(sprite, px, py, null);
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Devuelve el número de colores con la celda ya dibujada.
+     * @return El tamaño de la caché.
+     */
+    public int size() {
+        return sprites.size();
+    }
+
+    /**
+     * Dibuja una celda: el relleno y el borde, que ocupa un píxel más a la derecha y abajo,
+     * igual que {@link Graphics#drawRect(int, int, int, int)} con el lado de la celda.
+     */
+    private BufferedImage render(Color color) {
+        int side = cellSize + 1;
+        BufferedImage sprite = config != null
+                ? config.createCompatibleImage(side, side, Transparency.OPAQUE)
+                : new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = sprite.createGraphics();
+        try {
+            g.setColor(color);
+            g.fillRect(0, 0, cellSize, cellSize);
+            g.setColor(BORDER_COLOR);
+            g.drawRect(0, 0, cellSize, cellSize);
+        } finally {
+            g.dispose();
+        }
+        return sprite;
+    }
+}
@@ -0,0 +1,115 @@
+package cat.uab.tqs.GraficInterface;
+
+import java.util.Arrays;
+
+/**
+ * Estadísticas de los fotogramas mostrados: fotogramas por segundo, percentiles del tiempo entre
+ * fotogramas y fotogramas perdidos. Guarda los tiempos de los últimos fotogramas en un anillo fijo,
+ * así que registrar un fotograma no crea objetos; los percentiles se calculan con {@link #summarize()}.
+ * No es segura entre hilos: la usa sólo el hilo que dibuja.
+ */
+public class FrameStats {
+
+    private final long expectedNanos;
+    // Últimos tiempos entre fotogramas, en un anillo
+    private final long[] samples;
+    private final long[] sorted;
+    private int count;
+    private int next;
+
+    private long frames;
+    private long dropped;
+
+    // Resultados del último resumen
+    private double fps;
+    private long p50;
+    private long p95;
+    private long p99;
+
+    /**
+     * Crea las estadísticas.
+     * @param expectedNanos Tiempo previsto entre fotogramas; cada intervalo previsto de más
+     *                      que tarda un fotograma cuenta como un fotograma perdido.
+     * @param window        Número de fotogramas recientes que se usan para los percentiles.
+     */
+    public FrameStats(long expectedNanos, int window) {
+        if (expectedNanos <= 0 || window <= 0) {
+            throw new IllegalArgumentException("Intervalo y ventana deben ser positivos");
+        }
+        this.expectedNanos = expectedNanos;
+        this.samples = new long[window];
+        this.sorted = new long[window];
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde el fotograma anterior.
+     * @param frameNanos El tiempo del fotograma en nanosegundos.
+     */
+    public void record(long frameNanos) {
+        samples[next] = frameNanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        frames++;
+        // Intervalos previstos que han pasado sin mostrar fotograma, redondeando al más cercano
+        long missed = (frameNanos + expectedNanos / 2) / expectedNanos - 1;
+        if (missed > 0) {
+            dropped += missed;
+        }
+    }
+
+    /**
+     * Recalcula los fotogramas por segundo y los percentiles con los fotogramas de la ventana.
+     */
+    public void summarize() {
+        if (count == 0) {
+            return;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += sorted[i];
+        }
+        fps = total == 0 ? 0 : count * 1e9 / total;
+        p50 = percentile(0.50);
+        p95 = percentile(0.95);
+        p99 = percentile(0.99);
+    }
+
+    private long percentile(double p) {
+        int index = (int) Math.ceil(p * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public double getFps() {
+        return fps;
+    }
+
+    public long getP50Nanos() {
+        return p50;
+    }
+
+    public long getP95Nanos() {
+        return p95;
+    }
+
+    public long getP99Nanos() {
+        return p99;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.0f FPS  p50 %.1f ms  p95 %.1f ms  p99 %.1f ms  perdidos %d",
+                fps, p50 / 1e6, p95 / 1e6, p99 / 1e6, dropped);
+    }
+}
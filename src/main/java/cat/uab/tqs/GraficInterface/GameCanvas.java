@@ -0,0 +1,217 @@
+package cat.uab.tqs.GraficInterface;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Frame;
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameControl.GameEvents;
+import cat.uab.tqs.GameControl.GameMetrics;
+import cat.uab.tqs.GameControl.Inputs;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Lienzo con dibujo activo: un hilo propio dibuja cada fotograma en un {@link BufferStrategy}
+ * de tres búferes y lo muestra, sin pasar por el repintado de Swing, que agrupa y retrasa fotogramas.
+ * El ritmo lo marca un objetivo de fotogramas por segundo o, si no hay objetivo, la propia
+ * estrategia de búferes, que espera al refresco vertical cuando el sistema lo permite.
+ * Cada fotograma dibuja el último {@link Frame} publicado por la partida, sin bloquearla.
+ * Encima del tablero se muestran las estadísticas de {@link FrameStats}.
+ */
+public class GameCanvas extends Canvas implements Runnable {
+
+    private static final int BUFFERS = 3;
+    // Fotogramas recientes que se usan para los percentiles
+    private static final int STATS_WINDOW = 240;
+    // Cada cuánto se actualiza el texto de las estadísticas
+    private static final long OVERLAY_NANOS = 500_000_000L;
+    private static final Color OVERLAY_COLOR = new Color(255, 255, 255, 200);
+
+    private final Game game;
+    private final BoardRenderer renderer;
+    // Tiempo entre fotogramas que se busca, 0 si no se limita
+    private final long frameNanos;
+    private final FrameStats stats;
+    private volatile boolean running;
+    private Thread thread;
+    private String overlay = "";
+
+    /**
+     * Crea el lienzo.
+     * @param game      La partida que se dibuja.
+     * @param actions   Recibe las acciones del jugador, por ejemplo para el bucle de juego.
+     * @param cellSize  El lado de cada celda en píxeles.
+     * @param targetFps Fotogramas por segundo que se buscan, o 0 para no limitarlos y
+     *                  dejar que el refresco de la pantalla marque el ritmo.
+     */
+    public GameCanvas(Game game, Consumer<Action> actions, int cellSize, int targetFps) {
+        this(game, new Inputs(actions), cellSize, targetFps);
+    }
+
+    /**
+     * Crea el lienzo con su propio manejador de teclado.
+     * @param game      La partida que se dibuja.
+     * @param inputs    El manejador de teclado, por ejemplo uno que encola en el bucle de juego.
+     * @param cellSize  El lado de cada celda en píxeles.
+     * @param targetFps Fotogramas por segundo que se buscan, o 0 para no limitarlos.
+     */
+    public GameCanvas(Game game, Inputs inputs, int cellSize, int targetFps) {
+        this.game = game;
+        this.renderer = new BoardRenderer(cellSize, Color.BLACK);
+        this.frameNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+        this.stats = new FrameStats(frameNanos > 0 ? frameNanos : 1_000_000_000L / refreshRate(), STATS_WINDOW);
+        setPreferredSize(renderer.getSize());
+        setBackground(Color.BLACK);
+        setIgnoreRepaint(true);
+        setFocusable(true);
+        addKeyListener(inputs);
+    }
+
+    /**
+     * Devuelve la frecuencia de refresco de la pantalla principal, o 60 si no se conoce.
+     */
+    private static int refreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 60;
+        }
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode().getRefreshRate();
+        return rate > 0 ? rate : 60;
+    }
+
+    /**
+     * Crea la estrategia de búferes y arranca el hilo de dibujo. El lienzo ya debe estar en una
+     * ventana visible.
+     * @throws IllegalStateException si ya se había arrancado.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("El dibujo ya se ha arrancado");
+        }
+        try {
+            // Se pide volcado por intercambio de páginas, que puede sincronizarse con el refresco
+            createBufferStrategy(BUFFERS, new BufferCapabilities(
+                    new ImageCapabilities(true), new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            createBufferStrategy(BUFFERS);
+        }
+        running = true;
+        thread = new Thread(this, "render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Para el hilo de dibujo y espera a que termine.
+     */
+    public void stop() {
+        running = false;
+        Thread current;
+        synchronized (this) {
+            current = thread;
+        }
+        if (current == null || current == Thread.currentThread()) {
+            return;
+        }
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = getBufferStrategy();
+        long previous = System.nanoTime();
+        long deadline = previous;
+        long overlayAt = previous;
+        while (running) {
+            renderFrame(strategy);
+
+            long now = System.nanoTime();
+            stats.record(now - previous);
+            previous = now;
+            if (now - overlayAt >= OVERLAY_NANOS) {
+                stats.summarize();
+                overlay = stats.toString();
+                overlayAt = now;
+            }
+
+            if (frameNanos > 0) {
+                deadline += frameNanos;
+                long wait = deadline - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    // Si vamos tarde no se intentan recuperar fotogramas de golpe
+                    deadline = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Dibuja y muestra un fotograma, repitiéndolo si el contenido de los búferes se pierde.
+     */
+    private void renderFrame(BufferStrategy strategy) {
+        Frame frame = game.getFrame();
+        if (frame == null) {
+            return;
+        }
+        GameMetrics metrics = game.getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
+        GameEvents.Paint event = GameEvents.isRecording() ? new GameEvents.Paint() : null;
+        if (event != null) {
+            event.begin();
+        }
+        boolean rebuilt = false;
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    rebuilt |= renderer.paint(g, getGraphicsConfiguration(), frame);
+                    drawOverlay(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        if (metrics != null) {
+            metrics.recordPaint(System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.view = "canvas";
+            event.boardVersion = frame.getBoardVersion();
+            event.layerRebuilt = rebuilt;
+            event.commit();
+        }
+    }
+
+    private void drawOverlay(Graphics g) {
+        g.setColor(OVERLAY_COLOR);
+        g.drawString(overlay, 6, 16);
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        // El dibujo lo hace el hilo propio; Swing no debe repintar el lienzo
+    }
+
+    /**
+     * Devuelve las estadísticas de los fotogramas. Sólo deben leerse desde el hilo de dibujo
+     * o cuando está parado.
+     * @return Las estadísticas.
+     */
+    public FrameStats getStats() {
+        return stats;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
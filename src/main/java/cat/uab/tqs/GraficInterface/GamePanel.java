@@ -1,88 +1,142 @@
 package cat.uab.tqs.GraficInterface;
 
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Frame;
 import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameControl.GameEvents;
+import cat.uab.tqs.GameControl.GameMetrics;
 import cat.uab.tqs.GameControl.Inputs;
-import cat.uab.tqs.GameStructure.Board;
-import cat.uab.tqs.GameStructure.Piece;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Consumer;
 
 /**
- * Panel que dibuja el tablero y la pieza actual.
+ * Panel que dibuja el tablero y la pieza actual con un {@link BoardRenderer}.
+ * Dibuja el último {@link Frame} publicado por la partida, sin bloquearla.
+ * Las celdas fijas y la cuadrícula se guardan en una imagen fuera de pantalla que sólo se rehace
+ * cuando cambia la versión del tablero, y {@link #refresh()} sólo pide repintar lo que ha cambiado.
  */
 public class GamePanel extends JPanel {
 
-    private static final int CELL_SIZE = 30; // Tamaño de cada bloque
+    public static final int DEFAULT_CELL_SIZE = 30; // Tamaño de cada bloque por defecto
     private final Game game;
+    private final BoardRenderer renderer;
+    // Si es true no hay bucle de juego que publique fotogramas: las teclas cambian la partida en el
+    // hilo de eventos, el mismo que dibuja, así que el panel publica el fotograma antes de usarlo
+    private final boolean publishesFrames;
 
+    // Estado del último aviso de refresh(): versión del tablero y zona de la pieza
+    private long refreshedVersion = -1;
+    private Rectangle refreshedBounds = new Rectangle();
+    private Rectangle spareBounds = new Rectangle();
+
+    /**
+     * Crea el panel ejecutando las teclas directamente sobre la partida, sin bucle de juego.
+     * El panel publica él mismo el fotograma de la partida cada vez que la dibuja.
+     * @param game La partida que se dibuja.
+     */
     public GamePanel(Game game) {
-        this.game = game;
-        int width = Board.BOARD_WIDTH * CELL_SIZE;
-        int height = Board.BOARD_HEIGHT * CELL_SIZE;
-        setPreferredSize(new Dimension(width, height));
-        setBackground(Color.BLACK);
-        setFocusable(true);
-        requestFocusInWindow(); // pide el foco
-        addKeyListener(new Inputs(game)); // añade el listener de teclas
+        this(game, new Inputs(game), DEFAULT_CELL_SIZE, true);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        drawBoard(g);
-        drawCurrentPiece(g);
+    /**
+     * Crea el panel entregando las acciones del teclado sin ejecutarlas,
+     * por ejemplo a un {@link cat.uab.tqs.GameControl.GameLoop} que las ejecuta en su hilo.
+     * @param game    La partida que se dibuja.
+     * @param actions Recibe las acciones del jugador.
+     */
+    public GamePanel(Game game, Consumer<Action> actions) {
+        this(game, actions, DEFAULT_CELL_SIZE);
     }
 
     /**
-     * Dibuja las celdas fijas del tablero.
+     * Crea el panel con un tamaño de celda concreto, para escalar el tablero.
+     * @param game     La partida que se dibuja.
+     * @param actions  Recibe las acciones del jugador.
+     * @param cellSize El lado de cada celda en píxeles.
      */
-    private void drawBoard(Graphics g) {
-        Color[][] grid = game.getBoard().getGrid();
-        for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
-            for (int x = 0; x < Board.BOARD_WIDTH; x++) {
-                Color color = grid[y][x];
-                if (color != null) {
-                    drawCell(g, x, y, color);
-                }
-            }
-        }
-
-        // Líneas de la cuadrícula (opcional)
-        g.setColor(new Color(50, 50, 50));
-        for (int x = 0; x <= Board.BOARD_WIDTH; x++) {
-            g.drawLine(x * CELL_SIZE, 0, x * CELL_SIZE, Board.BOARD_HEIGHT * CELL_SIZE);
-        }
-        for (int y = 0; y <= Board.BOARD_HEIGHT; y++) {
-            g.drawLine(0, y * CELL_SIZE, Board.BOARD_WIDTH * CELL_SIZE, y * CELL_SIZE);
-        }
+    public GamePanel(Game game, Consumer<Action> actions, int cellSize) {
+        this(game, new Inputs(actions), cellSize);
     }
 
     /**
-     * Dibuja la pieza actual que está cayendo.
+     * Crea el panel con su propio manejador de teclado, por ejemplo uno que encola las teclas
+     * en la {@link cat.uab.tqs.GameControl.InputQueue} del bucle de juego.
+     * @param game     La partida que se dibuja.
+     * @param inputs   El manejador de teclado.
+     * @param cellSize El lado de cada celda en píxeles.
      */
-    private void drawCurrentPiece(Graphics g) {
-        Piece piece = game.getCurrentPiece();
-        if (piece == null) return;
+    public GamePanel(Game game, Inputs inputs, int cellSize) {
+        this(game, inputs, cellSize, false);
+    }
 
-        Point[] shape = piece.getShape();
-        Point position = piece.getPosition();
-        Color color = piece.getColor();
+    private GamePanel(Game game, Inputs inputs, int cellSize, boolean publishesFrames) {
+        this.game = game;
+        this.publishesFrames = publishesFrames;
+        this.renderer = new BoardRenderer(cellSize, Color.BLACK);
+        setPreferredSize(renderer.getSize());
+        setBackground(Color.BLACK);
+        setFocusable(true);
+        requestFocusInWindow(); // pide el foco
+        addKeyListener(inputs); // añade el listener de teclas
+    }
+
+    /**
+     * Pide a Swing que vuelva a dibujar sólo lo que ha cambiado desde el último aviso:
+     * todo el panel si ha cambiado el tablero, o las zonas antigua y nueva de la pieza si sólo se ha movido.
+     * Lo llama el bucle de juego tras cada tick; no debe llamarse desde varios hilos a la vez.
+     */
+    public void refresh() {
+        Frame frame = currentFrame();
+        if (frame == null) {
+            return;
+        }
+        renderer.pieceBounds(frame, spareBounds);
+        if (frame.getBoardVersion() != refreshedVersion) {
+            refreshedVersion = frame.getBoardVersion();
+            repaint();
+        } else if (!spareBounds.equals(refreshedBounds)) {
+            repaint(refreshedBounds);
+            repaint(spareBounds);
+        }
+        Rectangle previous = refreshedBounds;
+        refreshedBounds = spareBounds;
+        spareBounds = previous;
+    }
 
-        for (Point p : shape) {
-            int x = position.x + p.x;
-            int y = position.y + p.y;
-            drawCell(g, x, y, color);
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Frame frame = currentFrame();
+        if (frame != null) {
+            GameMetrics metrics = game.getMetrics();
+            long start = metrics != null ? System.nanoTime() : 0;
+            GameEvents.Paint event = GameEvents.isRecording() ? new GameEvents.Paint() : null;
+            if (event != null) {
+                event.begin();
+            }
+            boolean rebuilt = renderer.paint(g, getGraphicsConfiguration(), frame);
+            if (metrics != null) {
+                metrics.recordPaint(System.nanoTime() - start);
+            }
+            if (event != null && event.shouldCommit()) {
+                event.view = "panel";
+                event.boardVersion = frame.getBoardVersion();
+                event.layerRebuilt = rebuilt;
+                event.commit();
+            }
         }
     }
 
     /**
-     * Dibuja una celda individual.
+     * Devuelve el fotograma que hay que dibujar: el último publicado o, si no hay bucle de juego, uno nuevo.
      */
-    private void drawCell(Graphics g, int x, int y, Color color) {
-        g.setColor(color);
-        g.fillRect(x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-        g.setColor(Color.DARK_GRAY);
-        g.drawRect(x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+    private Frame currentFrame() {
+        return publishesFrames ? game.publishFrame() : game.getFrame();
+    }
+
+    public int getCellSize() {
+        return renderer.getCellSize();
     }
-}
\ No newline at end of file
+}
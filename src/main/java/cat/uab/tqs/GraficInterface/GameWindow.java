@@ -1,19 +1,40 @@
 package cat.uab.tqs.GraficInterface;
 
+import cat.uab.tqs.GameControl.Action;
 import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameControl.GameLoop;
+import cat.uab.tqs.GameControl.GameMetrics;
+import cat.uab.tqs.GameControl.Inputs;
+import cat.uab.tqs.Simulation.Replay;
+import cat.uab.tqs.Simulation.ReplayRecorder;
 
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Ventana principal del juego Tetris.
+ * La lógica avanza en un {@link GameLoop} con su propio hilo; la ventana sólo encola las pulsaciones
+ * y liberaciones de teclas y vuelve a dibujar cuando el bucle avisa.
+ * Graba las acciones del jugador y, si la propiedad {@code tetris.replayDir} indica un directorio,
+ * guarda allí la grabación al terminar la partida para poder reproducirla con {@code --replay}.
+ * La propiedad {@code tetris.cellSize} cambia el tamaño en píxeles de cada celda.
+ * Con {@code tetris.render=active} se dibuja con un {@link GameCanvas} y su propio hilo en vez
+ * del repintado de Swing; {@code tetris.fps} fija los fotogramas por segundo (0 para no limitarlos).
+ * Con {@code tetris.metrics=true} se activan las {@link GameMetrics} de la partida y se publican por JMX.
  */
 public class GameWindow extends JFrame {
 
+    // Sólo se usa uno de los dos: el panel de Swing o el lienzo con dibujo activo
     private final GamePanel gamePanel;
+    private final GameCanvas canvas;
     private final Game game;
-    private Timer timer;
+    private final GameLoop loop;
+    private final ReplayRecorder recorder;
 
     public GameWindow() {
         setTitle("Tetris - Proyecto UAB");
@@ -21,28 +42,80 @@ public class GameWindow extends JFrame {
         setResizable(false);
 
         // Crear el juego y panel gráfico
-        game = new Game();
-        gamePanel = new GamePanel(game);
+        long seed = System.nanoTime();
+        game = new Game(seed);
+        if (Boolean.getBoolean("tetris.metrics")) {
+            GameMetrics metrics = new GameMetrics();
+            metrics.register();
+            game.setMetrics(metrics);
+        }
+        recorder = new ReplayRecorder(seed);
+        loop = new GameLoop(game, new GameLoop.Listener() {
+            @Override
+            public void onAction(long gravityStep, Action action) {
+                recorder.record(gravityStep, action);
+            }
+
+            @Override
+            public void onUpdate() {
+                if (gamePanel != null) {
+                    gamePanel.refresh();
+                }
+            }
+
+            @Override
+            public void onGameOver() {
+                SwingUtilities.invokeLater(() -> {
+                    saveReplay();
+                    showGameOverDialog();
+                });
+            }
+        });
+        int cellSize = Integer.getInteger("tetris.cellSize", GamePanel.DEFAULT_CELL_SIZE);
+        // Las teclas se encolan y el bucle las procesa en su hilo, con sus propias repeticiones
+        Inputs inputs = new Inputs(loop.getInputQueue());
+        Component view;
+        if ("active".equals(System.getProperty("tetris.render"))) {
+            gamePanel = null;
+            canvas = new GameCanvas(game, inputs, cellSize, Integer.getInteger("tetris.fps", 60));
+            view = canvas;
+        } else {
+            gamePanel = new GamePanel(game, inputs, cellSize);
+            canvas = null;
+            view = gamePanel;
+        }
 
         // Configurar panel
-        add(gamePanel);
+        add(view);
 
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
 
-        // Temporizador del bucle principal (baja piezas cada 500 ms)
-        timer = new Timer(500, e -> {
-            if (!game.isGameOver()) {
-                game.moveDown();
-                gamePanel.repaint();
-            } else {
-                timer.stop();
-                showGameOverDialog();
-            }
-        });
-        timer.start();
-        SwingUtilities.invokeLater(gamePanel::requestFocusInWindow);
+        // Bucle principal y, si hay lienzo, dibujo activo, cada uno en su propio hilo
+        if (canvas != null) {
+            canvas.start();
+        }
+        loop.start();
+        SwingUtilities.invokeLater(view::requestFocusInWindow);
+    }
+
+    private void saveReplay() {
+        String dir = System.getProperty("tetris.replayDir");
+        if (dir == null) {
+            return;
+        }
+        Replay replay;
+        synchronized (game) {
+            replay = recorder.finish(game, loop.getGravitySteps());
+        }
+        Path file = Paths.get(dir, "tetris-" + replay.getSeed() + ".replay");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, replay.toBytes());
+        } catch (IOException e) {
+            System.err.println("No se ha podido guardar la grabación en " + file + ": " + e.getMessage());
+        }
     }
 
     private void showGameOverDialog() {
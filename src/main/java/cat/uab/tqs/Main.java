@@ -1,14 +1,96 @@
 package cat.uab.tqs;
 
+import cat.uab.tqs.Bot.BeamSearchBot;
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameControl.RecordingAnalyzer;
 import cat.uab.tqs.GraficInterface.GameWindow;
+import cat.uab.tqs.Simulation.HeadlessSimulation;
+import cat.uab.tqs.Simulation.ParallelSimulationRunner;
+import cat.uab.tqs.Simulation.Replay;
+import cat.uab.tqs.Simulation.ReplayCheck;
+import cat.uab.tqs.Simulation.Replayer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * Punto de entrada del juego Tetris.
+ * <p>
+ * Sin argumentos abre la ventana del juego. Con {@code --headless [partidas] [semilla]}
+ * simula partidas sin interfaz gráfica e imprime el rendimiento y las puntuaciones.
+ * Con {@code --parallel [partidas] [semilla] [hilos]} hace lo mismo repartiendo las partidas
+ * entre todos los núcleos. Con {@code --bot [piezas] [semilla] [haz] [vista previa]} juega una partida con
+ * el jugador automático de búsqueda en haz, mirando las piezas siguientes indicadas, e imprime su rendimiento. Con
+ * {@code --replay-check [partidas] [semilla]} graba partidas, las reproduce y verifica el resultado,
+ * y con {@code --replay fichero} reproduce una partida guardada por la ventana.
+ * Con {@code --archive base [partidas] [semilla]} hace lo mismo guardando las partidas en un archivo en disco.
+ * Con {@code --jfr-report fichero [umbral ms]} resume los ticks lentos de una grabación de JFR hecha con {@code tetris.jfc}.
  */
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+            System.out.println(new HeadlessSimulation().run(games, seed));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--parallel")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            System.out.print(new ParallelSimulationRunner(threads).run(games, seed));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--bot")) {
+            int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+            int beamWidth = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+            Game game = new Game(seed);
+            BeamSearchBot bot = new BeamSearchBot(beamWidth);
+            bot.setLookahead(args.length > 4 ? Integer.parseInt(args[4]) : 0);
+            while (!game.isGameOver() && game.getPiecesPlaced() < pieces && bot.playPiece(game)) {
+                // El bot fija una pieza por iteración
+            }
+            System.out.printf("Piezas: %d, líneas: %d, puntuación: %d%n",
+                    game.getPiecesPlaced(), game.getLinesCleared(), game.getScore());
+            System.out.printf("Piezas/s: %.0f, nodos/s: %.0f%n", bot.getPiecesPerSecond(), bot.getNodesPerSecond());
+            System.out.printf("Transposiciones: aciertos %.1f%%, colisiones %.1f%%%n",
+                    bot.getTranspositionTable().getHitRate() * 100,
+                    bot.getTranspositionTable().getCollisionRate() * 100);
+            System.out.println(bot.getEvaluationCache());
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--replay-check")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+            System.out.print(new ReplayCheck().run(games, seed));
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--archive")) {
+            int games = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 0L;
+            System.out.print(new ReplayCheck().runArchive(Paths.get(args[1]), games, seed));
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--replay")) {
+            Replay replay = Replay.readFrom(ByteBuffer.wrap(Files.readAllBytes(Paths.get(args[1]))));
+            Replayer.Result result = new Replayer().replay(replay);
+            System.out.printf("Semilla: %d, ticks: %d, acciones: %d, puntuación: %d, coincide: %s%n",
+                    replay.getSeed(), result.getTicks(), replay.getEventCount(),
+                    result.getGame().getScore(), result.matches() ? "sí" : "no");
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--jfr-report")) {
+            long threshold = args.length > 2
+                    ? (long) (Double.parseDouble(args[2]) * 1_000_000)
+                    : RecordingAnalyzer.DEFAULT_THRESHOLD_NANOS;
+            System.out.print(new RecordingAnalyzer().analyze(Paths.get(args[1]), threshold));
+            return;
+        }
         // Lanza la ventana principal del juego
         new GameWindow();
     }
 
-}
\ No newline at end of file
+}
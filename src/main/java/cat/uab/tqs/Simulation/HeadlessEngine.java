@@ -0,0 +1,97 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Game;
+
+/**
+ * Motor de simulación sin interfaz gráfica.
+ * Avanza una partida tick a tick a petición del llamante, sin temporizadores
+ * de Swing ni hilo de eventos de AWT, con una semilla fija para las piezas.
+ * Opcionalmente graba las acciones para poder reproducir la partida con {@link Replayer}.
+ */
+public class HeadlessEngine {
+
+    private final Game game;
+    private final long seed;
+    private long ticks = 0;
+    private ReplayRecorder recorder;
+
+    /**
+     * Crea un motor con una partida nueva.
+     * @param seed La semilla del generador de piezas.
+     */
+    public HeadlessEngine(long seed) {
+        this.seed = seed;
+        this.game = new Game(seed);
+    }
+
+    /**
+     * Ejecuta una acción del jugador sin avanzar el tiempo.
+     * @param action La acción a ejecutar.
+     */
+    public void apply(Action action) {
+        if (recorder != null) {
+            recorder.record(ticks, action);
+        }
+        game.perform(action);
+    }
+
+    /**
+     * Empieza a grabar las acciones de la partida. Debe llamarse antes de la primera acción.
+     * @return El grabador.
+     */
+    public ReplayRecorder startRecording() {
+        recorder = new ReplayRecorder(seed);
+        return recorder;
+    }
+
+    /**
+     * Termina la grabación con el estado actual de la partida.
+     * @return La grabación.
+     * @throws IllegalStateException si no se ha empezado a grabar.
+     */
+    public Replay finishRecording() {
+        if (recorder == null) {
+            throw new IllegalStateException("La partida no se está grabando");
+        }
+        return recorder.finish(game, ticks);
+    }
+
+    /**
+     * Avanza un tick: la pieza actual cae una fila (o se fija si no puede).
+     */
+    public void tick() {
+        if (!game.isGameOver()) {
+            game.moveDown();
+            ticks++;
+        }
+    }
+
+    /**
+     * Ejecuta una acción y avanza un tick, como haría la ventana con una tecla
+     * pulsada entre dos pasos del temporizador.
+     * @param action La acción a ejecutar.
+     * @return true si la partida sigue en curso.
+     */
+    public boolean step(Action action) {
+        apply(action);
+        tick();
+        return !game.isGameOver();
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+}
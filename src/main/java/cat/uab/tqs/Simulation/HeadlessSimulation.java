@@ -0,0 +1,65 @@
+package cat.uab.tqs.Simulation;
+
+/**
+ * Ejecuta partidas completas en el motor sin interfaz gráfica.
+ * La partida i usa la semilla {@code seed + i} tanto para las piezas como para la estrategia,
+ * de modo que una misma ejecución siempre produce los mismos resultados.
+ */
+public class HeadlessSimulation {
+
+    // Límite de ticks por partida, para que una estrategia que nunca pierde no bloquee la simulación
+    public static final long DEFAULT_MAX_TICKS = 1_000_000;
+
+    private final long maxTicks;
+
+    public HeadlessSimulation() {
+        this(DEFAULT_MAX_TICKS);
+    }
+
+    public HeadlessSimulation(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Juega una partida hasta que termina o alcanza el límite de ticks.
+     * @param engine El motor con la partida.
+     * @param policy La estrategia que elige las acciones.
+     * @return El número de ticks jugados.
+     */
+    public long play(HeadlessEngine engine, Policy policy) {
+        while (!engine.isGameOver() && engine.getTicks() < maxTicks) {
+            engine.step(policy.nextAction(engine.getGame()));
+        }
+        return engine.getTicks();
+    }
+
+    /**
+     * Juega y graba una partida con una estrategia aleatoria.
+     * @param seed Semilla de las piezas y de la estrategia.
+     * @return La grabación de la partida.
+     */
+    public Replay record(long seed) {
+        HeadlessEngine engine = new HeadlessEngine(seed);
+        engine.startRecording();
+        play(engine, new RandomPolicy(seed));
+        return engine.finishRecording();
+    }
+
+    /**
+     * Juega varias partidas seguidas con estrategias aleatorias.
+     * @param games Número de partidas.
+     * @param seed  Semilla base.
+     * @return Las estadísticas de las partidas.
+     */
+    public SimulationStats run(int games, long seed) {
+        SimulationStats stats = new SimulationStats();
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            HeadlessEngine engine = new HeadlessEngine(seed + i);
+            long ticks = play(engine, new RandomPolicy(seed + i));
+            stats.record(engine.getGame(), ticks);
+        }
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+}
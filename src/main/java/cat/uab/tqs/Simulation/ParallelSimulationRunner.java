@@ -0,0 +1,234 @@
+package cat.uab.tqs.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta partidas independientes en paralelo sobre un {@link ForkJoinPool}.
+ * <p>
+ * El rango de partidas se divide siempre de la misma forma, sin depender del número de hilos,
+ * y cada división parte el {@link SplittableRandom} de su padre. Así cada partida recibe
+ * siempre la misma semilla y los resultados son reproducibles con cualquier paralelismo.
+ * Cada tarea crea su propio motor (tablero y fábrica), y los resultados se agregan con
+ * contadores sin bloqueos.
+ */
+public class ParallelSimulationRunner {
+
+    // Número de partidas a partir del cual una tarea deja de dividirse
+    private static final int LEAF_GAMES = 64;
+
+    private final int parallelism;
+    private final HeadlessSimulation simulation;
+
+    public ParallelSimulationRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelSimulationRunner(int parallelism) {
+        this(parallelism, new HeadlessSimulation());
+    }
+
+    public ParallelSimulationRunner(int parallelism, HeadlessSimulation simulation) {
+        this.parallelism = parallelism;
+        this.simulation = simulation;
+    }
+
+    /**
+     * Juega un número de partidas en paralelo con estrategias aleatorias.
+     * @param games Número de partidas.
+     * @param seed  Semilla maestra.
+     * @return El informe con los resultados globales y por hilo.
+     */
+    public Report run(int games, long seed) {
+        Report report = new Report();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new GamesTask(0, games, new SplittableRandom(seed), report));
+        } finally {
+            pool.shutdown();
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Tarea que juega un rango de partidas, dividiéndolo mientras sea grande.
+     */
+    private final class GamesTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        private final Report report;
+
+        GamesTask(int from, int to, SplittableRandom random, Report report) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+            this.report = report;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_GAMES) {
+                playRange();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            // La mitad derecha recibe un generador partido antes de que la izquierda use el suyo
+            GamesTask right = new GamesTask(middle, to, random.split(), report);
+            GamesTask left = new GamesTask(from, middle, random, report);
+            invokeAll(left, right);
+        }
+
+        private void playRange() {
+            long start = System.nanoTime();
+            long ticks = 0;
+            long pieces = 0;
+            long lines = 0;
+            long score = 0;
+            for (int i = from; i < to; i++) {
+                HeadlessEngine engine = new HeadlessEngine(random.nextLong());
+                long gameTicks = simulation.play(engine, new RandomPolicy(random.nextLong()));
+                int gameScore = engine.getGame().getScore();
+                ticks += gameTicks;
+                pieces += engine.getGame().getPiecesPlaced();
+                lines += engine.getGame().getLinesCleared();
+                score += gameScore;
+                report.minScore.accumulate(gameScore);
+                report.maxScore.accumulate(gameScore);
+            }
+            int games = to - from;
+            report.games.add(games);
+            report.ticks.add(ticks);
+            report.pieces.add(pieces);
+            report.lines.add(lines);
+            report.score.add(score);
+
+            // Cada hilo solo escribe en sus propios contadores
+            WorkerStats worker = report.worker.get();
+            worker.games += games;
+            worker.nanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Contadores de un hilo del pool. Solo los escribe su hilo y se leen después de invoke(),
+     * que establece la relación happens-before con el hilo que lee el informe.
+     */
+    private static final class WorkerStats {
+        private final String name = Thread.currentThread().getName();
+        private long games;
+        private long nanos;
+    }
+
+    /**
+     * Resultados de una ejecución en paralelo.
+     */
+    public static final class Report {
+        private final LongAdder games = new LongAdder();
+        private final LongAdder ticks = new LongAdder();
+        private final LongAdder pieces = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder score = new LongAdder();
+        private final LongAccumulator minScore = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxScore = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        // Contadores por hilo, cada hilo los registra la primera vez que termina una tarea
+        private final ConcurrentLinkedQueue<WorkerStats> workers = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<WorkerStats> worker = ThreadLocal.withInitial(() -> {
+            WorkerStats stats = new WorkerStats();
+            workers.add(stats);
+            return stats;
+        });
+        private List<WorkerStats> workerList;
+        private long elapsedNanos;
+
+        private List<WorkerStats> workerList() {
+            if (workerList == null) {
+                workerList = new ArrayList<>(workers);
+            }
+            return workerList;
+        }
+
+        public long getGames() {
+            return games.sum();
+        }
+
+        public long getTicks() {
+            return ticks.sum();
+        }
+
+        public long getPieces() {
+            return pieces.sum();
+        }
+
+        public long getLines() {
+            return lines.sum();
+        }
+
+        public long getTotalScore() {
+            return score.sum();
+        }
+
+        public long getMinScore() {
+            return getGames() == 0 ? 0 : minScore.get();
+        }
+
+        public long getMaxScore() {
+            return getGames() == 0 ? 0 : maxScore.get();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Número de hilos que han jugado alguna partida.
+         * @return El número de hilos.
+         */
+        public int getWorkers() {
+            return workerList().size();
+        }
+
+        public long getWorkerGames(int worker) {
+            return workerList().get(worker).games;
+        }
+
+        /**
+         * Partidas por segundo de un hilo, contando solo el tiempo que ha estado jugando.
+         * @param worker Índice del hilo, entre 0 y {@link #getWorkers()} - 1.
+         * @return El rendimiento del hilo.
+         */
+        public double getWorkerGamesPerSecond(int worker) {
+            WorkerStats stats = workerList().get(worker);
+            return stats.nanos == 0 ? 0 : stats.games * 1e9 / stats.nanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            long games = getGames();
+            sb.append(String.format("Partidas: %d en %.3f s con %d hilos (%.0f partidas/s, %.0f ticks/s)%n",
+                    games, elapsedNanos / 1e9, getWorkers(), getGamesPerSecond(),
+                    elapsedNanos == 0 ? 0 : getTicks() * 1e9 / elapsedNanos));
+            sb.append(String.format("Piezas: %d, líneas: %d%n", getPieces(), getLines()));
+            sb.append(String.format("Puntuación: media %.1f, mínima %d, máxima %d%n",
+                    games == 0 ? 0 : (double) getTotalScore() / games, getMinScore(), getMaxScore()));
+            for (int i = 0; i < getWorkers(); i++) {
+                sb.append(String.format("  %s: %d partidas, %.0f partidas/s%n",
+                        workerList().get(i).name, getWorkerGames(i), getWorkerGamesPerSecond(i)));
+            }
+            return sb.toString();
+        }
+    }
+}
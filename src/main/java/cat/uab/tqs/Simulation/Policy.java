@@ -0,0 +1,17 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Game;
+
+/**
+ * Estrategia que decide la acción a ejecutar en cada tick de una simulación.
+ */
+public interface Policy {
+
+    /**
+     * Decide la siguiente acción.
+     * @param game La partida en su estado actual.
+     * @return La acción a ejecutar antes del siguiente tick.
+     */
+    Action nextAction(Game game);
+}
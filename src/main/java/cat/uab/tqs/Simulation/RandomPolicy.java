@@ -0,0 +1,26 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estrategia que elige acciones al azar con una semilla fija.
+ * Sirve como jugador de referencia para medir el rendimiento del motor.
+ */
+public class RandomPolicy implements Policy {
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final SplittableRandom random;
+
+    public RandomPolicy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Action nextAction(Game game) {
+        return ACTIONS[random.nextInt(ACTIONS.length)];
+    }
+}
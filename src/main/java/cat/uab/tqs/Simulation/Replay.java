@@ -0,0 +1,166 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Grabación inmutable de una partida: la semilla de las piezas, las acciones del jugador
+ * con el tick en que se ejecutaron y el resultado final con el que verificarla.
+ * <p>
+ * Formato binario (enteros fijos en big-endian, el resto como {@link VarInts}):
+ * <pre>
+ *   int     MAGIC
+ *   long    semilla
+ *   varint  ticks totales
+ *   varint  número de eventos
+ *   varint  tamaño en bytes de los eventos
+ *   bytes   eventos: varint (diferencia de tick con el evento anterior &lt;&lt; 3 | acción)
+ *   long    hash de Zobrist del tablero final
+ *   varint  puntuación, líneas y piezas finales
+ * </pre>
+ * Una partida típica ocupa un byte por acción, ya que casi todas se separan en menos de 16 ticks.
+ */
+public final class Replay {
+
+    // "TRP2": identifica el formato y su versión; desde la 2 la semilla sortea las piezas con bolsa de 7
+    public static final int MAGIC = 0x54525032;
+    // "TRP1": grabaciones con piezas sorteadas de manera uniforme, que ya no se pueden reproducir
+    static final int MAGIC_V1 = 0x54525031;
+    // Bits que ocupa la acción en cada evento
+    static final int ACTION_BITS = 3;
+    static final int ACTION_MASK = (1 << ACTION_BITS) - 1;
+    // Copia única de Action.values(), que crea un array nuevo en cada llamada
+    private static final Action[] ACTIONS = Action.values();
+
+    private final long seed;
+    private final long ticks;
+    private final int eventCount;
+    private final byte[] events;
+    private final long boardHash;
+    private final int score;
+    private final int lines;
+    private final int pieces;
+
+    Replay(long seed, long ticks, int eventCount, byte[] events, long boardHash, int score, int lines, int pieces) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.eventCount = eventCount;
+        this.events = events;
+        this.boardHash = boardHash;
+        this.score = score;
+        this.lines = lines;
+        this.pieces = pieces;
+    }
+
+    /**
+     * Bytes que ocupa la grabación codificada.
+     * @return El tamaño en bytes.
+     */
+    public int encodedSize() {
+        return Integer.BYTES + Long.BYTES + VarInts.size(ticks) + VarInts.size(eventCount)
+                + VarInts.size(events.length) + events.length + Long.BYTES
+                + VarInts.size(score) + VarInts.size(lines) + VarInts.size(pieces);
+    }
+
+    /**
+     * Escribe la grabación codificada en un buffer, avanzando su posición.
+     * @param out El buffer de destino, con al menos {@link #encodedSize()} bytes libres.
+     */
+    public void writeTo(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.putLong(seed);
+        VarInts.write(ticks, out);
+        VarInts.write(eventCount, out);
+        VarInts.write(events.length, out);
+        out.put(events);
+        out.putLong(boardHash);
+        VarInts.write(score, out);
+        VarInts.write(lines, out);
+        VarInts.write(pieces, out);
+    }
+
+    /**
+     * Codifica la grabación en un array nuevo.
+     * @return Los bytes de la grabación.
+     */
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(encodedSize());
+        writeTo(out);
+        return out.array();
+    }
+
+    /**
+     * Lee una grabación codificada, avanzando la posición del buffer.
+     * @param in El buffer de origen.
+     * @return La grabación.
+     * @throws IllegalArgumentException si los datos no empiezan por {@link #MAGIC}.
+     */
+    public static Replay readFrom(ByteBuffer in) {
+        checkMagic(in.getInt());
+        long seed = in.getLong();
+        long ticks = VarInts.read(in);
+        int eventCount = (int) VarInts.read(in);
+        byte[] events = new byte[(int) VarInts.read(in)];
+        in.get(events);
+        long boardHash = in.getLong();
+        int score = (int) VarInts.read(in);
+        int lines = (int) VarInts.read(in);
+        int pieces = (int) VarInts.read(in);
+        return new Replay(seed, ticks, eventCount, events, boardHash, score, lines, pieces);
+    }
+
+    static void checkMagic(int magic) {
+        if (magic == MAGIC_V1) {
+            throw new IllegalArgumentException("Grabación de una versión anterior, con otra secuencia de piezas");
+        }
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("No es una grabación de partida: " + Integer.toHexString(magic));
+        }
+    }
+
+    /**
+     * Decodifica un evento.
+     * @param event El evento codificado.
+     * @return La acción del evento.
+     */
+    static Action actionOf(long event) {
+        return ACTIONS[(int) (event & ACTION_MASK)];
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Devuelve los eventos codificados, sin copiar.
+     * @return Los eventos (no deben modificarse).
+     */
+    byte[] getEvents() {
+        return events;
+    }
+
+    public long getBoardHash() {
+        return boardHash;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+}
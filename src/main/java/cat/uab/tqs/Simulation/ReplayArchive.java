@@ -0,0 +1,127 @@
+package cat.uab.tqs.Simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de grabaciones de solo lectura, proyectado en memoria.
+ * <p>
+ * Un archivo consta de dos ficheros que escribe {@link ReplayArchiveWriter}:
+ * <ul>
+ *   <li>{@code <base>.replays}: las grabaciones codificadas una tras otra, en el formato de {@link Replay}.</li>
+ *   <li>{@code <base>.idx}: un {@code long} big-endian por grabación con la posición donde termina.</li>
+ * </ul>
+ * Ambos se leen a través de un {@link MappedByteBuffer}, así que acceder a la grabación N consiste en
+ * leer su posición en el índice y colocar un buffer en ella, sin copiar bytes ni crear objetos.
+ * Cada hilo debe usar su propia vista, obtenida con {@link #newView()}.
+ */
+public final class ReplayArchive implements Closeable {
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer data;
+    private final LongBuffer ends;
+    private final int count;
+
+    private ReplayArchive(FileChannel dataChannel, FileChannel indexChannel) throws IOException {
+        this.dataChannel = dataChannel;
+        this.indexChannel = indexChannel;
+        long indexSize = indexChannel.size() / Long.BYTES * Long.BYTES;
+        if (indexSize > Integer.MAX_VALUE || dataChannel.size() > Integer.MAX_VALUE) {
+            throw new IOException("El archivo supera los 2 GB que admite una sola proyección");
+        }
+        this.ends = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexSize).asLongBuffer();
+        this.count = ends.limit();
+        long dataSize = count == 0 ? 0 : ends.get(count - 1);
+        if (dataSize > dataChannel.size()) {
+            throw new IOException("El índice apunta más allá del final de los datos: " + dataSize);
+        }
+        this.data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+    }
+
+    /**
+     * Abre un archivo para leerlo.
+     * @param base Ruta base del archivo, sin extensión.
+     * @return El archivo abierto.
+     * @throws IOException si no se pueden abrir o proyectar los ficheros.
+     */
+    public static ReplayArchive open(Path base) throws IOException {
+        FileChannel dataChannel = FileChannel.open(dataPath(base), StandardOpenOption.READ);
+        try {
+            FileChannel indexChannel = FileChannel.open(indexPath(base), StandardOpenOption.READ);
+            try {
+                return new ReplayArchive(dataChannel, indexChannel);
+            } catch (IOException | RuntimeException e) {
+                indexChannel.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            dataChannel.close();
+            throw e;
+        }
+    }
+
+    static Path dataPath(Path base) {
+        return base.resolveSibling(base.getFileName() + ".replays");
+    }
+
+    static Path indexPath(Path base) {
+        return base.resolveSibling(base.getFileName() + ".idx");
+    }
+
+    /**
+     * Número de grabaciones del archivo.
+     * @return El número de grabaciones.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Crea una vista de los datos para un hilo. Las vistas comparten la memoria proyectada.
+     * @return Una vista nueva.
+     */
+    public ByteBuffer newView() {
+        return data.duplicate();
+    }
+
+    /**
+     * Coloca una vista al principio de una grabación, con el límite en su final.
+     * @param view Una vista obtenida con {@link #newView()}.
+     * @param n    Índice de la grabación.
+     * @return La misma vista, lista para leer la grabación.
+     */
+    public ByteBuffer seek(ByteBuffer view, int n) {
+        if (n < 0 || n >= count) {
+            throw new IndexOutOfBoundsException("Grabación " + n + " de " + count);
+        }
+        int start = n == 0 ? 0 : (int) ends.get(n - 1);
+        view.limit((int) ends.get(n));
+        view.position(start);
+        return view;
+    }
+
+    /**
+     * Lee y decodifica una grabación. A diferencia de {@link #seek(ByteBuffer, int)}, crea objetos.
+     * @param n Índice de la grabación.
+     * @return La grabación.
+     */
+    public Replay read(int n) {
+        return Replay.readFrom(seek(newView(), n));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            dataChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+}
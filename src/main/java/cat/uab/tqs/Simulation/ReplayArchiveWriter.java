@@ -0,0 +1,317 @@
+package cat.uab.tqs.Simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe grabaciones al final de un {@link ReplayArchive} con confirmación en grupo.
+ * <p>
+ * {@link #append(Replay)} solo copia la grabación a un lote en memoria y vuelve enseguida.
+ * Un hilo de confirmación escribe el lote completo cada {@code commitInterval} o cuando se llena,
+ * y hace un único {@code fsync} de los datos y otro del índice para todas las grabaciones del lote.
+ * Mientras escribe, los hilos siguen añadiendo grabaciones al otro lote. Solo se espera al disco
+ * cuando los dos lotes están llenos, con {@link #flush()} o al cerrar.
+ * <p>
+ * Los datos se escriben siempre antes que el índice, así que tras un fallo el índice nunca apunta a
+ * datos incompletos. Al abrir un archivo existente se descartan los restos que no llegó a indexar.
+ */
+public class ReplayArchiveWriter implements Closeable {
+
+    public static final int DEFAULT_BATCH_BYTES = 1 << 20;
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 50;
+    // Tamaño mínimo de una grabación codificada, para dimensionar el lote del índice
+    private static final int MIN_RECORD_BYTES = 24;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final long commitIntervalNanos;
+    private final Thread committer;
+
+    // Estado protegido por lock
+    private final Object lock = new Object();
+    private ByteBuffer dataBatch;
+    private ByteBuffer indexBatch;
+    private ByteBuffer spareDataBatch;
+    private ByteBuffer spareIndexBatch;
+    private long batchStartNanos;
+    private boolean commitRequested = false;
+    private boolean closed = false;
+    private IOException failure;
+    private long dataEnd;
+    private long appended;
+    private long durable;
+    private long commits = 0;
+
+    /**
+     * Abre o crea un archivo con los parámetros por defecto.
+     * @param base Ruta base del archivo, sin extensión.
+     * @throws IOException si no se pueden abrir los ficheros.
+     */
+    public ReplayArchiveWriter(Path base) throws IOException {
+        this(base, DEFAULT_BATCH_BYTES, DEFAULT_COMMIT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Abre o crea un archivo.
+     * @param base                 Ruta base del archivo, sin extensión.
+     * @param batchBytes           Tamaño de cada lote en bytes.
+     * @param commitIntervalMillis Tiempo máximo que una grabación espera en el lote antes de escribirse.
+     * @throws IOException si no se pueden abrir los ficheros.
+     */
+    public ReplayArchiveWriter(Path base, int batchBytes, long commitIntervalMillis) throws IOException {
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        this.data = FileChannel.open(ReplayArchive.dataPath(base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(ReplayArchive.indexPath(base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+
+        int indexBytes = (batchBytes / MIN_RECORD_BYTES + 1) * Long.BYTES;
+        dataBatch = ByteBuffer.allocateDirect(batchBytes);
+        spareDataBatch = ByteBuffer.allocateDirect(batchBytes);
+        indexBatch = ByteBuffer.allocateDirect(indexBytes);
+        spareIndexBatch = ByteBuffer.allocateDirect(indexBytes);
+
+        committer = new Thread(this::commitLoop, "replay-archive-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Descarta una entrada del índice escrita a medias y los datos que no llegaron a indexarse.
+     */
+    private void recover() throws IOException {
+        long count = index.size() / Long.BYTES;
+        index.truncate(count * Long.BYTES);
+        dataEnd = 0;
+        if (count > 0) {
+            ByteBuffer last = ByteBuffer.allocate(Long.BYTES);
+            index.read(last, (count - 1) * Long.BYTES);
+            dataEnd = last.flip().getLong();
+        }
+        if (data.size() < dataEnd) {
+            throw new IOException("El índice apunta más allá del final de los datos: " + dataEnd);
+        }
+        data.truncate(dataEnd);
+        data.position(dataEnd);
+        index.position(count * Long.BYTES);
+        appended = count;
+        durable = count;
+    }
+
+    /**
+     * Añade una grabación al archivo. Vuelve en cuanto está en el lote, sin esperar al disco.
+     * @param replay La grabación.
+     * @return El índice de la grabación en el archivo.
+     * @throws IOException si el escritor está cerrado o ha fallado una escritura anterior.
+     */
+    public long append(Replay replay) throws IOException {
+        int size = replay.encodedSize();
+        synchronized (lock) {
+            while (true) {
+                checkUsable();
+                if (dataBatch.remaining() >= size && indexBatch.hasRemaining()) {
+                    break;
+                }
+                if (dataBatch.position() == 0) {
+                    // Grabación mayor que un lote vacío: se le da un lote a su medida
+                    dataBatch = ByteBuffer.allocateDirect(size);
+                    break;
+                }
+                commitRequested = true;
+                lock.notifyAll();
+                awaitCommit();
+            }
+            if (dataBatch.position() == 0) {
+                batchStartNanos = System.nanoTime();
+                lock.notifyAll();
+            }
+            replay.writeTo(dataBatch);
+            dataEnd += size;
+            indexBatch.putLong(dataEnd);
+            return appended++;
+        }
+    }
+
+    /**
+     * Espera a que todas las grabaciones añadidas hasta ahora estén en disco.
+     * @throws IOException si falla la escritura.
+     */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            long target = appended;
+            while (durable < target) {
+                if (failure != null) {
+                    throw failure;
+                }
+                commitRequested = true;
+                lock.notifyAll();
+                awaitCommit();
+            }
+        }
+    }
+
+    /**
+     * Escribe lo pendiente, detiene el hilo de confirmación y cierra los ficheros.
+     * @throws IOException si falla la escritura o el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+            }
+            flush();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                data.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+
+    /** Grabaciones añadidas, incluidas las que ya había en el archivo. */
+    public long getAppended() {
+        synchronized (lock) {
+            return appended;
+        }
+    }
+
+    /** Grabaciones que ya están en disco. */
+    public long getDurable() {
+        synchronized (lock) {
+            return durable;
+        }
+    }
+
+    /** Lotes escritos, cada uno con un único fsync de datos y otro de índice. */
+    public long getCommits() {
+        synchronized (lock) {
+            return commits;
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            ByteBuffer dataToWrite;
+            ByteBuffer indexToWrite;
+            long upTo;
+            synchronized (lock) {
+                while (true) {
+                    boolean pending = dataBatch.position() > 0;
+                    if (pending && (commitRequested || closed || dueNanos() <= 0)) {
+                        break;
+                    }
+                    if (pending) {
+                        waitNanos(dueNanos());
+                    } else if (closed) {
+                        return;
+                    } else {
+                        commitRequested = false; // Nada que escribir
+                        waitForSignal();
+                    }
+                }
+                dataToWrite = dataBatch;
+                indexToWrite = indexBatch;
+                dataBatch = spareDataBatch;
+                indexBatch = spareIndexBatch;
+                upTo = appended;
+                commitRequested = false;
+                lock.notifyAll();
+            }
+
+            IOException error = null;
+            try {
+                writeFully(data, dataToWrite.flip());
+                data.force(false);
+                writeFully(index, indexToWrite.flip());
+                index.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (lock) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = upTo;
+                    commits++;
+                }
+                spareDataBatch = dataToWrite.clear();
+                spareIndexBatch = indexToWrite.clear();
+                lock.notifyAll();
+                if (error != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private long dueNanos() {
+        return batchStartNanos + commitIntervalNanos - System.nanoTime();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("El archivo de grabaciones está cerrado");
+        }
+    }
+
+    /**
+     * Espera, con el cerrojo tomado, a que el hilo de confirmación avise de un cambio.
+     */
+    private void awaitCommit() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando a escribir las grabaciones");
+        }
+    }
+
+    /**
+     * Espera del hilo de confirmación hasta que haya algo que escribir; solo termina al cerrar.
+     */
+    private void waitForSignal() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            // El hilo de confirmación no se interrumpe desde fuera; se sigue esperando
+        }
+    }
+
+    private void waitNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.timedWait(lock, Math.max(1, nanos));
+        } catch (InterruptedException e) {
+            // Igual que en waitForSignal
+        }
+    }
+}
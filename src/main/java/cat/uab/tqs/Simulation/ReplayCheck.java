@@ -0,0 +1,93 @@
+package cat.uab.tqs.Simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Comprobación de regresión con grabaciones: graba partidas con estrategias aleatorias,
+ * las codifica en un único buffer (o en un {@link ReplayArchive} en disco) y las reproduce todas
+ * en paralelo verificando el resultado final.
+ */
+public class ReplayCheck {
+
+    private final HeadlessSimulation simulation = new HeadlessSimulation();
+
+    /**
+     * Graba y reproduce partidas.
+     * @param games Número de partidas.
+     * @param seed  Semilla base; la partida i usa {@code seed + i}.
+     * @return Un resumen con el tamaño de las grabaciones, las discrepancias y la velocidad.
+     */
+    public String run(int games, long seed) {
+        Replay[] replays = new Replay[games];
+        int[] offsets = new int[games + 1];
+        for (int i = 0; i < games; i++) {
+            replays[i] = simulation.record(seed + i);
+            offsets[i + 1] = offsets[i] + replays[i].encodedSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(offsets[games]);
+        for (Replay replay : replays) {
+            replay.writeTo(buffer);
+        }
+
+        long start = System.nanoTime();
+        long mismatches = IntStream.range(0, games).parallel()
+                .filter(i -> !new Replayer().replay(buffer.duplicate().position(offsets[i])).matches())
+                .count();
+        long elapsed = System.nanoTime() - start;
+
+        return String.format("Partidas: %d, bytes: %d (%.1f por partida), discrepancias: %d%n"
+                        + "Reproducción: %.0f ms, %.0f partidas/minuto%n",
+                games, offsets[games], (double) offsets[games] / Math.max(1, games), mismatches,
+                elapsed / 1e6, perMinute(games, elapsed));
+    }
+
+    /**
+     * Graba partidas en paralelo añadiéndolas a un archivo en disco y después las reproduce
+     * todas leyéndolas directamente de la proyección en memoria del archivo.
+     * @param base  Ruta base del archivo; si ya existe, las partidas se añaden al final.
+     * @param games Número de partidas a grabar.
+     * @param seed  Semilla base; la partida i usa {@code seed + i}.
+     * @return Un resumen de la escritura y de la reproducción.
+     * @throws IOException si falla el acceso al archivo.
+     */
+    public String runArchive(Path base, int games, long seed) throws IOException {
+        long writeStart = System.nanoTime();
+        long commits;
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+            IntStream.range(0, games).parallel().forEach(i -> {
+                try {
+                    writer.append(simulation.record(seed + i));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            commits = writer.getCommits();
+        }
+        long writeElapsed = System.nanoTime() - writeStart;
+
+        try (ReplayArchive archive = ReplayArchive.open(base)) {
+            ThreadLocal<ByteBuffer> views = ThreadLocal.withInitial(archive::newView);
+            ThreadLocal<Replayer> replayers = ThreadLocal.withInitial(Replayer::new);
+            long start = System.nanoTime();
+            long mismatches = IntStream.range(0, archive.size()).parallel()
+                    .filter(i -> !replayers.get().replay(archive.seek(views.get(), i)).matches())
+                    .count();
+            long elapsed = System.nanoTime() - start;
+            return String.format("Grabadas: %d en %.0f ms con %d escrituras a disco%n"
+                            + "Archivo: %d partidas, discrepancias: %d%n"
+                            + "Reproducción: %.0f ms, %.0f partidas/minuto%n",
+                    games, writeElapsed / 1e6, commits, archive.size(), mismatches,
+                    elapsed / 1e6, perMinute(archive.size(), elapsed));
+        }
+    }
+
+    private static double perMinute(long games, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : games * (double) TimeUnit.MINUTES.toNanos(1) / elapsedNanos;
+    }
+}
@@ -0,0 +1,72 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameControl.Game;
+
+import java.util.Arrays;
+
+/**
+ * Graba las acciones de una partida en el formato compacto de {@link Replay}.
+ * Los eventos se codifican al grabarlos, así que grabar no crea objetos salvo
+ * cuando el array de eventos tiene que crecer.
+ */
+public class ReplayRecorder {
+
+    // Tamaño inicial del array de eventos
+    private static final int INITIAL_CAPACITY = 256;
+    // Bytes máximos que ocupa un evento codificado
+    private static final int MAX_EVENT_BYTES = 10;
+
+    private final long seed;
+    private byte[] events = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    private int eventCount = 0;
+    private long lastTick = 0;
+
+    /**
+     * Crea un grabador para una partida.
+     * @param seed La semilla del generador de piezas de la partida.
+     */
+    public ReplayRecorder(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Graba una acción. {@link Action#NONE} no cambia la partida y no se graba.
+     * @param tick   El tick en que se ejecuta la acción; no puede ser menor que el de la anterior.
+     * @param action La acción.
+     */
+    public void record(long tick, Action action) {
+        if (action == Action.NONE) {
+            return;
+        }
+        if (tick < lastTick) {
+            throw new IllegalArgumentException("Tick " + tick + " anterior al último grabado: " + lastTick);
+        }
+        if (size + MAX_EVENT_BYTES > events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        size = VarInts.write((tick - lastTick) << Replay.ACTION_BITS | action.ordinal(), events, size);
+        lastTick = tick;
+        eventCount++;
+    }
+
+    /**
+     * Termina la grabación con el estado final de la partida.
+     * @param game  La partida grabada.
+     * @param ticks Los ticks que ha durado.
+     * @return La grabación.
+     */
+    public Replay finish(Game game, long ticks) {
+        return new Replay(seed, ticks, eventCount, Arrays.copyOf(events, size), game.getBoard().getHash(),
+                game.getScore(), game.getLinesCleared(), game.getPiecesPlaced());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+}
@@ -0,0 +1,110 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reproduce partidas grabadas en el motor sin interfaz gráfica, tan rápido como permite la CPU,
+ * y comprueba que terminan exactamente igual que cuando se grabaron.
+ * Los eventos se decodifican directamente del buffer mientras se reproducen, sin crear objetos.
+ */
+public class Replayer {
+
+    /**
+     * Resultado de reproducir una partida.
+     */
+    public static final class Result {
+        private final Game game;
+        private final long ticks;
+        private final boolean matches;
+
+        Result(Game game, long ticks, boolean matches) {
+            this.game = game;
+            this.ticks = ticks;
+            this.matches = matches;
+        }
+
+        /** La partida en su estado final. */
+        public Game getGame() {
+            return game;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        /** Indica si el tablero, la puntuación, las líneas y las piezas coinciden con la grabación. */
+        public boolean matches() {
+            return matches;
+        }
+    }
+
+    /**
+     * Reproduce una grabación.
+     * @param replay La grabación.
+     * @return El resultado de la reproducción.
+     */
+    public Result replay(Replay replay) {
+        ByteBuffer events = ByteBuffer.wrap(replay.getEvents());
+        HeadlessEngine engine = run(replay.getSeed(), replay.getTicks(), replay.getEventCount(), events);
+        return new Result(engine.getGame(), engine.getTicks(), matches(engine,
+                replay.getBoardHash(), replay.getScore(), replay.getLines(), replay.getPieces()));
+    }
+
+    /**
+     * Reproduce una grabación codificada leyéndola directamente del buffer, avanzando su posición.
+     * @param in El buffer, posicionado al principio de la grabación.
+     * @return El resultado de la reproducción.
+     */
+    public Result replay(ByteBuffer in) {
+        Replay.checkMagic(in.getInt());
+        long seed = in.getLong();
+        long ticks = VarInts.read(in);
+        int eventCount = (int) VarInts.read(in);
+        int eventBytes = (int) VarInts.read(in);
+
+        // Los eventos se leen en su sitio y después se salta al resultado final
+        int eventsStart = in.position();
+        HeadlessEngine engine = run(seed, ticks, eventCount, in);
+        in.position(eventsStart + eventBytes);
+
+        long boardHash = in.getLong();
+        int score = (int) VarInts.read(in);
+        int lines = (int) VarInts.read(in);
+        int pieces = (int) VarInts.read(in);
+        return new Result(engine.getGame(), engine.getTicks(), matches(engine, boardHash, score, lines, pieces));
+    }
+
+    /**
+     * Ejecuta los eventos en el mismo orden que el motor al grabarlos: en cada tick, primero
+     * las acciones de ese tick y después la caída de la pieza.
+     */
+    private static HeadlessEngine run(long seed, long ticks, int eventCount, ByteBuffer events) {
+        HeadlessEngine engine = new HeadlessEngine(seed);
+        int remaining = eventCount;
+        long event = remaining > 0 ? VarInts.read(events) : 0;
+        long nextTick = event >>> Replay.ACTION_BITS;
+        while (true) {
+            while (remaining > 0 && nextTick == engine.getTicks()) {
+                engine.apply(Replay.actionOf(event));
+                if (--remaining > 0) {
+                    event = VarInts.read(events);
+                    nextTick += event >>> Replay.ACTION_BITS;
+                }
+            }
+            if (engine.getTicks() >= ticks || engine.isGameOver()) {
+                return engine;
+            }
+            engine.tick();
+        }
+    }
+
+    private static boolean matches(HeadlessEngine engine, long boardHash, int score, int lines, int pieces) {
+        Game game = engine.getGame();
+        return game.getBoard().getHash() == boardHash
+                && game.getScore() == score
+                && game.getLinesCleared() == lines
+                && game.getPiecesPlaced() == pieces;
+    }
+}
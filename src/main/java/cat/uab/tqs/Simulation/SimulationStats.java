@@ -0,0 +1,93 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Game;
+
+/**
+ * Estadísticas acumuladas de un conjunto de partidas simuladas.
+ */
+public class SimulationStats {
+
+    private long games = 0;
+    private long ticks = 0;
+    private long pieces = 0;
+    private long lines = 0;
+    private long totalScore = 0;
+    private int minScore = Integer.MAX_VALUE;
+    private int maxScore = Integer.MIN_VALUE;
+    private long elapsedNanos = 0;
+
+    /**
+     * Añade el resultado de una partida terminada.
+     * @param game  La partida.
+     * @param ticks Los ticks que ha durado.
+     */
+    public void record(Game game, long ticks) {
+        games++;
+        this.ticks += ticks;
+        pieces += game.getPiecesPlaced();
+        lines += game.getLinesCleared();
+        totalScore += game.getScore();
+        minScore = Math.min(minScore, game.getScore());
+        maxScore = Math.max(maxScore, game.getScore());
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getPieces() {
+        return pieces;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public int getMinScore() {
+        return games == 0 ? 0 : minScore;
+    }
+
+    public int getMaxScore() {
+        return games == 0 ? 0 : maxScore;
+    }
+
+    public double getMeanScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Partidas simuladas por segundo de tiempo real.
+     * @return El rendimiento, o 0 si no se ha medido el tiempo.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        return String.format(
+                "Partidas: %d en %.3f s (%.0f partidas/s, %.0f ticks/s)%n"
+                        + "Piezas: %d, líneas: %d%n"
+                        + "Puntuación: media %.1f, mínima %d, máxima %d",
+                games, seconds, getGamesPerSecond(), seconds == 0 ? 0 : ticks / seconds,
+                pieces, lines,
+                getMeanScore(), getMinScore(), getMaxScore());
+    }
+}
@@ -0,0 +1,74 @@
+package cat.uab.tqs.Simulation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificación de enteros sin signo en longitud variable (LEB128): 7 bits por byte,
+ * con el bit alto a 1 si quedan más bytes. Los valores pequeños ocupan un solo byte.
+ */
+public final class VarInts {
+
+    private VarInts() {
+    }
+
+    /**
+     * Devuelve cuántos bytes ocupa un valor codificado.
+     * @param value El valor, tratado como sin signo.
+     * @return El número de bytes, entre 1 y 10.
+     */
+    public static int size(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Escribe un valor en un array.
+     * @param value  El valor, tratado como sin signo.
+     * @param out    El array de destino.
+     * @param offset La posición donde empezar a escribir.
+     * @return La posición siguiente al último byte escrito.
+     */
+    public static int write(long value, byte[] out, int offset) {
+        while ((value & ~0x7FL) != 0) {
+            out[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * Escribe un valor en un buffer, avanzando su posición.
+     * @param value El valor, tratado como sin signo.
+     * @param out   El buffer de destino.
+     */
+    public static void write(long value, ByteBuffer out) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Lee un valor de un buffer, avanzando su posición.
+     * @param in El buffer de origen.
+     * @return El valor leído.
+     * @throws IllegalArgumentException si el valor ocupa más de 10 bytes.
+     */
+    public static long read(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Entero de longitud variable demasiado largo");
+    }
+}
@@ -0,0 +1,127 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link BeamSearchBot}.
+ *
+ * Verifica que el bot completa líneas cuando puede, que juega una partida
+ * larga sin perder y que su decisión no depende del número de hilos.
+ */
+class BeamSearchBotTest {
+
+  /** Posición inicial de las piezas, la misma que usa {@code Piece}. */
+  private static final int SPAWN_X = Board.BOARD_WIDTH / 2 - 1;
+
+  /**
+   * Verifica que, con un hueco de una columna de cuatro filas, el bot coloca la I vertical en él.
+   */
+  @Test
+  void testChoose_FillsWellWithI() {
+    Board board = new Board();
+    for (int y = Board.BOARD_HEIGHT - 4; y < Board.BOARD_HEIGHT; y++) {
+      for (int x = 0; x < Board.BOARD_WIDTH - 1; x++) {
+        board.placePiece(new Point[]{ new Point(0, 0) }, new Point(x, y), Color.GRAY);
+      }
+    }
+    BeamSearchBot bot = new BeamSearchBot(4);
+    Placement placement = bot.choose(board, PieceFactory.getRotationTable(0), SPAWN_X, 0, 0, new int[0]);
+
+    assertNotNull(placement);
+    Board result = new Board(board);
+    result.placePiece(placement.getTable().getShape(placement.getRotation()),
+        new Point(placement.getX(), placement.getY()), Color.CYAN);
+    assertEquals(4, result.clearLines());
+    assertEquals(1, bot.getPieces());
+    assertTrue(bot.getNodes() > 0);
+  }
+
+  /**
+   * Verifica que el bot juega 200 piezas de una partida con semilla sin perder y eliminando líneas.
+   */
+  @Test
+  void testPlayPiece_SurvivesSeededGame() {
+    Game game = new Game(5L);
+    BeamSearchBot bot = new BeamSearchBot(2);
+    while (game.getPiecesPlaced() < 200) {
+      assertTrue(bot.playPiece(game));
+      assertFalse(game.isGameOver());
+    }
+    assertTrue(game.getLinesCleared() > 50);
+    assertTrue(bot.getPiecesPerSecond() > 0);
+    assertTrue(bot.getNodesPerSecond() > 0);
+  }
+
+  /**
+   * Verifica que repetir la búsqueda sobre el mismo tablero reutiliza las expansiones guardadas
+   * sin evaluar más tableros y con la misma decisión.
+   */
+  @Test
+  void testChoose_ReusesCachedExpansions() {
+    Game game = new Game(3L);
+    BeamSearchBot bot = new BeamSearchBot(4);
+    int[] lookahead = { 0, 5 };
+    Placement first = bot.choose(game.getBoard(), game.getCurrentPiece().getRotationTable(), SPAWN_X, 0, 0, lookahead);
+    long nodes = bot.getNodes();
+
+    Placement second = bot.choose(game.getBoard(), game.getCurrentPiece().getRotationTable(), SPAWN_X, 0, 0, lookahead);
+    assertEquals(nodes, bot.getNodes());
+    assertTrue(bot.getEvaluationCache().getHits() > 0);
+    assertEquals(first.getX(), second.getX());
+    assertEquals(first.getY(), second.getY());
+    assertEquals(first.getRotation(), second.getRotation());
+  }
+
+  /**
+   * Verifica que con uno o varios hilos el bot juega exactamente la misma partida.
+   */
+  @Test
+  void testPlayPiece_DeterministicAcrossThreadCounts() {
+    ForkJoinPool single = new ForkJoinPool(1);
+    ForkJoinPool many = new ForkJoinPool(4);
+    try {
+      Game a = new Game(7L);
+      Game b = new Game(7L);
+      BeamSearchBot botA = new BeamSearchBot(3, new BoardEvaluator(), single);
+      BeamSearchBot botB = new BeamSearchBot(3, new BoardEvaluator(), many);
+      for (int i = 0; i < 100; i++) {
+        botA.playPiece(a);
+        botB.playPiece(b);
+      }
+      assertEquals(a.getScore(), b.getScore());
+      assertEquals(a.getLinesCleared(), b.getLinesCleared());
+      for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+        assertEquals(a.getBoard().getRowMask(y), b.getBoard().getRowMask(y));
+      }
+    } finally {
+      single.shutdown();
+      many.shutdown();
+    }
+  }
+
+  /**
+   * Verifica que el bot juega mirando las piezas siguientes sin cambiar la secuencia de la partida.
+   */
+  @Test
+  void testPlayPiece_WithLookahead() {
+    Game game = new Game(5L);
+    BeamSearchBot bot = new BeamSearchBot(2);
+    bot.setLookahead(1);
+    while (game.getPiecesPlaced() < 50) {
+      int next = game.getNextPieceType(0);
+      assertTrue(bot.playPiece(game));
+      assertEquals(next, game.getCurrentPiece().getType());
+    }
+    assertFalse(game.isGameOver());
+    assertThrows(IllegalArgumentException.class, () -> bot.setLookahead(Game.PREVIEW_SIZE + 1));
+  }
+}
@@ -0,0 +1,137 @@
+package cat.uab.tqs.Bot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link EvaluationCache}.
+ *
+ * Verifica los aciertos y fallos, que se respeta el presupuesto de memoria,
+ * la segunda oportunidad del algoritmo CLOCK y el uso desde varios hilos.
+ */
+class EvaluationCacheTest {
+
+  /** Peso de cada valor de prueba, sumando el coste fijo por entrada. */
+  private static final int ENTRY_BYTES = EvaluationCache.ENTRY_OVERHEAD + 4;
+
+  /**
+   * Crea una caché de un solo segmento en la que caben exactamente {@code entries} valores.
+   */
+  private static EvaluationCache<String> cacheFor(int entries) {
+    return new EvaluationCache<>((long) entries * ENTRY_BYTES, value -> 4, 1);
+  }
+
+  /**
+   * Verifica que un valor guardado se encuentra y que los contadores lo reflejan.
+   */
+  @Test
+  void testGet_HitAndMiss() {
+    EvaluationCache<String> cache = cacheFor(4);
+    assertNull(cache.get(1L));
+    cache.put(1L, "uno");
+    assertEquals("uno", cache.get(1L));
+
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(0.5, cache.getHitRate());
+    assertEquals(1, cache.size());
+    assertEquals(ENTRY_BYTES, cache.getWeightedBytes());
+  }
+
+  /**
+   * Verifica que al superar el presupuesto se desaloja y nunca se pasa del límite.
+   */
+  @Test
+  void testPut_RespectsBudget() {
+    EvaluationCache<String> cache = cacheFor(4);
+    for (long key = 0; key < 10; key++) {
+      cache.put(key, "v" + key);
+      assertTrue(cache.getWeightedBytes() <= cache.getByteBudget());
+    }
+    assertEquals(4, cache.size());
+    assertEquals(6, cache.getEvictions());
+  }
+
+  /**
+   * Verifica que una entrada usada desde la última pasada sobrevive al siguiente desalojo.
+   */
+  @Test
+  void testPut_ClockGivesSecondChance() {
+    EvaluationCache<String> cache = cacheFor(3);
+    cache.put(1L, "uno");
+    cache.put(2L, "dos");
+    cache.put(3L, "tres");
+    cache.get(1L);
+
+    cache.put(4L, "cuatro");
+    assertEquals("uno", cache.get(1L));
+    assertNull(cache.get(2L));
+    assertEquals(1, cache.getEvictions());
+  }
+
+  /**
+   * Verifica que un valor más grande que el presupuesto no se guarda.
+   */
+  @Test
+  void testPut_ValueLargerThanBudgetIsIgnored() {
+    EvaluationCache<String> cache = new EvaluationCache<>(100, value -> 1_000, 1);
+    cache.put(1L, "enorme");
+    assertNull(cache.get(1L));
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Verifica que si el valor nuevo de una clave no cabe, el antiguo deja de estar en la caché.
+   */
+  @Test
+  void testPut_ValueLargerThanBudgetDropsOldValue() {
+    EvaluationCache<String> cache = new EvaluationCache<>(2L * ENTRY_BYTES, String::length, 1);
+    cache.put(1L, "uno");
+    cache.put(2L, "dos");
+    cache.put(1L, "x".repeat(3 * ENTRY_BYTES));
+
+    assertNull(cache.get(1L));
+    assertEquals("dos", cache.get(2L));
+    assertEquals(1, cache.size());
+    assertEquals(EvaluationCache.ENTRY_OVERHEAD + 3, cache.getWeightedBytes());
+  }
+
+  /**
+   * Verifica que varios hilos pueden guardar y leer a la vez sin perder el presupuesto
+   * ni devolver valores de otra clave.
+   */
+  @Test
+  void testConcurrentAccess_KeepsBudgetAndValues() throws Exception {
+    EvaluationCache<Long> cache = new EvaluationCache<>(64L * (EvaluationCache.ENTRY_OVERHEAD + 8), value -> 8, 8);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        long base = (long) t << 48;
+        futures.add(executor.submit(() -> {
+          for (long i = 0; i < 10_000; i++) {
+            long key = base + i * 0x9E3779B97F4A7C15L;
+            cache.put(key, key);
+            Long value = cache.get(key);
+            assertTrue(value == null || value == key);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(cache.getWeightedBytes() <= cache.getByteBudget());
+    assertTrue(cache.getEvictions() > 0);
+    assertEquals(40_000, cache.getHits() + cache.getMisses());
+  }
+}
@@ -0,0 +1,106 @@
+package cat.uab.tqs.Bot;
+
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link MoveGenerator}.
+ *
+ * Verifica el número de posiciones finales en un tablero vacío, que todas
+ * sean posiciones de reposo válidas y que solo se incluyan las alcanzables.
+ */
+class MoveGeneratorTest {
+
+  /** Posición inicial de las piezas, la misma que usa {@code Piece}. */
+  private static final int SPAWN_X = Board.BOARD_WIDTH / 2 - 1;
+
+  private Board board;
+  private MoveGenerator generator;
+
+  @BeforeEach
+  void setUp() {
+    board = new Board();
+    generator = new MoveGenerator();
+  }
+
+  /**
+   * Verifica el número de posiciones finales distintas de cada pieza en un tablero vacío.
+   *
+   * @param type Índice de la pieza en la fábrica.
+   * @param expected Número de posiciones esperadas.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 17", // I: 7 horizontales + 10 verticales
+      "1, 34", // J: 8 + 9 + 8 + 9
+      "2, 34", // L
+      "3, 9",  // O: todas las rotaciones ocupan las mismas celdas
+      "4, 17", // S: 8 horizontales + 9 verticales
+      "5, 34", // T
+      "6, 17"  // Z
+  })
+  void testGenerate_EmptyBoardCounts(int type, int expected) {
+    List<Placement> placements = generator.generate(board, PieceFactory.getRotationTable(type), SPAWN_X, 0, 0);
+    assertEquals(expected, placements.size());
+  }
+
+  /**
+   * Verifica que todas las posiciones devueltas son válidas y no pueden bajar más.
+   */
+  @Test
+  void testGenerate_AllPlacementsAreResting() {
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0), new Point(2, 0) },
+        new Point(3, Board.BOARD_HEIGHT - 1), Color.GRAY);
+    for (int type = 0; type < PieceFactory.PIECE_TYPES; type++) {
+      for (Placement p : generator.generate(board, PieceFactory.getRotationTable(type), SPAWN_X, 0, 0)) {
+        assertTrue(board.isValidPosition(p.getMask(), p.getX(), p.getY()), p.toString());
+        assertFalse(board.isValidPosition(p.getMask(), p.getX(), p.getY() + 1), p.toString());
+      }
+    }
+  }
+
+  /**
+   * Verifica que se encuentra una posición bajo un saliente a la que solo se llega
+   * deslizando la pieza, y que no se devuelve una cavidad cerrada.
+   */
+  @Test
+  void testGenerate_SlideUnderOverhangButNotIntoSealedHole() {
+    int bottom = Board.BOARD_HEIGHT - 1;
+    // Techo sobre las columnas 0-2, dejando debajo un hueco de dos filas abierto por la derecha
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0), new Point(2, 0) },
+        new Point(0, bottom - 2), Color.GRAY);
+    // Cavidad cerrada de una celda en (9, bottom)
+    board.placePiece(new Point[]{ new Point(0, 1), new Point(1, 0) }, new Point(8, bottom - 1), Color.GRAY);
+
+    List<Placement> placementsO = generator.generate(board, PieceFactory.getRotationTable(3), SPAWN_X, 0, 0);
+    assertTrue(placementsO.stream().anyMatch(p -> p.getX() == 0 && p.getY() == bottom - 1),
+        "La O debería poder deslizarse bajo el techo");
+
+    for (int type = 0; type < PieceFactory.PIECE_TYPES; type++) {
+      for (Placement p : generator.generate(board, PieceFactory.getRotationTable(type), SPAWN_X, 0, 0)) {
+        for (Point cell : p.getTable().getShape(p.getRotation())) {
+          assertFalse(p.getX() + cell.x == 9 && p.getY() + cell.y == bottom, "La cavidad cerrada no es alcanzable");
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifica que no hay posiciones si el estado inicial ya colisiona.
+   */
+  @Test
+  void testGenerate_InvalidStartReturnsEmpty() {
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(SPAWN_X, 0), Color.GRAY);
+    assertTrue(generator.generate(board, PieceFactory.getRotationTable(3), SPAWN_X, 0, 0).isEmpty());
+  }
+}
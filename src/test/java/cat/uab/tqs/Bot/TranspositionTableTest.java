@@ -0,0 +1,57 @@
+package cat.uab.tqs.Bot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link TranspositionTable}.
+ *
+ * Verifica los aciertos, las sustituciones en la misma entrada y los contadores.
+ */
+class TranspositionTableTest {
+
+  /**
+   * Verifica que la capacidad se redondea a una potencia de 2 y que no se admiten capacidades no positivas.
+   */
+  @Test
+  void testCapacity_RoundedToPowerOfTwo() {
+    assertEquals(8, new TranspositionTable(5).getCapacity());
+    assertEquals(8, new TranspositionTable(8).getCapacity());
+    assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+
+  /**
+   * Verifica que un estado guardado se encuentra y uno no guardado no.
+   */
+  @Test
+  void testGet_HitAndMiss() {
+    TranspositionTable table = new TranspositionTable(16);
+    assertTrue(Double.isNaN(table.get(123L)));
+    table.put(123L, -4.5);
+    assertEquals(-4.5, table.get(123L));
+    assertTrue(Double.isNaN(table.get(124L)));
+
+    assertEquals(3, table.getLookups());
+    assertEquals(1, table.getHits());
+    assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+  }
+
+  /**
+   * Verifica que dos claves de la misma entrada se sustituyen y cuentan como colisiones.
+   */
+  @Test
+  void testPut_SameSlotReplacesAndCountsCollision() {
+    TranspositionTable table = new TranspositionTable(16);
+    long first = 3L;
+    long second = 3L + 16; // Mismos bits bajos: misma entrada
+    table.put(first, 1.0);
+    table.put(second, 2.0);
+    assertEquals(1, table.getCollisions());
+
+    assertTrue(Double.isNaN(table.get(first)));
+    assertEquals(2.0, table.get(second));
+    assertEquals(2, table.getCollisions());
+    assertEquals(1.0, table.getCollisionRate());
+  }
+}
@@ -0,0 +1,151 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link Frame} y su publicación desde {@link Game}.
+ */
+class FrameTest {
+
+  private static int filledCells(Frame frame) {
+    int filled = 0;
+    for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+      for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+        if (frame.getCell(x, y) != null) {
+          filled++;
+        }
+      }
+    }
+    return filled;
+  }
+
+  /**
+   * Verifica que el fotograma recoge la pieza actual y las estadísticas de la partida.
+   */
+  @Test
+  void testPublish_CapturesPieceAndStats() {
+    Game game = new Game(3L);
+    assertNull(game.getFrame());
+    Frame frame = game.publishFrame();
+    assertSame(frame, game.getFrame());
+
+    Piece piece = game.getCurrentPiece();
+    assertEquals(piece.getShape().length, frame.getPieceCellCount());
+    for (int i = 0; i < frame.getPieceCellCount(); i++) {
+      assertEquals(piece.getPosition().x + piece.getShape()[i].x, frame.getPieceX(i));
+      assertEquals(piece.getPosition().y + piece.getShape()[i].y, frame.getPieceY(i));
+    }
+    assertEquals(piece.getColor(), frame.getPieceColor());
+    assertEquals(0, frame.getPiecesPlaced());
+    assertEquals(0, filledCells(frame));
+    assertFalse(frame.isGameOver());
+  }
+
+  /**
+   * Verifica que sin cambios se reutiliza el mismo fotograma y que, si sólo se mueve la pieza,
+   * el nuevo comparte las celdas fijas.
+   */
+  @Test
+  void testPublish_ReusesUnchangedState() {
+    Game game = new Game(4L);
+    Frame first = game.publishFrame();
+    assertSame(first, game.publishFrame());
+
+    game.moveDown();
+    Frame moved = game.publishFrame();
+    assertNotSame(first, moved);
+    assertEquals(first.getBoardVersion(), moved.getBoardVersion());
+    assertEquals(first.getPieceY(0) + 1, moved.getPieceY(0));
+  }
+
+  /**
+   * Verifica que un fotograma ya publicado no cambia aunque la partida siga avanzando.
+   */
+  @Test
+  void testFrame_IsImmutable() {
+    Game game = new Game(5L);
+    Frame before = game.publishFrame();
+    int pieceX = before.getPieceX(0);
+    int pieceY = before.getPieceY(0);
+
+    game.hardDrop();
+    Frame after = game.publishFrame();
+
+    assertEquals(0, filledCells(before));
+    assertEquals(pieceX, before.getPieceX(0));
+    assertEquals(pieceY, before.getPieceY(0));
+    assertEquals(0, before.getPiecesPlaced());
+    assertEquals(4, filledCells(after));
+    assertEquals(1, after.getPiecesPlaced());
+    assertNotEquals(before.getBoardVersion(), after.getBoardVersion());
+  }
+
+  /**
+   * Verifica que un lector en otro hilo nunca ve un fotograma a medio escribir:
+   * las celdas ocupadas siempre cuadran con las piezas fijadas y las líneas borradas.
+   */
+  @Test
+  void testConcurrentReader_NeverSeesTornFrame() throws InterruptedException {
+    Game game = new Game(6L);
+    game.publishFrame();
+    AtomicBoolean done = new AtomicBoolean();
+    Thread writer = new Thread(() -> {
+      int column = 0;
+      while (!game.isGameOver()) {
+        for (int i = 0; i < column; i++) {
+          game.moveLeft();
+          game.publishFrame();
+        }
+        game.hardDrop();
+        game.publishFrame();
+        column = (column + 3) % 5;
+      }
+      done.set(true);
+    });
+    writer.start();
+
+    int consistent = 0;
+    int torn = 0;
+    do {
+      Frame frame = game.getFrame();
+      int expected = 4 * frame.getPiecesPlaced() - Board.BOARD_WIDTH * frame.getLinesCleared();
+      if (filledCells(frame) == expected) {
+        consistent++;
+      } else {
+        torn++;
+      }
+    } while (!done.get());
+    writer.join();
+    assertEquals(0, torn);
+    assertTrue(consistent > 0);
+  }
+
+  /**
+   * Verifica que las celdas guardan el color con el que se fijaron.
+   */
+  @Test
+  void testGetCell_KeepsColors() {
+    Game game = new Game(7L);
+    Color color = game.getCurrentPiece().getColor();
+    game.hardDrop();
+    Frame frame = game.publishFrame();
+    int found = 0;
+    for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+      for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+        if (frame.getCell(x, y) != null) {
+          assertEquals(color, frame.getCell(x, y));
+          assertEquals(game.getBoard().getCell(x, y), frame.getCell(x, y));
+          found++;
+        }
+      }
+    }
+    assertEquals(4, found);
+  }
+}
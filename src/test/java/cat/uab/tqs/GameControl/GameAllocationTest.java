@@ -0,0 +1,256 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.BagRandomizer;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.GameStructure.PieceFactory;
+import cat.uab.tqs.GameStructure.Randomizer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Prueba de asignación de memoria del bucle de juego.
+ *
+ * Utiliza los contadores de bytes asignados por hilo de
+ * {@link com.sun.management.ThreadMXBean} para comprobar que un tick estable
+ * (bajar, mover a izquierda y derecha sin fijar la pieza) no crea ningún objeto.
+ */
+class GameAllocationTest {
+
+  /** Tipo de la pieza I. */
+  private static final int TYPE_I = 0;
+
+  /** Número de partidas medidas tras el calentamiento. */
+  private static final int MEASURED_GAMES = 200;
+
+  /** Formas y posiciones reutilizadas por {@link #fillBottomRowAndClear(Board)}. */
+  private static final Point[] SHAPE_I = { new Point(0, 0), new Point(1, 0), new Point(2, 0), new Point(3, 0) };
+  private static final Point[] SHAPE_PAIR = { new Point(0, 0), new Point(1, 0) };
+  private static final Point[] SHAPE_BLOCK = { new Point(0, 0) };
+  private static final Point ABOVE = new Point(5, Board.BOARD_HEIGHT - 2);
+  private static final Point LEFT = new Point(0, Board.BOARD_HEIGHT - 1);
+  private static final Point MIDDLE = new Point(4, Board.BOARD_HEIGHT - 1);
+  private static final Point RIGHT = new Point(8, Board.BOARD_HEIGHT - 1);
+
+  /**
+   * Ejecuta los movimientos de una pieza recién generada sin llegar a fijarla.
+   * La pieza baja 15 filas, suficiente para cualquier forma en un tablero vacío.
+   */
+  private static void steadyStateTicks(Game game) {
+    for (int i = 0; i < 15; i++) {
+      game.moveLeft();
+      game.moveRight();
+      game.moveRight();
+      game.moveLeft();
+      game.moveDown();
+    }
+  }
+
+  /**
+   * Verifica que los ticks estables asignan cero bytes.
+   *
+   * Las partidas se crean fuera de la ventana de medición, de modo que solo
+   * se cuentan los bytes asignados por los movimientos.
+   */
+  @Test
+  void testSteadyStateTick_AllocatesNothing() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    // Calentamiento: deja que el JIT compile los caminos calientes
+    for (int i = 0; i < 2_000; i++) {
+      steadyStateTicks(new Game());
+    }
+
+    long allocated = 0;
+    for (int i = 0; i < MEASURED_GAMES; i++) {
+      Game game = new Game();
+      long before = threads.getCurrentThreadAllocatedBytes();
+      steadyStateTicks(game);
+      allocated += threads.getCurrentThreadAllocatedBytes() - before;
+      assertFalse(game.isGameOver());
+    }
+
+    assertEquals(0, allocated, "Un tick estable no debería asignar memoria");
+  }
+
+  /**
+   * Verifica que colocar piezas y limpiar líneas en el tablero no asigna memoria.
+   *
+   * Cada iteración llena la fila inferior con dos piezas I y un bloque doble y la elimina,
+   * de modo que la compactación de filas se ejecuta en todas las vueltas.
+   */
+  @Test
+  void testPlaceAndClearLines_AllocatesNothing() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Board board = new Board();
+
+    for (int i = 0; i < 20_000; i++) {
+      fillBottomRowAndClear(board);
+    }
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    int lines = 0;
+    for (int i = 0; i < 1_000; i++) {
+      lines += fillBottomRowAndClear(board);
+    }
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertEquals(1_000, lines);
+    assertEquals(0, allocated, "Colocar y limpiar líneas no debería asignar memoria");
+  }
+
+  /**
+   * Verifica que probar jugadas y deshacerlas con instantáneas reutilizadas no asigna memoria,
+   * tanto en la partida (mover y rotar la pieza) como en el tablero (colocar y limpiar líneas).
+   */
+  @Test
+  void testSnapshotRestore_AllocatesNothing() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Game game = new Game(1L);
+    Game.Snapshot gameSnapshot = new Game.Snapshot();
+    Board board = new Board();
+    Board.Snapshot boardSnapshot = new Board.Snapshot();
+    for (int i = 0; i < 20_000; i++) {
+      tryAndUndo(game, gameSnapshot, board, boardSnapshot);
+    }
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < 1_000; i++) {
+      tryAndUndo(game, gameSnapshot, board, boardSnapshot);
+    }
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertEquals(0, game.getPiecesPlaced());
+    assertEquals(0, board.getAggregateHeight());
+    assertEquals(0, allocated, "Guardar y restaurar instantáneas no debería asignar memoria");
+  }
+
+  private static void tryAndUndo(Game game, Game.Snapshot gameSnapshot, Board board, Board.Snapshot boardSnapshot) {
+    game.snapshot(gameSnapshot);
+    game.rotatePiece();
+    game.moveLeft();
+    game.moveDown();
+    game.restore(gameSnapshot);
+
+    board.snapshot(boardSnapshot);
+    fillBottomRowAndClear(board);
+    board.restore(boardSnapshot);
+  }
+
+  /**
+   * Coloca un bloque encima de la fila inferior, llena esta y la elimina, de modo que
+   * el bloque baja una fila. La siguiente iteración lo cubre al volver a llenar la fila.
+   */
+  private static int fillBottomRowAndClear(Board board) {
+    board.placePiece(SHAPE_BLOCK, ABOVE, Color.RED);
+    board.placePiece(SHAPE_I, LEFT, Color.CYAN);
+    board.placePiece(SHAPE_I, MIDDLE, Color.CYAN);
+    board.placePiece(SHAPE_PAIR, RIGHT, Color.YELLOW);
+    return board.clearLines();
+  }
+
+  /**
+   * Verifica que publicar un fotograma cuando la partida no ha cambiado no asigna memoria:
+   * se compara con el anterior sin crear nada y se devuelve el mismo.
+   */
+  @Test
+  void testPublishUnchangedFrame_AllocatesNothing() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Game game = new Game(4L);
+    game.moveLeft();
+    Frame frame = game.publishFrame();
+    for (int i = 0; i < 20_000; i++) {
+      game.publishFrame();
+    }
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < 1_000; i++) {
+      game.publishFrame();
+    }
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertSame(frame, game.getFrame());
+    assertEquals(0, allocated, "Publicar un fotograma sin cambios no debería asignar memoria");
+  }
+
+  /**
+   * Verifica que fijar piezas y generar las siguientes no asigna memoria en una partida larga:
+   * la partida reutiliza la misma pieza, las formas son compartidas y la cola de piezas
+   * siguientes de la fábrica no crece.
+   *
+   * Cada pieza se sortea con una bolsa de 7, pero todas se convierten en I y se colocan en vertical
+   * en columnas sucesivas, de modo que cada diez piezas se borran cuatro líneas y la partida no termina nunca.
+   */
+  @Test
+  void testLockAndSpawn_AllocatesNothing() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Board board = new Board();
+    BagRandomizer bag = new BagRandomizer(3L);
+    Game game = new Game(board, new PieceFactory(board, new Randomizer() {
+      @Override
+      public int next() {
+        bag.next();
+        return TYPE_I;
+      }
+
+      @Override
+      public long getState() {
+        return bag.getState();
+      }
+
+      @Override
+      public void setState(long state) {
+        bag.setState(state);
+      }
+    }));
+    int[] preview = new int[Game.PREVIEW_SIZE];
+    dropPieces(game, preview, 20_000);
+
+    long before = threads.getCurrentThreadAllocatedBytes();
+    dropPieces(game, preview, 5_000);
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertFalse(game.isGameOver());
+    assertEquals(25_000, game.getPiecesPlaced());
+    assertEquals(10_000, game.getLinesCleared());
+    assertEquals(0, allocated, "Fijar una pieza y generar la siguiente no debería asignar memoria");
+  }
+
+  /**
+   * Coloca piezas I en vertical, cada una en la columna siguiente, consultando la vista previa antes de cada una.
+   */
+  private static void dropPieces(Game game, int[] preview, int pieces) {
+    int offset = PieceFactory.getRotationTable(TYPE_I).getCellX(1, 0);
+    for (int i = 0; i < pieces; i++) {
+      game.getPreview(preview);
+      int column = game.getPiecesPlaced() % Board.BOARD_WIDTH;
+      Piece piece = game.getCurrentPiece();
+      assertTrue(game.placeCurrentPiece(column - offset, piece.getPosition().y, 1));
+    }
+  }
+}
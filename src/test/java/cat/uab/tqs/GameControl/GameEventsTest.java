@@ -0,0 +1,114 @@
+package cat.uab.tqs.GameControl;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Clase de prueba unitaria para {@link GameEvents} y {@link RecordingAnalyzer}.
+ *
+ * Graba con JFR y el perfil {@code tetris.jfc} una partida que avanza tick a tick
+ * y comprueba los eventos grabados y el informe del analizador.
+ */
+class GameEventsTest {
+
+  @TempDir
+  Path dir;
+
+  private static Configuration profile() throws Exception {
+    try (Reader reader = new InputStreamReader(
+        GameEventsTest.class.getResourceAsStream("/tetris.jfc"), StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    }
+  }
+
+  /**
+   * Graba una partida que suelta piezas hasta terminar y devuelve el fichero de la grabación.
+   */
+  private Path recordGame(Game game, GameLoop loop) throws Exception {
+    Path file = dir.resolve("tetris.jfr");
+    try (Recording recording = new Recording(profile())) {
+      recording.start();
+      while (loop.tick()) {
+        loop.submit(Action.HARD_DROP);
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+    return file;
+  }
+
+  /**
+   * Verifica que el perfil activa los eventos de la partida y que se graba uno por tick,
+   * por pieza generada y fijada y por partida terminada, con sus campos.
+   */
+  @Test
+  void testRecording_ContainsGameEvents() throws Exception {
+    assumeTrue(FlightRecorder.isAvailable());
+    assertEquals("true", profile().getSettings().get(GameEvents.TICK + "#enabled"));
+
+    Game game = new Game(12L);
+    GameLoop loop = new GameLoop(game);
+    Path file = recordGame(game, loop);
+
+    Map<String, Integer> counts = new HashMap<>();
+    int lines = 0;
+    for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+      String name = event.getEventType().getName();
+      counts.merge(name, 1, Integer::sum);
+      if (name.equals(GameEvents.PIECE_LOCK)) {
+        lines += event.getInt("linesCleared");
+      }
+      if (name.equals(GameEvents.GAME_OVER)) {
+        assertEquals(game.getPiecesPlaced(), event.getInt("piecesPlaced"));
+      }
+    }
+    assertEquals(loop.getTicks(), (long) counts.get(GameEvents.TICK));
+    assertEquals(game.getPiecesPlaced(), (int) counts.get(GameEvents.PIECE_LOCK));
+    assertEquals(game.getPiecesPlaced(), (int) counts.get(GameEvents.PIECE_SPAWN));
+    assertEquals(1, (int) counts.get(GameEvents.GAME_OVER));
+    assertEquals(game.getLinesCleared(), lines);
+  }
+
+  /**
+   * Verifica que el analizador resume todos los ticks, que sólo marca como anómalos
+   * los que superan el umbral y que relaciona cada uno con los fijados que ocurren dentro.
+   */
+  @Test
+  void testAnalyzer_SummarizesTickOutliers() throws Exception {
+    assumeTrue(FlightRecorder.isAvailable());
+    Game game = new Game(13L);
+    GameLoop loop = new GameLoop(game);
+    Path file = recordGame(game, loop);
+
+    RecordingAnalyzer analyzer = new RecordingAnalyzer();
+    RecordingAnalyzer.Report all = analyzer.analyze(file, 0);
+    assertEquals(loop.getTicks(), all.getTicks());
+    assertEquals(all.getTicks(), all.getOutliers().size());
+    assertTrue(all.getP50Nanos() <= all.getP99Nanos() && all.getP99Nanos() <= all.getMaxNanos());
+    assertTrue(all.getOutliers().get(0).getDurationNanos() >= all.getOutliers().get(1).getDurationNanos());
+    assertTrue(all.getWithGc() + all.getUnexplained() <= all.getTicks());
+    assertEquals(game.getPiecesPlaced(), all.getOutliers().stream()
+        .filter(outlier -> outlier.getCauses().stream().anyMatch(cause -> cause.startsWith("fijado")))
+        .count());
+
+    RecordingAnalyzer.Report none = analyzer.analyze(file, Long.MAX_VALUE);
+    assertEquals(all.getTicks(), none.getTicks());
+    assertTrue(none.getOutliers().isEmpty());
+    assertTrue(none.toString().startsWith("Ticks: " + all.getTicks()));
+  }
+}
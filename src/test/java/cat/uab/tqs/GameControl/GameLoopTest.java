@@ -0,0 +1,242 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.Piece;
+import cat.uab.tqs.Simulation.Replay;
+import cat.uab.tqs.Simulation.ReplayRecorder;
+import cat.uab.tqs.Simulation.Replayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link GameLoop}.
+ *
+ * Las pruebas de gravedad y fijado avanzan el bucle tick a tick sin arrancar su hilo;
+ * las últimas arrancan el hilo para comprobar el ritmo fijo y el final de la partida.
+ */
+class GameLoopTest {
+
+  /**
+   * Verifica que la pieza cae una fila cada vez que pasan los ticks de gravedad del nivel.
+   */
+  @Test
+  void testTick_GravityFollowsLevel() {
+    Game game = new Game(1L);
+    GameLoop loop = new GameLoop(game);
+    int startY = game.getCurrentPiece().getPosition().y;
+
+    int interval = GameLoop.getGravityTicks(game.getLevel());
+    for (int i = 0; i < interval - 1; i++) {
+      assertTrue(loop.tick());
+    }
+    assertEquals(startY, game.getCurrentPiece().getPosition().y);
+    assertEquals(0, loop.getGravitySteps());
+
+    assertTrue(loop.tick());
+    assertEquals(startY + 1, game.getCurrentPiece().getPosition().y);
+    assertEquals(1, loop.getGravitySteps());
+    assertEquals(interval, loop.getTicks());
+  }
+
+  /**
+   * Verifica que la gravedad se acelera con el nivel y nunca baja de un tick por fila.
+   */
+  @Test
+  void testGravityTicks_DecreaseWithLevel() {
+    int previous = Integer.MAX_VALUE;
+    for (int level = 0; level < 40; level++) {
+      int ticks = GameLoop.getGravityTicks(level);
+      assertTrue(ticks >= 1 && ticks <= previous, "Nivel " + level);
+      previous = ticks;
+    }
+    assertEquals(1, GameLoop.getGravityTicks(100));
+  }
+
+  /**
+   * Verifica que una pieza apoyada no se fija hasta que pasa el retardo de fijado.
+   */
+  @Test
+  void testTick_LocksAfterLockDelay() {
+    Game game = new Game(2L);
+    GameLoop loop = new GameLoop(game);
+    game.getCurrentPiece().hardDrop();
+
+    for (int i = 0; i < GameLoop.LOCK_DELAY_TICKS - 1; i++) {
+      loop.tick();
+    }
+    assertEquals(0, game.getPiecesPlaced());
+
+    loop.tick();
+    assertEquals(1, game.getPiecesPlaced());
+  }
+
+  /**
+   * Verifica que mover una pieza apoyada reinicia el retardo de fijado.
+   */
+  @Test
+  void testSubmit_MoveResetsLockDelay() {
+    Game game = new Game(3L);
+    GameLoop loop = new GameLoop(game);
+    Piece piece = game.getCurrentPiece();
+    piece.hardDrop();
+
+    for (int i = 0; i < GameLoop.LOCK_DELAY_TICKS - 5; i++) {
+      loop.tick();
+    }
+    int before = piece.getPosition().x;
+    loop.submit(Action.LEFT);
+    loop.tick();
+    assertEquals(before - 1, piece.getPosition().x);
+
+    for (int i = 0; i < GameLoop.LOCK_DELAY_TICKS - 2; i++) {
+      loop.tick();
+    }
+    assertEquals(0, game.getPiecesPlaced());
+    loop.tick();
+    assertEquals(1, game.getPiecesPlaced());
+  }
+
+  /**
+   * Verifica que las acciones grabadas con las caídas por gravedad como tick
+   * reproducen la partida del bucle con {@link Replayer}.
+   */
+  @Test
+  void testRecordedActions_ReplayMatches() {
+    long seed = 17L;
+    Game game = new Game(seed);
+    ReplayRecorder recorder = new ReplayRecorder(seed);
+    GameLoop loop = new GameLoop(game, new GameLoop.Listener() {
+      @Override
+      public void onAction(long gravityStep, Action action) {
+        recorder.record(gravityStep, action);
+      }
+    });
+
+    Action[] actions = { Action.LEFT, Action.RIGHT, Action.ROTATE, Action.DOWN, Action.HARD_DROP };
+    Random random = new Random(4L);
+    for (int i = 0; i < 20_000 && loop.tick(); i++) {
+      if (random.nextInt(8) == 0) {
+        loop.submit(actions[random.nextInt(actions.length)]);
+      }
+    }
+    assertTrue(game.getPiecesPlaced() > 5);
+
+    Replay replay = recorder.finish(game, loop.getGravitySteps());
+    Replayer.Result result = new Replayer().replay(replay);
+    assertTrue(result.matches());
+    assertEquals(game.getBoard().getHash(), result.getGame().getBoard().getHash());
+  }
+
+  /**
+   * Verifica que el hilo no ejecuta más ticks que el tiempo transcurrido y mide el retraso.
+   */
+  @Test
+  void testStart_RunsAtFixedRate() throws InterruptedException {
+    GameLoop loop = new GameLoop(new Game(5L));
+    long start = System.nanoTime();
+    loop.start();
+    Thread.sleep(200);
+    loop.stop();
+    long elapsed = System.nanoTime() - start;
+
+    assertFalse(loop.isRunning());
+    assertTrue(loop.getTicks() >= 1);
+    assertTrue(loop.getTicks() <= elapsed / GameLoop.TICK_NANOS + 1);
+    assertTrue(loop.getMaxJitterNanos() >= loop.getMeanJitterNanos());
+    assertThrows(IllegalStateException.class, loop::start);
+  }
+
+  /**
+   * Verifica que el bucle avisa una vez del final de la partida y se para.
+   */
+  @Test
+  void testStart_StopsOnGameOver() throws InterruptedException {
+    Game game = new Game(6L);
+    game.setGameOverForTest(true);
+    CountDownLatch over = new CountDownLatch(1);
+    GameLoop loop = new GameLoop(game, new GameLoop.Listener() {
+      @Override
+      public void onGameOver() {
+        over.countDown();
+      }
+    });
+
+    Thread thread = loop.start();
+    assertTrue(over.await(5, TimeUnit.SECONDS));
+    thread.join(5000);
+    assertFalse(thread.isAlive());
+    assertFalse(loop.isRunning());
+  }
+
+  /**
+   * Verifica el desplazamiento automático: un movimiento al pulsar, el siguiente tras el
+   * retardo (DAS) y después uno por periodo (ARR), contados con los instantes de los eventos.
+   */
+  @Test
+  void testAutoShift_RepeatsByEventTimestamps() {
+    Game game = new Game(3L);
+    GameLoop loop = new GameLoop(game);
+    Piece piece = game.getCurrentPiece();
+    int x0 = piece.getPosition().x;
+    long t0 = 5_000_000_000L;
+    long das = GameLoop.DEFAULT_DAS_NANOS;
+    long arr = GameLoop.DEFAULT_ARR_NANOS;
+
+    loop.getInputQueue().offer(Action.LEFT, true, t0);
+    loop.tick(t0);
+    assertEquals(x0 - 1, piece.getPosition().x);
+    loop.tick(t0 + das - 1);
+    assertEquals(x0 - 1, piece.getPosition().x);
+    loop.tick(t0 + das);
+    assertEquals(x0 - 2, piece.getPosition().x);
+    // Las repeticiones que tocaban antes de soltar se ejecutan aunque el tick llegue tarde
+    loop.getInputQueue().offer(Action.LEFT, false, t0 + das + arr + 1);
+    loop.tick(t0 + das + 5 * arr);
+    assertEquals(x0 - 3, piece.getPosition().x);
+  }
+
+  /**
+   * Verifica que sin periodo de repetición la pieza llega hasta la pared tras el retardo.
+   */
+  @Test
+  void testAutoShift_ZeroArrSlidesToWall() {
+    Game game = new Game(4L);
+    GameLoop loop = new GameLoop(game);
+    loop.setAutoShift(GameLoop.DEFAULT_DAS_NANOS, 0);
+    Piece piece = game.getCurrentPiece();
+    long t0 = 1_000L;
+
+    loop.getInputQueue().offer(Action.RIGHT, true, t0);
+    loop.tick(t0);
+    assertTrue(game.getBoard().canMove(piece.getShapeMask(), piece.getPosition(), 1, 0));
+    loop.tick(t0 + GameLoop.DEFAULT_DAS_NANOS);
+    assertFalse(game.getBoard().canMove(piece.getShapeMask(), piece.getPosition(), 1, 0));
+    assertThrows(IllegalArgumentException.class, () -> loop.setAutoShift(-1, 0));
+  }
+
+  /**
+   * Verifica que mantener abajo repite la caída suave y que soltar la detiene.
+   */
+  @Test
+  void testSoftDrop_RepeatsWhileHeld() {
+    Game game = new Game(5L);
+    GameLoop loop = new GameLoop(game);
+    Piece piece = game.getCurrentPiece();
+    int y0 = piece.getPosition().y;
+    long t0 = 0L;
+
+    loop.getInputQueue().offer(Action.DOWN, true, t0);
+    loop.tick(t0);
+    assertEquals(y0 + 1, piece.getPosition().y);
+    loop.tick(t0 + 3 * GameLoop.SOFT_DROP_NANOS);
+    assertEquals(y0 + 4, piece.getPosition().y);
+
+    loop.getInputQueue().offer(Action.DOWN, false, t0 + 3 * GameLoop.SOFT_DROP_NANOS + 1);
+    loop.tick(t0 + 10 * GameLoop.SOFT_DROP_NANOS);
+    assertEquals(y0 + 4, piece.getPosition().y);
+  }
+}
@@ -0,0 +1,139 @@
+package cat.uab.tqs.GameControl;
+
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.awt.Color;
+import java.awt.Point;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de prueba unitaria para {@link GameMetrics} y su registro desde {@link Game} y {@link GameLoop}.
+ */
+class GameMetricsTest {
+
+  /**
+   * Verifica que se cuentan las piezas generadas, las latencias de fijado y la partida terminada.
+   */
+  @Test
+  void testGame_CountsSpawnsLocksAndGameOver() {
+    Game game = new Game(8L);
+    GameMetrics metrics = new GameMetrics();
+    game.setMetrics(metrics);
+    while (!game.isGameOver()) {
+      game.hardDrop();
+    }
+    assertEquals(game.getPiecesPlaced(), metrics.getPiecesSpawned());
+    assertEquals(game.getPiecesPlaced(), metrics.getLockHistogram().getCount());
+    assertEquals(1, metrics.getGameOvers());
+  }
+
+  /**
+   * Verifica que completar la fila inferior cuenta un borrado de una línea.
+   */
+  @Test
+  void testGame_CountsLinesBySize() {
+    Game game = new Game(9L);
+    GameMetrics metrics = new GameMetrics();
+    game.setMetrics(metrics);
+    Board board = game.getBoard();
+
+    // Se rellena la fila inferior salvo las celdas donde caerá la pieza actual
+    Piece piece = game.getCurrentPiece();
+    int state = piece.snapshot();
+    piece.hardDrop();
+    boolean[] landing = new boolean[Board.BOARD_WIDTH];
+    for (Point cell : piece.getShape()) {
+      if (piece.getPosition().y + cell.y == Board.BOARD_HEIGHT - 1) {
+        landing[piece.getPosition().x + cell.x] = true;
+      }
+    }
+    piece.restore(state);
+    for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+      if (!landing[x]) {
+        board.placePiece(new Point[] { new Point(0, 0) }, new Point(x, Board.BOARD_HEIGHT - 1), Color.GRAY);
+      }
+    }
+
+    game.hardDrop();
+    assertEquals(1, game.getLinesCleared());
+    assertEquals(1, metrics.getSingles());
+    assertEquals(0, metrics.getDoubles() + metrics.getTriples() + metrics.getTetrises());
+  }
+
+  /**
+   * Verifica que sólo se cuentan los giros que la pieza rechaza.
+   */
+  @Test
+  void testGame_CountsRejectedRotations() {
+    Game game = new Game(10L);
+    GameMetrics metrics = new GameMetrics();
+    game.setMetrics(metrics);
+    Piece piece = mock(Piece.class);
+    game.setCurrentPieceForTest(piece);
+
+    when(piece.rotate()).thenReturn(false);
+    game.rotatePiece();
+    when(piece.rotate()).thenReturn(true);
+    game.rotatePiece();
+    assertEquals(1, metrics.getRotationsRejected());
+  }
+
+  /**
+   * Verifica que el bucle registra la latencia de cada tick y que sin métricas no registra nada.
+   */
+  @Test
+  void testLoop_RecordsTickLatency() {
+    Game game = new Game(11L);
+    GameMetrics metrics = new GameMetrics();
+    GameLoop loop = new GameLoop(game);
+    loop.tick();
+    game.setMetrics(metrics);
+    for (int i = 0; i < 20; i++) {
+      loop.tick();
+    }
+    assertEquals(20, metrics.getTickHistogram().getCount());
+    assertTrue(metrics.getTickHistogram().getMaxNanos() > 0);
+  }
+
+  /**
+   * Verifica que las métricas registradas en JMX se leen como atributos, con las latencias
+   * como datos compuestos, y que reset borra los contadores.
+   */
+  @Test
+  void testRegister_ExposesAttributesOverJmx() throws Exception {
+    GameMetrics metrics = new GameMetrics();
+    ObjectName name = metrics.register();
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      metrics.pieceSpawned();
+      metrics.linesCleared(4);
+      metrics.recordPaint(2_000);
+      assertEquals(1L, server.getAttribute(name, "PiecesSpawned"));
+      assertEquals(1L, server.getAttribute(name, "Tetrises"));
+      CompositeData paint = (CompositeData) server.getAttribute(name, "PaintLatency");
+      assertEquals(1L, paint.get("count"));
+      assertEquals(2.0, (Double) paint.get("maxMicros"), 1e-9);
+
+      // Registrar otras métricas con el mismo nombre sustituye a las anteriores
+      GameMetrics other = new GameMetrics();
+      other.register();
+      assertEquals(0L, server.getAttribute(name, "PiecesSpawned"));
+
+      other.pieceSpawned();
+      assertEquals(1L, server.getAttribute(name, "PiecesSpawned"));
+      server.invoke(name, "reset", null, null);
+      assertEquals(0, other.getPiecesSpawned());
+      assertEquals(1, metrics.getPiecesSpawned());
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
@@ -152,9 +152,9 @@ class GameTestV1 {
   /**
    * Prueba el método {@link Game#moveDown()} cuando la pieza *puede* moverse.
    *
-   * Se configura el mock de la pieza para devolver `true` en {@link Piece#canMoveDown()}.
+   * Se configura el mock de la pieza para devolver `true` en {@link Piece#tryMoveDown()}.
    * Verifica que:
-   * 1. Se llama a {@link Piece#moveDown()} una vez.
+   * 1. Se llama a {@link Piece#tryMoveDown()} una vez (una sola validación).
    * 2. NO se llama a {@link Board#placePiece(Point[], Point, Color)}
    * (la pieza no se asienta).
    */
@@ -162,38 +162,40 @@ class GameTestV1 {
   void testMoveDown_CanMove() {
     // Given
     game.setCurrentPieceForTest(currentPiece);
-    when(currentPiece.canMoveDown()).thenReturn(true);
+    when(currentPiece.tryMoveDown()).thenReturn(true);
 
     // When
     game.moveDown();
 
     // Then
-    verify(currentPiece, times(1)).moveDown();
+    verify(currentPiece, times(1)).tryMoveDown();
+    verify(currentPiece, never()).canMoveDown();
     verify(board, never()).placePiece(any(), any(), any());
   }
 
   /**
    * Prueba el método {@link Game#moveDown()} cuando la pieza *no puede* moverse (se asienta).
    *
-   * Se configura el mock de la pieza para devolver `false` en {@link Piece#canMoveDown()}.
+   * Se configura el mock de la pieza para devolver `false` en {@link Piece#tryMoveDown()}.
    * Verifica que:
    * 1. Se llama a {@link Board#placePiece(Point[], Point, Color)} una vez (la pieza se asienta).
    * 2. Se llama a {@link Board#clearLines()} una vez.
-   * 3. Se llama a {@code pieceFactory.getNewPiece()} una segunda vez (una en `setUp`, otra para la nueva pieza).
+   * 3. Se llama a {@code pieceFactory.getNewPiece()} en `setUp` y, para la nueva pieza,
+   *    a {@code pieceFactory.getNewPiece(Piece)} con la pieza fijada, que se reutiliza.
    * 4. La pieza actual del juego se actualiza a la nueva pieza mockeada.
    */
   @Test
   void testMoveDown_CannotMove() {
     // Given
     game.setCurrentPieceForTest(currentPiece);
-    when(currentPiece.canMoveDown()).thenReturn(false);
+    when(currentPiece.tryMoveDown()).thenReturn(false);
     when(currentPiece.getShape()).thenReturn(new Point[]{new Point(0, 0)});
     when(currentPiece.getPosition()).thenReturn(new Point(0,0));
     when(currentPiece.getColor()).thenReturn(Color.RED);
 
     Piece newPiece = mock(Piece.class);
     // Re-stub the mock behavior for the spawnNewPiece call inside moveDown
-    when(pieceFactory.getNewPiece()).thenReturn(newPiece);
+    when(pieceFactory.getNewPiece(currentPiece)).thenReturn(newPiece);
     when(board.isValidPosition(any(), any())).thenReturn(true);
 
     // When
@@ -202,8 +204,9 @@ class GameTestV1 {
     // Then
     verify(board, times(1)).placePiece(any(), any(), any());
     verify(board, times(1)).clearLines();
-    // Verify getNewPiece was called once in setUp and once in moveDown
-    verify(pieceFactory, times(2)).getNewPiece();
+    // Verify getNewPiece was called once in setUp and once in moveDown, reusing the locked piece
+    verify(pieceFactory, times(1)).getNewPiece();
+    verify(pieceFactory, times(1)).getNewPiece(currentPiece);
     assertEquals(newPiece, game.getCurrentPiece());
   }
 
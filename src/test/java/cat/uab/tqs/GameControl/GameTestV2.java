@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.awt.*;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -201,11 +202,11 @@ class GameTestV2 {
   void testMoveDown_WhenCanMoveDown() {
     setupGameForMethodTests();
     game.setGameOverForTest(false);
-    when(currentPiece.canMoveDown()).thenReturn(true);
+    when(currentPiece.tryMoveDown()).thenReturn(true);
 
     game.moveDown();
 
-    verify(currentPiece).moveDown();
+    verify(currentPiece).tryMoveDown();
     verify(board, never()).placePiece(any(), any(), any());
   }
 
@@ -239,13 +240,13 @@ class GameTestV2 {
 
     // Arrange: Mock behavior for the moveDown method logic
     game.setGameOverForTest(false);
-    when(currentPiece.canMoveDown()).thenReturn(false); // La pieza toca suelo
+    when(currentPiece.tryMoveDown()).thenReturn(false); // La pieza toca suelo
     when(currentPiece.getShape()).thenReturn(new Point[]{new Point(0, 0)});
     when(currentPiece.getPosition()).thenReturn(new Point(0, 0));
     when(currentPiece.getColor()).thenReturn(Color.BLUE);
 
     Piece newPiece = mock(Piece.class);
-    when(pieceFactory.getNewPiece()).thenReturn(newPiece); // Re-configura para la llamada real
+    when(pieceFactory.getNewPiece(currentPiece)).thenReturn(newPiece); // Re-configura para la llamada real
     when(newPiece.getShape()).thenReturn(new Point[]{new Point(0, 0)});
     when(newPiece.getPosition()).thenReturn(new Point(0,0));
     when(board.isValidPosition(any(), any())).thenReturn(true); // Re-configura para la llamada real
@@ -256,7 +257,7 @@ class GameTestV2 {
     // Assert
     verify(board).placePiece(currentPiece.getShape(), currentPiece.getPosition(), currentPiece.getColor());
     verify(board).clearLines();
-    verify(pieceFactory).getNewPiece(); // Verifica que se llamó una vez (dentro de moveDown)
+    verify(pieceFactory).getNewPiece(currentPiece); // Verifica que se llamó una vez (dentro de moveDown) reutilizando la pieza
     assertEquals(newPiece, game.getCurrentPiece(), "Se debería haber generado una nueva pieza");
   }
 
@@ -271,7 +272,143 @@ class GameTestV2 {
     game.setGameOverForTest(true);
     game.moveDown();
     verify(currentPiece, never()).canMoveDown();
+    verify(currentPiece, never()).tryMoveDown();
     verify(currentPiece, never()).moveDown();
     verify(board, never()).placePiece(any(), any(), any());
   }
-}
\ No newline at end of file
+
+  /**
+   * Prueba las instantáneas de la partida.
+   *
+   * Verifica que, tras jugar varias piezas y restaurar, la partida vuelve a su estado
+   * y que las piezas siguientes son las mismas que se jugaron tras guardar la instantánea.
+   */
+  @Test
+  void testSnapshotRestore_RollsBackAndReplaysSameSequence() {
+    game = new Game(9L);
+    game.moveLeft();
+    Game.Snapshot snapshot = game.snapshot();
+    Piece piece = game.getCurrentPiece();
+    Point position = new Point(piece.getPosition());
+    long key = game.getStateKey();
+
+    int[] firstTypes = new int[10];
+    for (int i = 0; i < firstTypes.length; i++) {
+      firstTypes[i] = game.getCurrentPiece().getType();
+      game.hardDrop();
+    }
+    int score = game.getScore();
+    long boardHash = game.getBoard().getHash();
+
+    game.restore(snapshot);
+    assertSame(piece, game.getCurrentPiece());
+    assertEquals(position, piece.getPosition());
+    assertEquals(key, game.getStateKey());
+    assertEquals(0, game.getPiecesPlaced());
+    assertEquals(0, game.getBoard().getAggregateHeight());
+
+    for (int i = 0; i < firstTypes.length; i++) {
+      assertEquals(firstTypes[i], game.getCurrentPiece().getType());
+      game.hardDrop();
+    }
+    assertEquals(score, game.getScore());
+    assertEquals(boardHash, game.getBoard().getHash());
+  }
+
+  /**
+   * Prueba las instantáneas de una partida cuyas piezas se sortean con un {@link Random}.
+   *
+   * Verifica que se pueden guardar y que, tras restaurar, salen las mismas piezas.
+   */
+  @Test
+  void testSnapshotRestore_RandomBackedGame() {
+    Board realBoard = new Board();
+    game = new Game(realBoard, new PieceFactory(realBoard, new Random(11L)));
+    Game.Snapshot snapshot = game.snapshot();
+
+    int[] types = new int[15];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = game.getCurrentPiece().getType();
+      game.hardDrop();
+    }
+
+    game.restore(snapshot);
+    assertEquals(0, game.getPiecesPlaced());
+    for (int type : types) {
+      assertEquals(type, game.getCurrentPiece().getType());
+      game.hardDrop();
+    }
+  }
+
+  /**
+   * Prueba las instantáneas de una partida que empieza con una pieza de forma personalizada.
+   *
+   * Verifica que la pieza personalizada no se reutiliza para la siguiente y que,
+   * al restaurar, vuelve con su forma en lugar de fallar por no tener tipo.
+   */
+  @Test
+  void testSnapshotRestore_CustomShapePiece() {
+    Board realBoard = new Board();
+    PieceFactory factory = spy(new PieceFactory(realBoard, new Random(12L)));
+    Piece custom = new Piece(new Point[] { new Point(0, 0), new Point(1, 0) }, Color.PINK, realBoard);
+    doReturn(custom).when(factory).getNewPiece();
+    game = new Game(realBoard, factory);
+    Game.Snapshot snapshot = game.snapshot();
+
+    game.hardDrop();
+    assertNotSame(custom, game.getCurrentPiece());
+    assertEquals(-1, custom.getType());
+
+    game.restore(snapshot);
+    assertSame(custom, game.getCurrentPiece());
+    assertEquals(-1, custom.getType());
+    assertEquals(2, custom.getShape().length);
+    assertEquals(0, game.getPiecesPlaced());
+  }
+
+  /**
+   * Prueba la clave de estado de la partida.
+   *
+   * Verifica que la clave cambia al rotar la pieza actual y al fijarla,
+   * y que dos partidas con la misma semilla tienen la misma clave.
+   */
+  @Test
+  void testGetStateKey_TracksBoardAndPiece() {
+    game = new Game(1L);
+    Game same = new Game(1L);
+    long initial = game.getStateKey();
+    assertEquals(initial, same.getStateKey());
+
+    game.rotatePiece();
+    assertNotEquals(initial, game.getStateKey());
+
+    Piece piece = game.getCurrentPiece();
+    assertTrue(game.placeCurrentPiece(piece.getPosition().x, piece.getPosition().y, piece.getRotation()));
+    assertEquals(1, game.getPiecesPlaced());
+    assertNotEquals(0, game.getBoard().getHash());
+  }
+
+  /**
+   * Prueba la vista previa de las piezas siguientes.
+   *
+   * Verifica que consultarla no cambia la partida, que las piezas que salen
+   * después son las que mostraba, en el mismo orden, y que no se puede mirar más allá de la cola.
+   */
+  @Test
+  void testGetPreview_MatchesNextPieces() {
+    game = new Game(2L);
+    int[] preview = game.getPreview(new int[Game.PREVIEW_SIZE]);
+    assertArrayEquals(preview, game.getPreview(new int[Game.PREVIEW_SIZE]));
+    assertEquals(preview[1], game.getNextPieceType(1));
+    assertEquals(0, game.getPiecesPlaced());
+    int last = game.getNextPieceType(Game.PREVIEW_SIZE);
+    assertThrows(IllegalArgumentException.class, () -> game.getNextPieceType(Game.PREVIEW_SIZE + 1));
+
+    for (int type : preview) {
+      game.hardDrop();
+      assertEquals(type, game.getCurrentPiece().getType());
+    }
+    game.hardDrop();
+    assertEquals(last, game.getCurrentPiece().getType());
+  }
+}
@@ -0,0 +1,83 @@
+package cat.uab.tqs.GameControl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link InputQueue}.
+ */
+class InputQueueTest {
+
+  /**
+   * Verifica que los eventos se entregan en orden con su acción, estado e instante,
+   * también al dar varias vueltas al anillo.
+   */
+  @Test
+  void testDrain_DeliversInOrderAcrossWraparound() {
+    InputQueue queue = new InputQueue(4);
+    List<String> seen = new ArrayList<>();
+    for (int round = 0; round < 5; round++) {
+      assertTrue(queue.offer(Action.LEFT, true, round * 10L));
+      assertTrue(queue.offer(Action.LEFT, false, round * 10L + 1));
+      assertTrue(queue.offer(Action.HARD_DROP, true, round * 10L + 2));
+      assertEquals(3, queue.size());
+      assertEquals(3, queue.drain((action, pressed, nanos) -> seen.add(action + ":" + pressed + ":" + nanos)));
+    }
+    assertEquals(15, seen.size());
+    assertEquals("LEFT:true:40", seen.get(12));
+    assertEquals("LEFT:false:41", seen.get(13));
+    assertEquals("HARD_DROP:true:42", seen.get(14));
+    assertEquals(0, queue.size());
+  }
+
+  /**
+   * Verifica que con la cola llena se descartan y cuentan los eventos nuevos.
+   */
+  @Test
+  void testOffer_FullQueueDropsEvents() {
+    InputQueue queue = new InputQueue(2);
+    assertTrue(queue.offer(Action.ROTATE, true, 0));
+    assertTrue(queue.offer(Action.ROTATE, false, 1));
+    assertFalse(queue.offer(Action.DOWN, true, 2));
+    assertEquals(1, queue.getDropped());
+
+    queue.drain((action, pressed, nanos) -> { });
+    assertTrue(queue.offer(Action.DOWN, true, 3));
+    assertThrows(IllegalArgumentException.class, () -> new InputQueue(3));
+  }
+
+  /**
+   * Verifica que un productor y un consumidor en hilos distintos no pierden ni reordenan eventos.
+   */
+  @Test
+  @Timeout(10)
+  void testConcurrentProducerAndConsumer() throws InterruptedException {
+    InputQueue queue = new InputQueue(64);
+    int total = 2_000;
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < total; i++) {
+        while (!queue.offer(Action.RIGHT, (i & 1) == 0, i)) {
+          Thread.onSpinWait();
+        }
+      }
+    });
+    producer.start();
+
+    long[] expected = { 0 };
+    boolean[] ordered = { true };
+    while (expected[0] < total) {
+      queue.drain((action, pressed, nanos) -> {
+        ordered[0] &= nanos == expected[0] && pressed == ((expected[0] & 1) == 0) && action == Action.RIGHT;
+        expected[0]++;
+      });
+    }
+    producer.join();
+    assertTrue(ordered[0]);
+    assertEquals(total, expected[0]);
+  }
+}
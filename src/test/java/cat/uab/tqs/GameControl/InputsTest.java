@@ -6,7 +6,11 @@ import org.mockito.Mockito;
 
 import java.awt.Canvas;
 import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
 
@@ -160,4 +164,107 @@ public class InputsTest {
     verify(game, never()).moveDown();
     verify(game, never()).rotatePiece();
   }
-}
\ No newline at end of file
+
+  /**
+   * Prueba que al presionar la tecla "Flecha Arriba" la pieza caiga hasta el fondo.
+   *
+   * Verifica que:
+   * 1. Se llama a {@link Game#hardDrop()}.
+   * 2. No se ejecutan otros movimientos ni rotaciones.
+   */
+  @Test
+  void testKeyPressedUpHardDrop() {
+    KeyEvent event = new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_UP, KeyEvent.CHAR_UNDEFINED);
+    inputs.keyPressed(event);
+    verify(game).hardDrop();
+    verify(game, never()).moveLeft();
+    verify(game, never()).moveRight();
+    verify(game, never()).moveDown();
+    verify(game, never()).rotatePiece();
+  }
+
+  /**
+   * Prueba que cada tecla reconocida avisa de su acción antes de ejecutarla
+   * y que las teclas sin acción no avisan.
+   */
+  @Test
+  void testKeyPressed_NotifiesListener() {
+    List<Action> actions = new ArrayList<>();
+    inputs = new Inputs(game, actions::add);
+    int[] keys = { KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN, KeyEvent.VK_UP, KeyEvent.VK_SPACE, KeyEvent.VK_A };
+    for (int key : keys) {
+      inputs.keyPressed(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, key, KeyEvent.CHAR_UNDEFINED));
+    }
+    assertEquals(List.of(Action.LEFT, Action.RIGHT, Action.DOWN, Action.HARD_DROP, Action.ROTATE), actions);
+    verify(game).hardDrop();
+  }
+
+  /**
+   * Prueba que el manejador sin partida sólo entrega las acciones, como hace la ventana
+   * para encolarlas en el bucle de juego, sin ejecutar nada sobre la partida.
+   */
+  @Test
+  void testKeyPressed_ActionsOnlyDoesNotTouchGame() {
+    List<Action> actions = new ArrayList<>();
+    inputs = new Inputs(actions::add);
+    inputs.keyPressed(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_SPACE, KeyEvent.CHAR_UNDEFINED));
+    inputs.keyPressed(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_A, KeyEvent.CHAR_UNDEFINED));
+    assertEquals(List.of(Action.ROTATE), actions);
+    Mockito.verifyNoInteractions(game);
+  }
+
+  /**
+   * Prueba que el manejador con cola encola la primera pulsación y la liberación de cada tecla,
+   * ignora las repeticiones automáticas del sistema y no toca ninguna partida.
+   */
+  @Test
+  void testQueue_EnqueuesPressAndReleaseIgnoringOsRepeat() {
+    InputQueue queue = new InputQueue(16);
+    inputs = new Inputs(queue);
+    KeyEvent left = new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED);
+    inputs.keyPressed(left);
+    inputs.keyPressed(left);
+    inputs.keyPressed(left);
+    inputs.keyPressed(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_A, KeyEvent.CHAR_UNDEFINED));
+    inputs.keyReleased(new KeyEvent(canvas, KeyEvent.KEY_RELEASED, System.currentTimeMillis(), 0, KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED));
+    inputs.keyReleased(new KeyEvent(canvas, KeyEvent.KEY_RELEASED, System.currentTimeMillis(), 0, KeyEvent.VK_SPACE, KeyEvent.CHAR_UNDEFINED));
+
+    List<String> events = new ArrayList<>();
+    long[] last = { Long.MIN_VALUE };
+    queue.drain((action, pressed, nanos) -> {
+      events.add(action + ":" + pressed);
+      assertTrue(nanos >= last[0]);
+      last[0] = nanos;
+    });
+    assertEquals(List.of("LEFT:true", "LEFT:false"), events);
+    Mockito.verifyNoInteractions(game);
+  }
+
+  /**
+   * Prueba que con la cola llena de pulsaciones las liberaciones de las teclas pulsadas siguen cabiendo,
+   * y que una pulsación que no cabe no deja la tecla como pulsada: en cuanto hay sitio, se encola.
+   */
+  @Test
+  void testQueue_FullQueueKeepsRoomForReleases() {
+    InputQueue queue = new InputQueue(4);
+    inputs = new Inputs(queue);
+    inputs.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_LEFT));
+    inputs.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_RIGHT));
+    inputs.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_DOWN));
+    inputs.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_LEFT));
+    inputs.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_RIGHT));
+    inputs.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_DOWN));
+    assertEquals(0, queue.remainingCapacity());
+
+    List<String> events = new ArrayList<>();
+    queue.drain((action, pressed, nanos) -> events.add(action + ":" + pressed));
+    inputs.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_DOWN));
+    queue.drain((action, pressed, nanos) -> events.add(action + ":" + pressed));
+    assertEquals(List.of("LEFT:true", "RIGHT:true", "LEFT:false", "RIGHT:false", "DOWN:true"), events);
+    assertEquals(0, queue.getDropped());
+  }
+
+  private KeyEvent key(int id, int keyCode) {
+    return new KeyEvent(canvas, id, System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+  }
+}
@@ -0,0 +1,67 @@
+package cat.uab.tqs.GameControl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+  /**
+   * Verifica que cada valor cae en un cubo cuyo valor más alto está por encima
+   * y a menos de un 3,2 % de él, y que los cubos no se solapan.
+   */
+  @Test
+  void testBuckets_BoundedRelativeError() {
+    int previous = -1;
+    for (long value = 0; value < 1_000_000; value += 1 + value / 50) {
+      int index = LatencyHistogram.indexOf(value);
+      long highest = LatencyHistogram.highestValueIn(index);
+      assertTrue(index >= previous);
+      assertTrue(highest >= value);
+      assertTrue(highest - value <= value / 32, "valor " + value + " en cubo hasta " + highest);
+      assertEquals(index, LatencyHistogram.indexOf(highest));
+      previous = index;
+    }
+    assertEquals(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE),
+        LatencyHistogram.indexOf(LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE))));
+  }
+
+  /**
+   * Verifica los percentiles, la media y el máximo de una distribución conocida.
+   */
+  @Test
+  void testPercentiles_UniformValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    for (int i = 1; i <= 10_000; i++) {
+      histogram.record(i * 1_000L);
+    }
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(5_000_500.0, histogram.getMeanNanos(), 1e-6);
+    assertEquals(10_000_000L, histogram.getMaxNanos());
+    assertEquals(5_000_000.0, histogram.getValueAtPercentile(50), 5_000_000 / 32.0);
+    assertEquals(9_900_000.0, histogram.getValueAtPercentile(99), 9_900_000 / 32.0);
+    assertEquals(10_000_000L, histogram.getValueAtPercentile(100));
+  }
+
+  /**
+   * Verifica que los valores fuera de rango se acotan y que reset borra las muestras.
+   */
+  @Test
+  void testRecord_ClampsAndResets() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE / 2);
+    assertEquals(2, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(Long.MAX_VALUE / 2, histogram.getMaxNanos());
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMaxNanos());
+    assertEquals(0.0, histogram.getMeanNanos());
+  }
+}
@@ -0,0 +1,72 @@
+package cat.uab.tqs.GameStructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link BagRandomizer}.
+ */
+class BagRandomizerTest {
+
+  /**
+   * Verifica que cada grupo de siete piezas contiene los siete tipos una sola vez
+   * y que nunca pasan más de 12 piezas seguidas sin una I.
+   */
+  @Test
+  void testNext_EveryBagIsAPermutation() {
+    BagRandomizer randomizer = new BagRandomizer(21L);
+    int sinceI = 0;
+    for (int bag = 0; bag < 1_000; bag++) {
+      boolean[] seen = new boolean[PieceFactory.PIECE_TYPES];
+      for (int i = 0; i < PieceFactory.PIECE_TYPES; i++) {
+        int type = randomizer.next();
+        assertFalse(seen[type], "tipo repetido en la bolsa " + bag);
+        seen[type] = true;
+        sinceI = type == 0 ? 0 : sinceI + 1;
+        assertTrue(sinceI <= 12);
+      }
+    }
+  }
+
+  /**
+   * Verifica que la misma semilla da la misma secuencia y que semillas distintas la cambian.
+   */
+  @Test
+  void testNext_ReproducibleWithSeed() {
+    BagRandomizer first = new BagRandomizer(5L);
+    BagRandomizer second = new BagRandomizer(5L);
+    BagRandomizer other = new BagRandomizer(6L);
+    boolean differs = false;
+    for (int i = 0; i < 70; i++) {
+      int type = first.next();
+      assertEquals(type, second.next());
+      differs |= type != other.next();
+    }
+    assertTrue(differs);
+  }
+
+  /**
+   * Verifica que al volver a un estado guardado, también a mitad de bolsa,
+   * se repiten los mismos tipos que se sortearon desde él.
+   */
+  @Test
+  void testSetState_RepeatsSequence() {
+    BagRandomizer randomizer = new BagRandomizer(7L);
+    for (int start : new int[] { 0, 3, 7, 40 }) {
+      randomizer.setState(start);
+      assertEquals(start, randomizer.getState());
+      int[] types = new int[30];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = randomizer.next();
+      }
+      assertEquals(start + types.length, randomizer.getState());
+
+      randomizer.setState(start);
+      for (int type : types) {
+        assertEquals(type, randomizer.next());
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> randomizer.setState(-1));
+  }
+}
@@ -230,4 +230,308 @@ class BoardTest {
       }
     }
   }
-}
\ No newline at end of file
+
+  // --- Tests para el bitboard ---
+
+  /**
+   * Verifica que la comprobación por máscaras coincide con la comprobación por puntos
+   * en todas las posiciones del tablero, con obstáculos repartidos por la rejilla.
+   */
+  @Test
+  void testIsValidPosition_MaskMatchesPoints() {
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(4, 10), Color.RED);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(0, 19), Color.RED);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(9, 5), Color.RED);
+    Point[] shapeT = { new Point(1, 0), new Point(0, 1), new Point(1, 1), new Point(2, 1) };
+    ShapeMask maskT = ShapeMask.of(shapeT);
+
+    for (int y = -2; y <= Board.BOARD_HEIGHT; y++) {
+      for (int x = -2; x <= Board.BOARD_WIDTH; x++) {
+        assertEquals(board.isValidPosition(shapeT, new Point(x, y)), board.isValidPosition(maskT, x, y),
+            "Resultado distinto en (" + x + ", " + y + ")");
+      }
+    }
+  }
+
+  /**
+   * Verifica que la máscara de una forma con coordenadas negativas (por encima de la posición)
+   * respeta los límites y las colisiones igual que la forma original.
+   */
+  @Test
+  void testIsValidPosition_MaskWithNegativeOffsets() {
+    Point[] shape = { new Point(-1, -1), new Point(0, -1), new Point(0, 0) };
+    ShapeMask mask = ShapeMask.of(shape);
+    assertFalse(board.isValidPosition(mask, 0, 5)); // La columna -1 queda fuera
+    assertTrue(board.isValidPosition(mask, 1, 0)); // La fila -1 está por encima del tablero
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(0, 4), Color.RED);
+    assertFalse(board.isValidPosition(mask, 1, 5));
+  }
+
+  /**
+   * Verifica que las máscaras de fila reflejan las piezas colocadas y las líneas eliminadas.
+   */
+  @Test
+  void testRowMask_FollowsPlaceAndClear() {
+    board.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    assertEquals(0b1111, board.getRowMask(Board.BOARD_HEIGHT - 1));
+    board.placePiece(shapeI, new Point(4, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0), new Point(1, -1) },
+        new Point(8, Board.BOARD_HEIGHT - 1), Color.RED);
+    assertEquals(Board.FULL_ROW, board.getRowMask(Board.BOARD_HEIGHT - 1));
+
+    assertEquals(1, board.clearLines());
+    assertEquals(0b10_0000_0000, board.getRowMask(Board.BOARD_HEIGHT - 1)); // El bloque de arriba bajó
+    assertEquals(Color.RED, board.getCell(9, Board.BOARD_HEIGHT - 1));
+  }
+
+  /**
+   * Verifica la limpieza de líneas no contiguas colocadas con {@code placePiece}.
+   *
+   * Solo se inspeccionan las filas tocadas desde la última limpieza, y los bloques
+   * de en medio y de arriba bajan el número de líneas eliminadas por debajo de ellos.
+   */
+  @Test
+  void testClearLines_NonAdjacentRowsPlacedWithPieces() {
+    int bottom = Board.BOARD_HEIGHT - 1;
+    Point[] row = new Point[Board.BOARD_WIDTH];
+    for (int j = 0; j < Board.BOARD_WIDTH; j++) {
+      row[j] = new Point(j, 0);
+    }
+    board.placePiece(row, new Point(0, bottom), Color.BLUE);
+    board.placePiece(row, new Point(0, bottom - 2), Color.GREEN);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(3, bottom - 1), Color.RED);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(7, bottom - 3), Color.YELLOW);
+
+    assertEquals(2, board.clearLines());
+    assertEquals(Color.RED, board.getCell(3, bottom));
+    assertEquals(Color.YELLOW, board.getCell(7, bottom - 1));
+    assertEquals(1, board.getRowFill(bottom));
+    assertEquals(1, board.getRowFill(bottom - 1));
+    for (int i = 0; i < bottom - 1; i++) {
+      assertEquals(0, board.getRowFill(i));
+      assertNull(board.getCell(0, i));
+    }
+
+    // Sin nuevas colocaciones no hay nada que limpiar
+    assertEquals(0, board.clearLines());
+  }
+
+  // --- Tests para la caída instantánea ---
+
+  /**
+   * Verifica que las alturas de columna siguen a las colocaciones y a la limpieza de líneas.
+   */
+  @Test
+  void testColumnHeights_FollowPlaceAndClear() {
+    board.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(2, Board.BOARD_HEIGHT - 5), Color.RED);
+    assertEquals(1, board.getColumnHeight(0));
+    assertEquals(5, board.getColumnHeight(2));
+    assertEquals(0, board.getColumnHeight(9));
+
+    // Completar la fila inferior: el bloque suelto baja y la columna 0 queda vacía
+    board.placePiece(shapeI, new Point(4, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0) }, new Point(8, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    assertEquals(1, board.clearLines());
+    assertEquals(0, board.getColumnHeight(0));
+    assertEquals(4, board.getColumnHeight(2));
+  }
+
+  /**
+   * Verifica la altura agregada, los huecos y la irregularidad tras colocar y limpiar,
+   * y que la copia de un tablero es independiente del original.
+   */
+  @Test
+  void testFeatures_FollowPlaceClearAndCopy() {
+    // Columna 0 con altura 3 y dos huecos, columna 1 con altura 1
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(0, Board.BOARD_HEIGHT - 3), Color.RED);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(1, Board.BOARD_HEIGHT - 1), Color.RED);
+    assertEquals(4, board.getAggregateHeight());
+    assertEquals(2, board.getHoles());
+    assertEquals(3 - 1 + 1, board.getBumpiness());
+
+    Board copy = new Board(board);
+    copy.placePiece(shapeI, new Point(2, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    copy.placePiece(shapeI, new Point(6, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    copy.placePiece(new Point[]{ new Point(0, 0) }, new Point(0, Board.BOARD_HEIGHT - 1), Color.RED);
+    assertEquals(1, copy.clearLines());
+    // Tras la limpieza el bloque de la columna 0 baja una fila y queda un hueco
+    assertEquals(2, copy.getAggregateHeight());
+    assertEquals(1, copy.getHoles());
+    assertEquals(2, copy.getBumpiness());
+
+    // El original no cambia
+    assertEquals(4, board.getAggregateHeight());
+    assertEquals(2, board.getHoles());
+    assertNull(board.getCell(2, Board.BOARD_HEIGHT - 1));
+
+    // Copiar sobre un tablero existente deja el mismo estado
+    copy.copyFrom(board);
+    assertEquals(board.getHash(), copy.getHash());
+    assertEquals(4, copy.getAggregateHeight());
+    assertEquals(2, copy.getHoles());
+    assertNull(copy.getCell(2, Board.BOARD_HEIGHT - 1));
+  }
+
+  /**
+   * Verifica que el hash incremental coincide con el de un tablero construido
+   * directamente con el resultado, tras colocar piezas y limpiar líneas.
+   */
+  @Test
+  void testHash_IncrementalMatchesRebuilt() {
+    assertEquals(0, board.getHash());
+    board.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(shapeI, new Point(4, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(0, -1) }, new Point(3, Board.BOARD_HEIGHT - 2), Color.RED);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0) }, new Point(8, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    assertEquals(1, board.clearLines());
+
+    // Solo quedan los dos bloques de la columna 3, que han bajado una fila
+    Board rebuilt = new Board();
+    rebuilt.placePiece(new Point[]{ new Point(0, 0), new Point(0, -1) }, new Point(3, Board.BOARD_HEIGHT - 1), Color.GREEN);
+    assertEquals(rebuilt.getHash(), board.getHash());
+    assertNotEquals(0, board.getHash());
+
+    // Reconstruido desde la rejilla también coincide
+    long hash = board.getHash();
+    board.getGrid();
+    assertEquals(hash, board.getHash());
+  }
+
+  /**
+   * Verifica que el hash depende de las celdas ocupadas y no del orden de colocación.
+   */
+  @Test
+  void testHash_DependsOnCellsNotOrder() {
+    Board other = new Board();
+    board.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(9, Board.BOARD_HEIGHT - 1), Color.RED);
+    other.placePiece(new Point[]{ new Point(0, 0) }, new Point(9, Board.BOARD_HEIGHT - 1), Color.RED);
+    other.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    assertEquals(board.getHash(), other.getHash());
+
+    other.placePiece(new Point[]{ new Point(0, 0) }, new Point(9, Board.BOARD_HEIGHT - 2), Color.RED);
+    assertNotEquals(board.getHash(), other.getHash());
+    assertEquals(board.getHash(), new Board(board).getHash());
+  }
+
+  /**
+   * Verifica que restaurar una instantánea deshace colocaciones y limpiezas,
+   * incluidas filas ocupadas por encima de las guardadas, y que el tablero sigue funcionando.
+   */
+  @Test
+  void testSnapshotRestore_UndoesPlaceAndClear() {
+    board.placePiece(shapeI, new Point(0, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(9, Board.BOARD_HEIGHT - 2), Color.RED);
+    Board.Snapshot snapshot = board.snapshot();
+    long hash = board.getHash();
+
+    board.placePiece(shapeI, new Point(4, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0) }, new Point(8, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(2, 3), Color.GREEN);
+    assertEquals(1, board.clearLines());
+
+    board.restore(snapshot);
+    assertEquals(hash, board.getHash());
+    assertEquals(Color.CYAN, board.getCell(0, Board.BOARD_HEIGHT - 1));
+    assertEquals(Color.RED, board.getCell(9, Board.BOARD_HEIGHT - 2));
+    assertNull(board.getCell(4, Board.BOARD_HEIGHT - 1));
+    assertNull(board.getCell(2, 4));
+    assertEquals(1, board.getColumnHeight(0));
+    assertEquals(0, board.getColumnHeight(5));
+    assertEquals(1, board.getHoles());
+
+    // Tras restaurar, completar la fila vuelve a eliminarla
+    board.placePiece(shapeI, new Point(4, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0) }, new Point(8, Board.BOARD_HEIGHT - 1), Color.CYAN);
+    assertEquals(1, board.clearLines());
+    assertEquals(Color.RED, board.getCell(9, Board.BOARD_HEIGHT - 1));
+  }
+
+  /**
+   * Verifica que la distancia de caída calculada con las alturas coincide con la
+   * que se obtiene bajando fila a fila, en todas las rotaciones de todas las piezas,
+   * sobre un tablero irregular con un saliente.
+   */
+  @Test
+  void testDropDistance_MatchesRowByRow() {
+    int[] heights = { 3, 5, 0, 2, 2, 7, 1, 0, 4, 6 };
+    for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+      for (int h = 0; h < heights[x]; h++) {
+        board.placePiece(new Point[]{ new Point(0, 0) }, new Point(x, Board.BOARD_HEIGHT - 1 - h), Color.GRAY);
+      }
+    }
+    // Saliente sobre las columnas 6 y 7, con espacio libre por debajo
+    board.placePiece(new Point[]{ new Point(0, 0), new Point(1, 0) }, new Point(6, Board.BOARD_HEIGHT - 5), Color.GRAY);
+
+    for (int type = 0; type < PieceFactory.PIECE_TYPES; type++) {
+      RotationTable table = PieceFactory.getRotationTable(type);
+      for (int r = 0; r < RotationTable.ROTATIONS; r++) {
+        ShapeMask mask = table.getMask(r);
+        for (int x = -3; x < Board.BOARD_WIDTH; x++) {
+          for (int y = -2; y < Board.BOARD_HEIGHT; y++) {
+            if (!board.isValidPosition(mask, x, y)) {
+              continue;
+            }
+            int expected = 0;
+            while (board.isValidPosition(mask, x, y + expected + 1)) {
+              expected++;
+            }
+            assertEquals(expected, board.dropDistance(mask, table.getBottomProfile(r), new Point(x, y)),
+                "Pieza " + type + ", rotación " + r + ", posición (" + x + ", " + y + ")");
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifica que una columna vacía de la caja de la pieza no limita la caída.
+   */
+  @Test
+  void testDropDistance_SkipsEmptyColumns() {
+    RotationTable table = RotationTable.of(new Point[]{ new Point(0, 0), new Point(2, 0) });
+    assertArrayEquals(new int[]{ 0, RotationTable.EMPTY_COLUMN, 0 }, table.getBottomProfile(0));
+    // Bloque bajo el hueco de la pieza, en la columna 4
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(4, Board.BOARD_HEIGHT - 1), Color.GRAY);
+
+    assertEquals(Board.BOARD_HEIGHT - 1, board.dropDistance(table.getMask(0), table.getBottomProfile(0), new Point(3, 0)));
+  }
+
+  /**
+   * Verifica que la versión cambia con cada modificación del contenido, también al entregar la
+   * rejilla y al escribir en ella, y no al leer ni al limpiar sin líneas completas.
+   */
+  @Test
+  void testVersion_ChangesOnlyWithContent() {
+    long initial = board.getVersion();
+    board.getCell(0, 0);
+    board.getHash();
+    assertEquals(initial, board.getVersion());
+    assertEquals(0, board.clearLines());
+    assertEquals(initial, board.getVersion());
+
+    board.placePiece(new Point[]{ new Point(0, 0) }, new Point(0, Board.BOARD_HEIGHT - 1), Color.RED);
+    long placed = board.getVersion();
+    assertNotEquals(initial, placed);
+
+    Board.Snapshot snapshot = board.snapshot();
+    board.restore(snapshot);
+    assertNotEquals(placed, board.getVersion());
+
+    long restored = board.getVersion();
+    Color[][] grid = board.getGrid();
+    long exposed = board.getVersion();
+    assertNotEquals(restored, exposed);
+    assertEquals(exposed, board.getVersion());
+    board.getHash();
+    assertEquals(exposed, board.getVersion());
+
+    grid[0][0] = Color.BLUE;
+    assertEquals(exposed, board.getVersion());
+    board.getHash();
+    long written = board.getVersion();
+    assertNotEquals(exposed, written);
+    assertEquals(written, board.getVersion());
+  }
+}
@@ -120,4 +120,74 @@ class PieceFactoryTest {
     assertNotNull(newPiece.getColor());
     assertNotNull(newPiece.getShape());
   }
-}
\ No newline at end of file
+
+  /**
+   * Verifica que al restaurar una instantánea se repiten las mismas piezas, también las que
+   * ya se habían consultado con peek, tanto con la bolsa de 7 como con un {@link Random}.
+   */
+  @Test
+  void testSnapshotRestore_RepeatsSequence() {
+    assertRestoreRepeatsSequence(new PieceFactory(board, new BagRandomizer(4L)));
+    assertRestoreRepeatsSequence(new PieceFactory(board, new Random(4L)));
+  }
+
+  private static void assertRestoreRepeatsSequence(PieceFactory pieceFactory) {
+    pieceFactory.getNewPiece();
+    pieceFactory.peek(2);
+    PieceFactory.Snapshot snapshot = new PieceFactory.Snapshot();
+    pieceFactory.snapshot(snapshot);
+    int[] types = new int[20];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = pieceFactory.getNewPiece().getType();
+    }
+
+    pieceFactory.restore(snapshot);
+    for (int type : types) {
+      assertEquals(type, pieceFactory.getNewPiece().getType());
+    }
+  }
+
+  /**
+   * Verifica que consultar las piezas siguientes no las genera ni avanza la secuencia,
+   * y que después salen en el orden consultado.
+   */
+  @Test
+  void testPeek_MatchesLaterPieces() {
+    PieceFactory pieceFactory = new PieceFactory(board, new BagRandomizer(9L));
+    int[] upcoming = new int[PieceFactory.MAX_PEEK];
+    for (int i = upcoming.length - 1; i >= 0; i--) {
+      upcoming[i] = pieceFactory.peek(i);
+    }
+    assertEquals(upcoming[0], pieceFactory.peek(0));
+    for (int type : upcoming) {
+      assertEquals(type, pieceFactory.getNewPiece().getType());
+    }
+    assertThrows(IllegalArgumentException.class, () -> pieceFactory.peek(-1));
+    assertThrows(IllegalArgumentException.class, () -> pieceFactory.peek(PieceFactory.MAX_PEEK));
+  }
+
+  /**
+   * Verifica que al reutilizar una pieza se devuelve la misma, convertida en la siguiente
+   * de la secuencia en la posición inicial y sin girar, y que comparte la tabla de rotaciones.
+   */
+  @Test
+  void testGetNewPiece_ReusesPiece() {
+    PieceFactory pieceFactory = new PieceFactory(board, new BagRandomizer(8L));
+    Piece piece = pieceFactory.getNewPiece();
+    Point spawn = new Point(piece.getPosition());
+    piece.getPosition().translate(2, 5);
+    piece.restore(piece.snapshot() | 1);
+    int next = pieceFactory.peek(0);
+
+    assertSame(piece, pieceFactory.getNewPiece(piece));
+    assertEquals(next, piece.getType());
+    assertSame(PieceFactory.getRotationTable(next), piece.getRotationTable());
+    assertEquals(PieceFactory.getColor(next), piece.getColor());
+    assertEquals(spawn, piece.getPosition());
+    assertEquals(0, piece.getRotation());
+
+    // Una pieza de otro tablero no se reutiliza
+    Piece other = new PieceFactory(new Board()).getNewPiece();
+    assertNotSame(other, pieceFactory.getNewPiece(other));
+  }
+}
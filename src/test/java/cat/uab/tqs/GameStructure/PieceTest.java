@@ -13,6 +13,9 @@ import java.awt.Point;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -75,7 +78,7 @@ class PieceTest {
    * Prueba parametrizada (Data-Driven) que cubre la lógica de movimiento.
    *
    * Permite probar múltiples direcciones y escenarios de validez en un solo método.
-   * Configura el comportamiento del mock {@code board.isValidPosition} según el parámetro {@code isValid}.
+   * Configura el comportamiento del mock {@code board.canMove} según el parámetro {@code isValid}.
    *
    * @param direction Dirección del movimiento ("DOWN", "LEFT", "RIGHT").
    * @param isValid Define si el tablero (mock) permitirá el movimiento.
@@ -93,7 +96,7 @@ class PieceTest {
   })
   void testPieceMovement_DataDriven(String direction, boolean isValid, int expectedDx, int expectedDy) {
     // Given: Configuramos el mock para aceptar o rechazar el movimiento
-    when(board.isValidPosition(any(), any(Point.class))).thenReturn(isValid);
+    when(board.canMove(any(), any(Point.class), anyInt(), anyInt())).thenReturn(isValid);
     Point initialPosition = new Point(piece.getPosition());
 
     // When: Ejecutamos el movimiento correspondiente
@@ -124,7 +127,7 @@ class PieceTest {
    */
   @Test
   void testRotate_Valid() {
-    when(board.isValidPosition(any(), any(Point.class))).thenReturn(true);
+    when(board.isValidPosition(any(ShapeMask.class), anyInt(), anyInt())).thenReturn(true);
 
     Point[] before = new Point[piece.getShape().length];
     for (int i = 0; i < piece.getShape().length; i++) {
@@ -152,7 +155,7 @@ class PieceTest {
    */
   @Test
   void testRotate_Invalid() {
-    when(board.isValidPosition(any(), any(Point.class))).thenReturn(false);
+    when(board.isValidPosition(any(ShapeMask.class), anyInt(), anyInt())).thenReturn(false);
     Point[] initialShape = piece.getShape();
     piece.rotate();
     assertArrayEquals(initialShape, piece.getShape());
@@ -167,7 +170,7 @@ class PieceTest {
    */
   @Test
   void testCanMoveDown_True() {
-    when(board.isValidPosition(piece.getShape(), new Point(piece.getPosition().x, piece.getPosition().y + 1))).thenReturn(true);
+    when(board.canMove(piece.getShapeMask(), piece.getPosition(), 0, 1)).thenReturn(true);
     assertTrue(piece.canMoveDown());
   }
 
@@ -178,7 +181,41 @@ class PieceTest {
    */
   @Test
   void testCanMoveDown_False() {
-    when(board.isValidPosition(piece.getShape(), new Point(piece.getPosition().x, piece.getPosition().y + 1))).thenReturn(false);
+    when(board.canMove(piece.getShapeMask(), piece.getPosition(), 0, 1)).thenReturn(false);
     assertFalse(piece.canMoveDown());
   }
-}
\ No newline at end of file
+
+  /**
+   * Verifica que cuatro rotaciones válidas devuelven la pieza a su estado inicial
+   * y que la rotación solo consulta la máscara del estado siguiente.
+   */
+  @Test
+  void testRotate_FourTimesReturnsToStart() {
+    when(board.isValidPosition(any(ShapeMask.class), anyInt(), anyInt())).thenReturn(true);
+    Point[] initialShape = piece.getShape();
+
+    for (int i = 1; i <= RotationTable.ROTATIONS; i++) {
+      piece.rotate();
+      assertEquals(i % RotationTable.ROTATIONS, piece.getRotation());
+    }
+
+    assertArrayEquals(initialShape, piece.getShape());
+    verify(board, never()).isValidPosition(any(Point[].class), any(Point.class));
+  }
+
+  /**
+   * Verifica que una instantánea de la pieza recupera posición y rotación,
+   * también con coordenadas negativas.
+   */
+  @Test
+  void testSnapshotRestore_RecoversPositionAndRotation() {
+    when(board.isValidPosition(any(ShapeMask.class), anyInt(), anyInt())).thenReturn(true);
+    assertTrue(piece.moveTo(-2, -1, 3));
+    int snapshot = piece.snapshot();
+
+    piece.moveTo(7, 15, 1);
+    piece.restore(snapshot);
+    assertEquals(new Point(-2, -1), piece.getPosition());
+    assertEquals(3, piece.getRotation());
+  }
+}
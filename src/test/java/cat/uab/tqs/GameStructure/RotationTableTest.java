@@ -0,0 +1,135 @@
+package cat.uab.tqs.GameStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link RotationTable}.
+ *
+ * Verifica los estados de rotación precalculados de las piezas estándar:
+ * <ul>
+ * <li>Rotación dentro de la caja envolvente (la I y la O no se desplazan).</li>
+ * <li>Cajas envolventes y perfiles inferiores de cada estado.</li>
+ * <li>Tablas compartidas entre todas las piezas de un mismo tipo.</li>
+ * </ul>
+ */
+class RotationTableTest {
+
+  /** Índice de la pieza I en la fábrica. */
+  private static final int TYPE_I = 0;
+  /** Índice de la pieza O en la fábrica. */
+  private static final int TYPE_O = 3;
+  /** Índice de la pieza T en la fábrica. */
+  private static final int TYPE_T = 5;
+
+  /**
+   * Convierte una forma en un conjunto de celdas para compararla sin importar el orden.
+   */
+  private static Set<Point> cells(Point[] shape) {
+    Set<Point> cells = new HashSet<>();
+    for (Point p : shape) {
+      cells.add(new Point(p));
+    }
+    return cells;
+  }
+
+  /**
+   * Verifica que la I horizontal pasa a vertical en la columna 2 de su caja de 4x4.
+   */
+  @Test
+  void testIShape_RotatesInsideBox() {
+    RotationTable table = PieceFactory.getRotationTable(TYPE_I);
+    Set<Point> expected = Set.of(new Point(2, 0), new Point(2, 1), new Point(2, 2), new Point(2, 3));
+    assertEquals(expected, cells(table.getShape(1)));
+
+    ShapeMask mask = table.getMask(1);
+    assertEquals(2, mask.getOffsetX());
+    assertEquals(0, mask.getOffsetY());
+    assertEquals(1, mask.getWidth());
+    assertEquals(4, mask.getHeight());
+  }
+
+  /**
+   * Verifica que la O ocupa las mismas celdas en los cuatro estados.
+   */
+  @Test
+  void testOShape_DoesNotMove() {
+    RotationTable table = PieceFactory.getRotationTable(TYPE_O);
+    for (int r = 1; r < RotationTable.ROTATIONS; r++) {
+      assertEquals(cells(table.getShape(0)), cells(table.getShape(r)));
+    }
+  }
+
+  /**
+   * Verifica que modificar los puntos devueltos no altera la tabla compartida.
+   */
+  @Test
+  void testGetShape_ReturnsCopy() {
+    RotationTable table = PieceFactory.getRotationTable(TYPE_T);
+    Set<Point> before = cells(table.getShape(0));
+    Point[] shape = table.getShape(0);
+    shape[0].translate(5, 5);
+
+    assertEquals(before, cells(table.getShape(0)));
+    assertEquals(shape[0].x - 5, table.getCellX(0, 0));
+    assertEquals(shape[0].y - 5, table.getCellY(0, 0));
+    assertEquals(shape.length, table.getCellCount(0));
+  }
+
+  /**
+   * Verifica el perfil inferior de la T apuntando hacia arriba y hacia la derecha.
+   */
+  @Test
+  void testTShape_BottomProfiles() {
+    RotationTable table = PieceFactory.getRotationTable(TYPE_T);
+    assertArrayEquals(new int[]{ 1, 1, 1 }, table.getBottomProfile(0));
+    // Estado 1: barra vertical en la columna 1 con saliente a la derecha en la fila 1
+    assertEquals(1, table.getMask(1).getOffsetX());
+    assertArrayEquals(new int[]{ 2, 1 }, table.getBottomProfile(1));
+  }
+
+  /**
+   * Verifica que cuatro rotaciones de cualquier forma personalizada vuelven al estado inicial.
+   */
+  @Test
+  void testCustomShape_FullTurnIsIdentity() {
+    Point[] shape = { new Point(0, 0), new Point(0, 1), new Point(0, 2), new Point(1, 2) };
+    RotationTable table = RotationTable.of(shape);
+    Set<Point> start = cells(table.getShape(0));
+    Set<Point> turned = new HashSet<>();
+    for (Point p : table.getShape(3)) {
+      // Una rotación más desde el estado 3, dentro de la caja de 3x3
+      turned.add(new Point(2 - p.y, p.x));
+    }
+    assertEquals(start, turned);
+  }
+
+  /**
+   * Verifica que dos piezas del mismo tipo comparten la misma tabla y los mismos puntos.
+   */
+  @Test
+  void testTables_SharedAcrossPieces() {
+    Random alwaysT = new Random() {
+      @Override
+      public int nextInt(int bound) {
+        return TYPE_T;
+      }
+    };
+    PieceFactory first = new PieceFactory(new Board(), alwaysT);
+    PieceFactory second = new PieceFactory(new Board(), alwaysT);
+    Piece a = first.getNewPiece();
+    Piece b = second.getNewPiece();
+
+    assertSame(a.getRotationTable(), b.getRotationTable());
+    assertArrayEquals(a.getShape(), b.getShape());
+    assertEquals(TYPE_T, a.getType());
+    assertEquals(Color.MAGENTA, a.getColor());
+  }
+}
@@ -0,0 +1,68 @@
+package cat.uab.tqs.GraficInterface;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link CellSprites}.
+ */
+class CellSpritesTest {
+
+  /**
+   * Verifica que copiar la celda de la caché deja los mismos píxeles que
+   * rellenarla y trazar su borde, también con un tamaño de celda distinto.
+   */
+  @Test
+  void testDraw_MatchesFillAndStroke() {
+    for (int size : new int[]{ 30, 17 }) {
+      BufferedImage expected = new BufferedImage(3 * size, 3 * size, BufferedImage.TYPE_INT_RGB);
+      BufferedImage actual = new BufferedImage(3 * size, 3 * size, BufferedImage.TYPE_INT_RGB);
+      Graphics2D e = expected.createGraphics();
+      Graphics2D a = actual.createGraphics();
+      CellSprites sprites = new CellSprites(size);
+
+      Color[] colors = { Color.RED, Color.CYAN, Color.RED };
+      for (int i = 0; i < colors.length; i++) {
+        e.setColor(colors[i]);
+        e.fillRect(i * size, size, size, size);
+        e.setColor(Color.DARK_GRAY);
+        e.drawRect(i * size, size, size, size);
+        sprites.draw(a, colors[i], i * size, size);
+      }
+      e.dispose();
+      a.dispose();
+
+      for (int y = 0; y < expected.getHeight(); y++) {
+        for (int x = 0; x < expected.getWidth(); x++) {
+          assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Tamaño " + size + ", píxel (" + x + ", " + y + ")");
+        }
+      }
+      assertEquals(2, sprites.size());
+    }
+  }
+
+  /**
+   * Verifica que la caché se vacía sólo cuando cambia la configuración gráfica.
+   */
+  @Test
+  void testValidate_ClearsOnConfigurationChange() {
+    CellSprites sprites = new CellSprites(10);
+    assertFalse(sprites.validate(null));
+    BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    sprites.draw(g, Color.GREEN, 0, 0);
+    assertEquals(1, sprites.size());
+
+    GraphicsConfiguration config = g.getDeviceConfiguration();
+    assertTrue(sprites.validate(config));
+    assertEquals(0, sprites.size());
+    assertFalse(sprites.validate(config));
+    g.dispose();
+
+    assertThrows(IllegalArgumentException.class, () -> new CellSprites(1));
+  }
+}
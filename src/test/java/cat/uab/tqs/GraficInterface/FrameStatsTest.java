@@ -0,0 +1,67 @@
+package cat.uab.tqs.GraficInterface;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link FrameStats}.
+ */
+class FrameStatsTest {
+
+  private static final long MS = 1_000_000L;
+
+  /**
+   * Verifica los fotogramas por segundo y los percentiles con tiempos conocidos.
+   */
+  @Test
+  void testSummarize_PercentilesAndFps() {
+    FrameStats stats = new FrameStats(10 * MS, 100);
+    for (int i = 1; i <= 100; i++) {
+      stats.record(i * MS / 10);
+    }
+    stats.summarize();
+
+    assertEquals(5 * MS, stats.getP50Nanos());
+    assertEquals(9_500_000L, stats.getP95Nanos());
+    assertEquals(9_900_000L, stats.getP99Nanos());
+    // Media de 5,05 ms por fotograma
+    assertEquals(1e9 / 5_050_000, stats.getFps(), 0.01);
+    assertEquals(0, stats.getDropped());
+    assertEquals(100, stats.getFrames());
+  }
+
+  /**
+   * Verifica que cada intervalo previsto de más cuenta como un fotograma perdido,
+   * redondeando al intervalo más cercano.
+   */
+  @Test
+  void testRecord_CountsDroppedIntervals() {
+    FrameStats stats = new FrameStats(10 * MS, 8);
+    stats.record(14 * MS);
+    assertEquals(0, stats.getDropped());
+    stats.record(16 * MS);
+    assertEquals(1, stats.getDropped());
+    stats.record(31 * MS);
+    assertEquals(3, stats.getDropped());
+  }
+
+  /**
+   * Verifica que los percentiles sólo usan los fotogramas de la ventana.
+   */
+  @Test
+  void testSummarize_UsesOnlyRecentWindow() {
+    FrameStats stats = new FrameStats(10 * MS, 4);
+    for (int i = 0; i < 10; i++) {
+      stats.record(100 * MS);
+    }
+    for (int i = 0; i < 4; i++) {
+      stats.record(10 * MS);
+    }
+    stats.summarize();
+    assertEquals(10 * MS, stats.getP99Nanos());
+    assertEquals(100, stats.getFps(), 1e-9);
+    assertEquals(14, stats.getFrames());
+    assertThrows(IllegalArgumentException.class, () -> new FrameStats(0, 4));
+  }
+}
@@ -0,0 +1,97 @@
+package cat.uab.tqs.GraficInterface;
+
+import cat.uab.tqs.GameControl.Game;
+import cat.uab.tqs.GameStructure.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para el dibujo de {@link GamePanel}.
+ *
+ * Dibuja el panel sobre una imagen en memoria, sin ventana, y comprueba el color
+ * del centro de las celdas para verificar que la capa de celdas fijas se rehace
+ * cuando cambia el tablero. Salvo que se indique lo contrario, los paneles se crean sin bucle de juego,
+ * así que publican ellos mismos el fotograma al dibujar.
+ */
+class GamePanelTest {
+
+  private static final int CELL = 30;
+
+  private static BufferedImage paint(GamePanel panel) {
+    Dimension size = panel.getPreferredSize();
+    panel.setSize(size);
+    BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    panel.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  private static int cellRgb(BufferedImage image, int x, int y) {
+    return image.getRGB(x * CELL + CELL / 2, y * CELL + CELL / 2) & 0xFFFFFF;
+  }
+
+  /**
+   * Verifica que la pieza que cae se dibuja sobre la capa y que, al fijarse,
+   * la capa en caché se rehace con sus celdas.
+   */
+  @Test
+  void testPaint_LayerFollowsBoardChanges() {
+    Game game = new Game(1L);
+    GamePanel panel = new GamePanel(game);
+    Piece piece = game.getCurrentPiece();
+    Point cell = new Point(piece.getPosition().x + piece.getShape()[0].x,
+        piece.getPosition().y + piece.getShape()[0].y);
+
+    BufferedImage image = paint(panel);
+    assertEquals(piece.getColor().getRGB() & 0xFFFFFF, cellRgb(image, cell.x, cell.y));
+
+    piece.hardDrop();
+    Point landed = new Point(piece.getPosition().x + piece.getShape()[0].x,
+        piece.getPosition().y + piece.getShape()[0].y);
+    int rgb = piece.getColor().getRGB() & 0xFFFFFF;
+    image = paint(panel);
+    assertEquals(rgb, cellRgb(image, landed.x, landed.y));
+
+    // La partida reutiliza la pieza para la siguiente, así que se compara con el color guardado
+    game.hardDrop();
+    assertEquals(1, game.getPiecesPlaced());
+    image = paint(panel);
+    assertEquals(rgb, cellRgb(image, landed.x, landed.y));
+  }
+
+  /**
+   * Verifica que las celdas vacías se dibujan con el fondo.
+   */
+  @Test
+  void testPaint_EmptyCellsUseBackground() {
+    Game game = new Game(2L);
+    BufferedImage image = paint(new GamePanel(game));
+    assertEquals(Color.BLACK.getRGB() & 0xFFFFFF, cellRgb(image, 0, 19));
+  }
+
+  /**
+   * Verifica que un panel que entrega las acciones a un bucle de juego dibuja sólo los fotogramas
+   * publicados, y que uno sin bucle muestra los movimientos sin que nadie publique.
+   */
+  @Test
+  void testPaint_PublishesOnlyWithoutLoop() {
+    Game game = new Game(3L);
+    Piece piece = game.getCurrentPiece();
+    game.publishFrame();
+    GamePanel loopPanel = new GamePanel(game, action -> { });
+    GamePanel directPanel = new GamePanel(game);
+    int rgb = piece.getColor().getRGB() & 0xFFFFFF;
+
+    piece.hardDrop();
+    Point landed = new Point(piece.getPosition().x + piece.getShape()[0].x,
+        piece.getPosition().y + piece.getShape()[0].y);
+    assertEquals(Color.BLACK.getRGB() & 0xFFFFFF, cellRgb(paint(loopPanel), landed.x, landed.y));
+    assertEquals(rgb, cellRgb(paint(directPanel), landed.x, landed.y));
+    assertEquals(rgb, cellRgb(paint(loopPanel), landed.x, landed.y));
+  }
+}
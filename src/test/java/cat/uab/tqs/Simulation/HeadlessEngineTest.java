@@ -0,0 +1,97 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import cat.uab.tqs.GameStructure.Board;
+import cat.uab.tqs.GameStructure.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link HeadlessEngine} y {@link HeadlessSimulation}.
+ *
+ * Verifica que el motor sin interfaz gráfica avanza la partida tick a tick
+ * y que las simulaciones con la misma semilla son reproducibles.
+ */
+class HeadlessEngineTest {
+
+  /**
+   * Verifica que un paso aplica la acción y después la gravedad.
+   */
+  @Test
+  void testStep_AppliesActionThenGravity() {
+    HeadlessEngine engine = new HeadlessEngine(42);
+    Point start = new Point(engine.getGame().getCurrentPiece().getPosition());
+
+    assertTrue(engine.step(Action.LEFT));
+
+    Point position = engine.getGame().getCurrentPiece().getPosition();
+    assertEquals(start.x - 1, position.x);
+    assertEquals(start.y + 1, position.y);
+    assertEquals(1, engine.getTicks());
+  }
+
+  /**
+   * Verifica que una partida sin acciones termina al llenarse el tablero
+   * y que después los pasos ya no avanzan el tiempo.
+   */
+  @Test
+  void testPlay_EndsWithGameOver() {
+    HeadlessEngine engine = new HeadlessEngine(7);
+    long ticks = new HeadlessSimulation().play(engine, game -> Action.NONE);
+
+    assertTrue(engine.isGameOver());
+    assertTrue(engine.getGame().getPiecesPlaced() > 0);
+    assertFalse(engine.step(Action.DOWN));
+    assertEquals(ticks, engine.getTicks());
+  }
+
+  /**
+   * Verifica que dos simulaciones con la misma semilla producen las mismas estadísticas.
+   */
+  @Test
+  void testRun_IsReproducible() {
+    SimulationStats first = new HeadlessSimulation().run(50, 1234);
+    SimulationStats second = new HeadlessSimulation().run(50, 1234);
+
+    assertEquals(50, first.getGames());
+    assertEquals(first.getTicks(), second.getTicks());
+    assertEquals(first.getPieces(), second.getPieces());
+    assertEquals(first.getTotalScore(), second.getTotalScore());
+    assertEquals(first.getMaxScore(), second.getMaxScore());
+  }
+
+  /**
+   * Verifica que el límite de ticks corta las partidas que no terminan.
+   */
+  @Test
+  void testPlay_StopsAtTickLimit() {
+    HeadlessEngine engine = new HeadlessEngine(3);
+    long ticks = new HeadlessSimulation(5).play(engine, game -> Action.NONE);
+
+    assertEquals(5, ticks);
+    assertFalse(engine.isGameOver());
+  }
+
+  /**
+   * Verifica que la caída instantánea fija la pieza en el fondo en un solo paso
+   * y genera la siguiente, que reutiliza la misma pieza en la posición inicial.
+   */
+  @Test
+  void testStep_HardDropLocksPiece() {
+    HeadlessEngine engine = new HeadlessEngine(11);
+    Piece first = engine.getGame().getCurrentPiece();
+    int spawnY = first.getPosition().y;
+
+    engine.apply(Action.HARD_DROP);
+
+    assertSame(first, engine.getGame().getCurrentPiece());
+    assertEquals(spawnY, first.getPosition().y);
+    assertEquals(1, engine.getGame().getPiecesPlaced());
+    assertEquals(0, engine.getTicks());
+    Board board = engine.getGame().getBoard();
+    assertNotEquals(0, board.getRowMask(Board.BOARD_HEIGHT - 1), "La pieza debería estar en la fila inferior");
+  }
+}
@@ -0,0 +1,47 @@
+package cat.uab.tqs.Simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link ParallelSimulationRunner}.
+ *
+ * Verifica que los resultados no dependen del número de hilos y que
+ * la agregación por hilo cuadra con el total.
+ */
+class ParallelSimulationRunnerTest {
+
+  /**
+   * Verifica que la misma semilla maestra produce los mismos resultados con uno y cuatro hilos.
+   */
+  @Test
+  void testRun_ReproducibleAcrossThreadCounts() {
+    ParallelSimulationRunner.Report single = new ParallelSimulationRunner(1).run(500, 99);
+    ParallelSimulationRunner.Report parallel = new ParallelSimulationRunner(4).run(500, 99);
+
+    assertEquals(500, single.getGames());
+    assertEquals(single.getGames(), parallel.getGames());
+    assertEquals(single.getTicks(), parallel.getTicks());
+    assertEquals(single.getPieces(), parallel.getPieces());
+    assertEquals(single.getLines(), parallel.getLines());
+    assertEquals(single.getTotalScore(), parallel.getTotalScore());
+    assertEquals(single.getMinScore(), parallel.getMinScore());
+    assertEquals(single.getMaxScore(), parallel.getMaxScore());
+  }
+
+  /**
+   * Verifica que la suma de las partidas de cada hilo es el total de partidas.
+   */
+  @Test
+  void testRun_WorkerGamesAddUpToTotal() {
+    ParallelSimulationRunner.Report report = new ParallelSimulationRunner(3).run(1000, 5);
+
+    long sum = 0;
+    for (int i = 0; i < report.getWorkers(); i++) {
+      sum += report.getWorkerGames(i);
+    }
+    assertEquals(report.getGames(), sum);
+    assertTrue(report.getGamesPerSecond() > 0);
+  }
+}
@@ -0,0 +1,150 @@
+package cat.uab.tqs.Simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link ReplayArchiveWriter} y {@link ReplayArchive}.
+ *
+ * Verifica que las grabaciones escritas desde varios hilos se leen y reproducen
+ * desde la proyección en memoria, que los lotes agrupan las escrituras, que se puede
+ * seguir añadiendo a un archivo existente y que se descartan los restos de una escritura incompleta.
+ */
+class ReplayArchiveTest {
+
+  @TempDir
+  Path dir;
+
+  private final HeadlessSimulation simulation = new HeadlessSimulation();
+
+  /**
+   * Verifica que las grabaciones añadidas desde varios hilos están todas en el archivo,
+   * se reproducen sin discrepancias y se han escrito en pocos lotes.
+   */
+  @Test
+  void testAppend_ConcurrentWritersThenMappedReplay() throws Exception {
+    Path base = dir.resolve("partidas");
+    int perThread = 100;
+    try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+          long firstSeed = t * 1_000L;
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < perThread; i++) {
+              writer.append(simulation.record(firstSeed + i));
+            }
+            return null;
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdown();
+      }
+      writer.flush();
+      assertEquals(400, writer.getDurable());
+      assertTrue(writer.getCommits() < 400);
+    }
+
+    try (ReplayArchive archive = ReplayArchive.open(base)) {
+      assertEquals(400, archive.size());
+      Replayer replayer = new Replayer();
+      ByteBuffer view = archive.newView();
+      Set<Long> seeds = new HashSet<>();
+      for (int i = 0; i < archive.size(); i++) {
+        assertTrue(replayer.replay(archive.seek(view, i)).matches());
+        assertFalse(view.hasRemaining());
+        seeds.add(archive.read(i).getSeed());
+      }
+      assertEquals(400, seeds.size());
+      assertThrows(IndexOutOfBoundsException.class, () -> archive.seek(archive.newView(), 400));
+    }
+  }
+
+  /**
+   * Verifica que al reabrir un archivo las grabaciones nuevas se añaden tras las existentes.
+   */
+  @Test
+  void testAppend_ReopenContinuesArchive() throws IOException {
+    Path base = dir.resolve("partidas");
+    try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+      assertEquals(0, writer.append(simulation.record(1L)));
+    }
+    try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+      assertEquals(1, writer.append(simulation.record(2L)));
+    }
+    try (ReplayArchive archive = ReplayArchive.open(base)) {
+      assertEquals(2, archive.size());
+      assertEquals(1L, archive.read(0).getSeed());
+      assertEquals(2L, archive.read(1).getSeed());
+    }
+  }
+
+  /**
+   * Verifica que los datos sin indexar y una entrada del índice a medias se descartan al reabrir.
+   */
+  @Test
+  void testRecover_DiscardsTornWrite() throws IOException {
+    Path base = dir.resolve("partidas");
+    Replay replay = simulation.record(3L);
+    try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+      writer.append(replay);
+    }
+    // Simula un fallo a mitad de la escritura del siguiente lote
+    try (FileChannel data = FileChannel.open(ReplayArchive.dataPath(base), StandardOpenOption.APPEND);
+         FileChannel index = FileChannel.open(ReplayArchive.indexPath(base), StandardOpenOption.APPEND)) {
+      data.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+      index.write(ByteBuffer.wrap(new byte[] { 0, 0, 0 }));
+    }
+
+    try (ReplayArchive archive = ReplayArchive.open(base)) {
+      assertEquals(1, archive.size());
+    }
+    try (ReplayArchiveWriter writer = new ReplayArchiveWriter(base)) {
+      assertEquals(1, writer.append(simulation.record(4L)));
+    }
+    try (ReplayArchive archive = ReplayArchive.open(base)) {
+      assertEquals(2, archive.size());
+      assertEquals(replay.getBoardHash(), archive.read(0).getBoardHash());
+      assertEquals(4L, archive.read(1).getSeed());
+    }
+  }
+
+  /**
+   * Verifica que una grabación mayor que el lote se escribe igualmente y que no se
+   * puede añadir tras cerrar.
+   */
+  @Test
+  void testAppend_RecordLargerThanBatch() throws IOException {
+    Path base = dir.resolve("partidas");
+    Replay replay = simulation.record(5L);
+    ReplayArchiveWriter writer = new ReplayArchiveWriter(base, 32, 1);
+    writer.append(replay);
+    writer.append(replay);
+    writer.close();
+    assertThrows(IOException.class, () -> writer.append(replay));
+
+    try (ReplayArchive archive = ReplayArchive.open(base)) {
+      assertEquals(2, archive.size());
+      assertTrue(new Replayer().replay(archive.seek(archive.newView(), 1)).matches());
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package cat.uab.tqs.Simulation;
+
+import cat.uab.tqs.GameControl.Action;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de prueba unitaria para {@link Replay}, {@link ReplayRecorder} y {@link Replayer}.
+ *
+ * Verifica la codificación de longitud variable, que una partida grabada se reproduce
+ * con el mismo resultado desde el objeto y desde los bytes, y que se detectan discrepancias.
+ */
+class ReplayTest {
+
+  /**
+   * Verifica que los enteros de longitud variable se leen igual que se escriben
+   * y ocupan los bytes esperados.
+   *
+   * @param value El valor a codificar.
+   */
+  @ParameterizedTest
+  @ValueSource(longs = { 0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 })
+  void testVarInts_RoundTrip(long value) {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    VarInts.write(value, buffer);
+    assertEquals(VarInts.size(value), buffer.position());
+    buffer.flip();
+    assertEquals(value, VarInts.read(buffer));
+
+    byte[] array = new byte[16];
+    assertEquals(VarInts.size(value), VarInts.write(value, array, 0));
+    assertEquals(value, VarInts.read(ByteBuffer.wrap(array)));
+  }
+
+  /**
+   * Verifica que una partida grabada se reproduce con el mismo resultado, tanto desde
+   * la grabación como desde sus bytes, y que cada acción ocupa poco más de un byte.
+   */
+  @Test
+  void testReplay_MatchesRecordedGame() {
+    HeadlessEngine engine = new HeadlessEngine(11L);
+    engine.startRecording();
+    new HeadlessSimulation().play(engine, new RandomPolicy(11L));
+    Replay replay = engine.finishRecording();
+
+    assertTrue(engine.isGameOver());
+    assertTrue(replay.getEventCount() > 0);
+    assertTrue(replay.encodedSize() < 40 + 2 * replay.getEventCount());
+
+    Replayer.Result fromObject = new Replayer().replay(replay);
+    assertTrue(fromObject.matches());
+    assertEquals(engine.getTicks(), fromObject.getTicks());
+    assertEquals(engine.getGame().getScore(), fromObject.getGame().getScore());
+
+    ByteBuffer bytes = ByteBuffer.wrap(replay.toBytes());
+    assertTrue(new Replayer().replay(bytes).matches());
+    assertFalse(bytes.hasRemaining());
+
+    Replay decoded = Replay.readFrom(ByteBuffer.wrap(replay.toBytes()));
+    assertEquals(replay.getSeed(), decoded.getSeed());
+    assertEquals(replay.getBoardHash(), decoded.getBoardHash());
+    assertEquals(replay.getPieces(), decoded.getPieces());
+  }
+
+  /**
+   * Verifica que varias grabaciones seguidas en un mismo buffer se reproducen una tras otra.
+   */
+  @Test
+  void testReplay_ConsecutiveRecordsInOneBuffer() {
+    HeadlessSimulation simulation = new HeadlessSimulation();
+    Replay first = simulation.record(1L);
+    Replay second = simulation.record(2L);
+    ByteBuffer buffer = ByteBuffer.allocate(first.encodedSize() + second.encodedSize());
+    first.writeTo(buffer);
+    second.writeTo(buffer);
+    buffer.flip();
+
+    Replayer replayer = new Replayer();
+    assertEquals(first.getScore(), replayer.replay(buffer).getGame().getScore());
+    assertTrue(replayer.replay(buffer).matches());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  /**
+   * Verifica que una grabación con acciones distintas de las jugadas no coincide.
+   */
+  @Test
+  void testReplay_DetectsDivergence() {
+    ReplayRecorder recorder = new ReplayRecorder(5L);
+    HeadlessEngine engine = new HeadlessEngine(5L);
+    engine.apply(Action.HARD_DROP);
+    engine.tick();
+    // Se graba otra acción: la reproducción no deja la pieza en el mismo sitio
+    recorder.record(0, Action.LEFT);
+    Replay replay = recorder.finish(engine.getGame(), engine.getTicks());
+    assertFalse(new Replayer().replay(replay).matches());
+  }
+
+  /**
+   * Verifica que NONE no se graba y que no se admiten ticks hacia atrás, datos ajenos
+   * ni grabaciones de la versión 1, que sorteaban las piezas de otra manera.
+   */
+  @Test
+  void testRecorder_RejectsInvalidInput() {
+    ReplayRecorder recorder = new ReplayRecorder(0L);
+    recorder.record(3, Action.NONE);
+    assertEquals(0, recorder.getEventCount());
+    recorder.record(5, Action.ROTATE);
+    assertThrows(IllegalArgumentException.class, () -> recorder.record(4, Action.LEFT));
+    assertThrows(IllegalArgumentException.class, () -> Replay.readFrom(ByteBuffer.allocate(64)));
+    ByteBuffer v1 = ByteBuffer.allocate(64).putInt(0, Replay.MAGIC_V1);
+    assertThrows(IllegalArgumentException.class, () -> Replay.readFrom(v1));
+  }
+}